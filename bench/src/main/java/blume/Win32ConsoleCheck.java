@@ -0,0 +1,206 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	Win32ConsoleCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import blume.bench.MemoryKernel32;
+import blume.bench.RecordingConsoleBackend;
+
+/**
+ * Kernel32 call count check of Blume's Win32 console output, runnable on
+ * any operating system through {@link blume.bench.MemoryKernel32}. It is
+ * in package blume, with the benchmarks, so that it can put
+ * {@link blume.BlumeText} into Win32 mode off Windows.
+ * 
+ * Three colored prints go through {@link blume.Win32ConsoleBackend},
+ * which must make 8 calls (2 on first use, then 2 per print), and through
+ * the path Blume took before the backend existed, which makes 18 (6 per
+ * print). A {@link blume.bench.RecordingConsoleBackend} checks that each
+ * print sets the attributes and then resets them.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.Win32ConsoleCheck
+ */
+public final class Win32ConsoleCheck {
+	/**
+	 * Default text attributes of the console: gray on black.
+	 */
+	private static final short _DEFAULTS_ = 0x07;
+	/**
+	 * Number of colored prints made through each backend.
+	 */
+	private static final int _PRINTS_ = 3;
+	
+	/**
+	 * Static methods only.
+	 */
+	private Win32ConsoleCheck() {}
+	
+	/**
+	 * The calls Blume made for each colored print before
+	 * {@link blume.Win32ConsoleBackend}: {@link Win32#initializeConsole()},
+	 * {@link Win32#setColor(String[])} and {@link Win32#resetConsole()},
+	 * each looking up the standard output handle again.
+	 */
+	private static final class LegacyConsoleBackend implements ConsoleBackend {
+		private final Win32.Kernel32 kernel32;
+		private final Win32.CONSOLE_SCREEN_BUFFER_INFO info = new Win32.CONSOLE_SCREEN_BUFFER_INFO();
+		
+		LegacyConsoleBackend( Win32.Kernel32 kernel32 ) {
+			this.kernel32 = kernel32;
+		}
+		
+		@Override
+		public void setAttributes( String[] mods ) {
+			this.kernel32.GetConsoleScreenBufferInfo( this.kernel32.GetStdHandle( Win32.STD_OUTPUT_HANDLE ), this.info );
+			setAttributes( Win32.parseAttributes( mods ) );
+		}
+		
+		@Override
+		public void setAttributes( short attributes ) {
+			this.kernel32.SetConsoleTextAttribute( this.kernel32.GetStdHandle( Win32.STD_OUTPUT_HANDLE ), attributes );
+		}
+		
+		@Override
+		public void reset() {
+			setAttributes( this.info.wAttributes );
+		}
+	}
+	
+	public static void main( String[] args ) {
+		PrintStream out = Blume.getOut();
+		BlumeCapabilities capabilities = BlumeText.getCapabilities();
+		ConsoleBackend console = Blume._console;
+		boolean isANSI = BlumeText._isANSI;
+		boolean isWin32 = BlumeText._isWin32;
+		int failures = 0;
+		
+		Blume.setOut( new PrintStream( new OutputStream() {
+			@Override
+			public void write( int b ) {}
+			
+			@Override
+			public void write( byte[] b, int off, int len ) {}
+		} ) );
+		setWin32( true, false );
+		BlumeText.setCapabilities( new BlumeCapabilities( true, true, BlumeText._DEPTH_BASIC_ ) );
+		
+		try {
+			MemoryKernel32 cached = new MemoryKernel32( _DEFAULTS_ );
+			MemoryKernel32 legacy = new MemoryKernel32( _DEFAULTS_ );
+			RecordingConsoleBackend recording = new RecordingConsoleBackend( _DEFAULTS_ );
+			
+			failures += check( "cached backend", new Win32ConsoleBackend( cached ), cached, 2 + 2 * _PRINTS_ );
+			failures += check( "legacy path", new LegacyConsoleBackend( legacy ), legacy, 6 * _PRINTS_ );
+			
+			printAll( recording );
+			
+			short red = Win32.parseAttributes( new String[] { BlumeText.Red } );
+			short[] expected = new short[2 * _PRINTS_];
+			
+			for ( int i = 0; i < _PRINTS_; i++ ) {
+				expected[2 * i] = red;
+				expected[2 * i + 1] = _DEFAULTS_;
+			}
+			
+			boolean isPassed = Arrays.equals( expected, recording.getChanges() );
+			
+			if ( !isPassed ) {
+				failures++;
+			}
+			
+			System.out.printf( "%-4s %-16s attribute changes %s%n", isPassed ? "ok" : "FAIL", "recording", Arrays.toString( recording.getChanges() ) );
+		} finally {
+			setWin32( isWin32, isANSI );
+			BlumeText.setCapabilities( capabilities );
+			Blume._console = console;
+			Blume.setOut( out );
+		}
+		
+		if ( failures > 0 ) {
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Makes the colored prints through a backend and compares the kernel32
+	 * calls made with the number expected.
+	 * 
+	 * @param name
+	 * @param backend
+	 * @param kernel32 Library the backend calls.
+	 * @param expected
+	 * @return 1 if the check failed, otherwise 0.
+	 */
+	private static int check( String name, ConsoleBackend backend, MemoryKernel32 kernel32, int expected ) {
+		printAll( backend );
+		
+		boolean isPassed = kernel32.getCallCount() == expected && kernel32.getAttributes() == _DEFAULTS_;
+		
+		System.out.printf( "%-4s %-16s %2d kernel32 calls for %d prints, %d expected%n",
+				isPassed ? "ok" : "FAIL", name, kernel32.getCallCount(), _PRINTS_, expected );
+		
+		return isPassed ? 0 : 1;
+	}
+	
+	/**
+	 * Makes the colored prints through a backend.
+	 * 
+	 * @param backend
+	 */
+	private static void printAll( ConsoleBackend backend ) {
+		Blume.setConsole( backend );
+		
+		for ( int i = 0; i < _PRINTS_; i++ ) {
+			Blume.print( "Blume is \"flower\" in German", BlumeText.Red );
+		}
+	}
+	
+	/**
+	 * Switches Blume between Win32 and ANSI code, as detecting the
+	 * operating system would.
+	 * 
+	 * @param isWin32
+	 * @param isANSI
+	 */
+	static void setWin32( boolean isWin32, boolean isANSI ) {
+		BlumeText._isWin32 = isWin32;
+		BlumeText._isANSI = isANSI;
+		
+		BlumeText.initializePalette();
+		BlumeText.Background.initializePalette();
+	}
+}
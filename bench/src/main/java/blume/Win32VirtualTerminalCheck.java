@@ -0,0 +1,139 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	Win32VirtualTerminalCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import blume.bench.MemoryKernel32;
+
+/**
+ * Check of Blume's switch from Win32 code to ANSI code on consoles which
+ * take ANSI escape sequences, runnable on any operating system through
+ * {@link blume.bench.MemoryKernel32}. It is in package blume, with the
+ * benchmarks, so that it can start {@link blume.BlumeText} in Win32 mode.
+ * 
+ * A Windows 10 console must turn on virtual terminal processing, switch
+ * Blume to ANSI code at 24-bit depth and make 0 kernel32 calls per
+ * colored print. An older console must keep its console mode and Blume's
+ * color depth, stay on Win32 code and make 2 calls per print after the
+ * first.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.Win32VirtualTerminalCheck
+ */
+public final class Win32VirtualTerminalCheck {
+	/**
+	 * Default text attributes of the console: gray on black.
+	 */
+	private static final short _DEFAULTS_ = 0x07;
+	/**
+	 * Number of colored prints made on each console.
+	 */
+	private static final int _PRINTS_ = 3;
+	
+	/**
+	 * Static methods only.
+	 */
+	private Win32VirtualTerminalCheck() {}
+	
+	public static void main( String[] args ) {
+		PrintStream out = Blume.getOut();
+		BlumeCapabilities capabilities = BlumeText.getCapabilities();
+		ConsoleBackend console = Blume._console;
+		boolean isANSI = BlumeText._isANSI;
+		boolean isWin32 = BlumeText._isWin32;
+		int failures = 0;
+		
+		Blume.setOut( new PrintStream( new OutputStream() {
+			@Override
+			public void write( int b ) {}
+			
+			@Override
+			public void write( byte[] b, int off, int len ) {}
+		} ) );
+		
+		try {
+			failures += check( "Windows 10 console", true, true, BlumeText._DEPTH_24_BIT_, 0 );
+			failures += check( "older console", false, false, BlumeText._DEPTH_BASIC_, 2 + 2 * _PRINTS_ );
+		} finally {
+			Win32ConsoleCheck.setWin32( isWin32, isANSI );
+			BlumeText.setCapabilities( capabilities );
+			Blume._console = console;
+			Blume.setOut( out );
+		}
+		
+		if ( failures > 0 ) {
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Starts Blume in Win32 mode at basic depth on a console, lets it try
+	 * to turn on virtual terminal processing as it does on Windows, and
+	 * makes the colored prints.
+	 * 
+	 * @param name
+	 * @param isVirtualTerminalSupported Whether the console takes ANSI escape sequences.
+	 * @param isANSI Whether Blume must end up using ANSI code.
+	 * @param depth Color depth Blume must end up at.
+	 * @param calls Kernel32 calls the prints must make.
+	 * @return 1 if the check failed, otherwise 0.
+	 */
+	private static int check( String name, boolean isVirtualTerminalSupported, boolean isANSI, int depth, int calls ) {
+		MemoryKernel32 kernel32 = new MemoryKernel32( _DEFAULTS_, isVirtualTerminalSupported );
+		
+		Win32ConsoleCheck.setWin32( true, false );
+		BlumeText.setCapabilities( new BlumeCapabilities( true, true, BlumeText._DEPTH_BASIC_ ) );
+		BlumeText.initializeVirtualTerminal( kernel32, false );
+		
+		boolean hasFlag = ( kernel32.getMode() & Win32.ENABLE_VIRTUAL_TERMINAL_PROCESSING ) != 0;
+		
+		Blume.setConsole( new Win32ConsoleBackend( kernel32 ) );
+		kernel32.resetCallCount();
+		
+		for ( int i = 0; i < _PRINTS_; i++ ) {
+			Blume.print( "Blume is \"flower\" in German", BlumeText.Red );
+		}
+		
+		boolean isPassed = BlumeText.getIsANSI() == isANSI && BlumeText.getIsWin32() == !isANSI
+				&& hasFlag == isVirtualTerminalSupported && BlumeText.getColorDepth() == depth
+				&& kernel32.getCallCount() == calls && kernel32.getAttributes() == _DEFAULTS_;
+		
+		System.out.printf( "%-4s %-18s %-5s code, %2d-bit depth, %d kernel32 calls for %d prints, %d expected%n",
+				isPassed ? "ok" : "FAIL", name, BlumeText.getIsANSI() ? "ANSI" : "Win32", BlumeText.getColorDepth(),
+				kernel32.getCallCount(), _PRINTS_, calls );
+		
+		return isPassed ? 0 : 1;
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeAllocationCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import blume.Blume;
+import blume.BlumeCapabilities;
+import blume.BlumeColor;
+import blume.BlumeEncoder;
+import blume.BlumeStyle;
+import blume.BlumeText;
+
+/**
+ * Allocation regression check for Blume's print paths. Every colored
+ * print overload is warmed up and then called again while the calling
+ * thread's allocated bytes are read from the JVM, in 8-bit and 24-bit
+ * modes; the check fails if any call allocates on the steady-state path.
+ * 
+ * Exit status: 0 if every path allocates less than
+ * {@link #_MAX_BYTES_PER_CALL_} bytes per call, 1 if any path allocates
+ * that much or more, and 2 if the JVM cannot count allocated bytes. The
+ * expected figure for every path is 0 bytes per call.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.bench.BlumeAllocationCheck
+ */
+public final class BlumeAllocationCheck {
+	/**
+	 * Calls made before measuring, so that the thread's writer exists and
+	 * the print paths are compiled.
+	 */
+	private static final int _WARMUP_CALLS_ = 200000;
+	/**
+	 * Calls measured for each path.
+	 */
+	private static final int _MEASURED_CALLS_ = 100000;
+	/**
+	 * Bytes per call at which a path fails. Steady-state calls allocate
+	 * nothing, so any whole byte per call is a regression; less than that
+	 * is left for reading the counter itself.
+	 */
+	private static final double _MAX_BYTES_PER_CALL_ = 1.0;
+	/**
+	 * Text printed by every call.
+	 */
+	private static final String _TEXT_ = "Blume is \"flower\" in German";
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeAllocationCheck() {}
+	
+	/**
+	 * One print path under test.
+	 */
+	private static abstract class Path {
+		final String name;
+		
+		Path( String name ) {
+			this.name = name;
+		}
+		
+		abstract void call();
+	}
+	
+	public static void main( String[] args ) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		
+		if ( !threads.isThreadAllocatedMemorySupported() ) {
+			System.err.println( "Thread allocation counting is not supported by this JVM." );
+			System.exit( 2 );
+		}
+		
+		threads.setThreadAllocatedMemoryEnabled( true );
+		
+		PrintStream out = Blume.getOut();
+		BlumeCapabilities capabilities = BlumeText.getCapabilities();
+		int failures = 0;
+		
+		Blume.setOut( new PrintStream( new OutputStream() {
+			@Override
+			public void write( int b ) {}
+			
+			@Override
+			public void write( byte[] b, int off, int len ) {}
+		} ) );
+		
+		try {
+			for ( int depth : new int[] { BlumeText._DEPTH_8_BIT_, BlumeText._DEPTH_24_BIT_ } ) {
+				BlumeText.setCapabilities( new BlumeCapabilities( true, true, depth ) );
+				
+				for ( Path path : getPaths( depth ) ) {
+					for ( int i = 0; i < _WARMUP_CALLS_; i++ ) {
+						path.call();
+					}
+					
+					long before = threads.getThreadAllocatedBytes( Thread.currentThread().getId() );
+					
+					for ( int i = 0; i < _MEASURED_CALLS_; i++ ) {
+						path.call();
+					}
+					
+					long bytes = threads.getThreadAllocatedBytes( Thread.currentThread().getId() ) - before;
+					double bytesPerCall = (double) bytes / _MEASURED_CALLS_;
+					boolean isPassed = bytesPerCall < _MAX_BYTES_PER_CALL_;
+					
+					if ( !isPassed ) {
+						failures++;
+					}
+					
+					out.printf( "%-4s %2d-bit %-20s %10d bytes / %d calls = %.4f bytes/call%n",
+							isPassed ? "ok" : "FAIL", depth, path.name, bytes, _MEASURED_CALLS_, bytesPerCall );
+				}
+			}
+		} finally {
+			Blume.setOut( out );
+			BlumeText.setCapabilities( capabilities );
+		}
+		
+		if ( failures > 0 ) {
+			out.println( failures + " print path(s) allocate " + _MAX_BYTES_PER_CALL_ + " or more bytes per call on the steady-state path." );
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Gets every colored print path, with 8-bit or 24-bit colors to match
+	 * the depth.
+	 * 
+	 * @param depth
+	 * @return Paths to check.
+	 */
+	private static Path[] getPaths( int depth ) {
+		final String[] mods = { BlumeText.Cyan, BlumeText.Background.Magenta, BlumeText.Attribute.Bold };
+		final String[] attrs = { BlumeText.Attribute.Bold, BlumeText.Attribute.Underline };
+		final BlumeColor fg;
+		final BlumeColor bg;
+		
+		if ( depth == BlumeText._DEPTH_8_BIT_ ) {
+			fg = BlumeColor.valueOf( 208 );
+			bg = BlumeColor.valueOf( 17 );
+		} else {
+			fg = BlumeColor.valueOf( 255, 155, 231 );
+			bg = BlumeColor.valueOf( 12, 34, 56 );
+		}
+		
+		final BlumeStyle style = BlumeStyle.of( fg, bg, attrs );
+		final byte[] scratch = BlumeEncoder.getScratch();
+		
+		return new Path[] {
+			new Path( "encodePrefix" ) {
+				@Override
+				void call() {
+					BlumeEncoder.encodePrefix( scratch, 0, attrs, fg, bg );
+				}
+			},
+			new Path( "print(mods)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, mods );
+				}
+			},
+			new Path( "print(fg)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, fg );
+				}
+			},
+			new Path( "print(fg, bg)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, fg, bg );
+				}
+			},
+			new Path( "print(fg, attrs)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, fg, attrs );
+				}
+			},
+			new Path( "print(fg, bg, attrs)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, fg, bg, attrs );
+				}
+			},
+			new Path( "print(style)" ) {
+				@Override
+				void call() {
+					Blume.print( _TEXT_, style );
+				}
+			},
+			new Path( "println(fg, bg)" ) {
+				@Override
+				void call() {
+					Blume.println( _TEXT_, fg, bg );
+				}
+			}
+		};
+	}
+}
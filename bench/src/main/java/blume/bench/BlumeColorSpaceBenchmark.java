@@ -0,0 +1,138 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeColorSpaceBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.BlumeColor;
+import blume.BlumeColorSpace;
+
+/**
+ * Throughput of {@link blume.BlumeColorSpace} in colors per second over a
+ * block of random 24-bit colors: decoding to and encoding from linear
+ * light, blending two blocks, and a round trip through OKLab.
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumeColorSpaceBenchmark
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumeColorSpaceBenchmark {
+	/**
+	 * Number of colors in each block, e.g., the cells of a 128 x 32 heatmap.
+	 */
+	private static final int _COLORS_ = 4096;
+	
+	/**
+	 * Colors converted by every benchmark, and the colors they are mixed with.
+	 */
+	private int[] from;
+	private int[] to;
+	/**
+	 * Packed results.
+	 */
+	private int[] packed;
+	/**
+	 * Linear light of {@link #from}, and room for three floats per color.
+	 */
+	private float[] linear;
+	private float[] lab;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random( 42 );
+		
+		this.from = new int[_COLORS_];
+		this.to = new int[_COLORS_];
+		this.packed = new int[_COLORS_];
+		this.linear = new float[3 * _COLORS_];
+		this.lab = new float[3 * _COLORS_];
+		
+		for ( int i = 0; i < _COLORS_; i++ ) {
+			this.from[i] = BlumeColor.pack24Bit( random.nextInt( 1 << 24 ) );
+			this.to[i] = BlumeColor.pack24Bit( random.nextInt( 1 << 24 ) );
+		}
+		
+		BlumeColorSpace.toLinear( this.from, this.linear, 0, _COLORS_ );
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public float[] toLinear() {
+		BlumeColorSpace.toLinear( this.from, this.lab, 0, _COLORS_ );
+		
+		return this.lab;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public int[] fromLinear() {
+		BlumeColorSpace.fromLinear( this.linear, this.packed, 0, _COLORS_ );
+		
+		return this.packed;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public int[] mix() {
+		BlumeColorSpace.mix( this.from, this.to, 0.25f, this.packed, 0, _COLORS_ );
+		
+		return this.packed;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public int[] okLabRoundTrip() {
+		BlumeColorSpace.toOKLab( this.from, this.lab, 0, _COLORS_ );
+		BlumeColorSpace.fromOKLab( this.lab, this.packed, 0, _COLORS_ );
+		
+		return this.packed;
+	}
+}
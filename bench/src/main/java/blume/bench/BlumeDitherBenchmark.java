@@ -0,0 +1,129 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeDitherBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.BlumeColor;
+import blume.BlumeDither;
+
+/**
+ * Cost of dithering a full screen of 200x100 cells of 24-bit color with
+ * {@link blume.BlumeDither}, by ordered dithering and Floyd-Steinberg
+ * error diffusion, down to 8-bit and basic depth. Each call first copies
+ * the screen's colors into the buffer which is dithered in place.
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumeDitherBenchmark
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumeDitherBenchmark {
+	/**
+	 * Size of the screen in cells.
+	 */
+	static final int _WIDTH_ = 200;
+	static final int _HEIGHT_ = 100;
+	
+	/**
+	 * Color depth the screen is dithered to: 8 or 4.
+	 */
+	@Param( { "8", "4" } )
+	public int depth;
+	/**
+	 * Dithering method.
+	 */
+	@Param( { "Ordered", "FloydSteinberg" } )
+	public BlumeDither.Method method;
+	
+	/**
+	 * Colors of the screen, and the buffer they are dithered in.
+	 */
+	private int[] screen;
+	private int[] pixels;
+	
+	@Setup
+	public void setup() {
+		this.screen = createScreen( new Random( 42 ) );
+		this.pixels = new int[this.screen.length];
+	}
+	
+	@Benchmark
+	public int[] dither() {
+		System.arraycopy( this.screen, 0, this.pixels, 0, this.screen.length );
+		
+		BlumeDither.dither( this.pixels, _WIDTH_, _HEIGHT_, this.depth, this.method );
+		
+		return this.pixels;
+	}
+	
+	/**
+	 * Creates a screen of smooth gradients with a little noise, the kind
+	 * of image dithering is for.
+	 * 
+	 * @param random
+	 * @return Packed 24-bit colors, row after row.
+	 */
+	static int[] createScreen( Random random ) {
+		int[] screen = new int[_WIDTH_ * _HEIGHT_];
+		
+		for ( int y = 0; y < _HEIGHT_; y++ ) {
+			for ( int x = 0; x < _WIDTH_; x++ ) {
+				int r = 255 * x / ( _WIDTH_ - 1 );
+				int g = 255 * y / ( _HEIGHT_ - 1 );
+				int b = Math.min( 255, Math.max( 0, 128 + ( x - y ) / 2 + random.nextInt( 9 ) - 4 ) );
+				
+				screen[y * _WIDTH_ + x] = BlumeColor.pack24Bit( r, g, b );
+			}
+		}
+		
+		return screen;
+	}
+}
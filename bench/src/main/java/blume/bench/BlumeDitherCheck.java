@@ -0,0 +1,131 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeDitherCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import blume.BlumeDither;
+import blume.BlumeText;
+
+/**
+ * Determinism check of {@link blume.BlumeDither}. A full screen of 200x100
+ * cells is dithered by each method at 8-bit and basic depth inside
+ * fork/join pools of parallelism 1 and of {@link #_PARALLELISMS_}, which
+ * split Floyd-Steinberg diffusion into as many wavefront lanes, several
+ * times each. The check fails if any result differs from the one of
+ * parallelism 1.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.bench.BlumeDitherCheck
+ */
+public final class BlumeDitherCheck {
+	/**
+	 * Parallelism of the pools compared with a pool of parallelism 1.
+	 */
+	private static final int[] _PARALLELISMS_ = { 2, 3, 4, 8 };
+	/**
+	 * Times the screen is dithered in each pool, so that races between
+	 * lanes get a chance to show.
+	 */
+	private static final int _REPEATS_ = 50;
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeDitherCheck() {}
+	
+	public static void main( String[] args ) throws InterruptedException, ExecutionException {
+		int[] screen = BlumeDitherBenchmark.createScreen( new Random( 42 ) );
+		int failures = 0;
+		
+		for ( BlumeDither.Method method : new BlumeDither.Method[] { BlumeDither.Method.Ordered, BlumeDither.Method.FloydSteinberg } ) {
+			for ( int depth : new int[] { BlumeText._DEPTH_8_BIT_, BlumeText._DEPTH_BASIC_ } ) {
+				int[] expected = dither( new ForkJoinPool( 1 ), screen, depth, method );
+				int mismatches = 0;
+				
+				for ( int parallelism : _PARALLELISMS_ ) {
+					ForkJoinPool pool = new ForkJoinPool( parallelism );
+					
+					for ( int i = 0; i < _REPEATS_; i++ ) {
+						if ( !Arrays.equals( expected, dither( pool, screen, depth, method ) ) ) {
+							mismatches++;
+						}
+					}
+					
+					pool.shutdown();
+				}
+				
+				boolean isPassed = mismatches == 0;
+				
+				if ( !isPassed ) {
+					failures++;
+				}
+				
+				System.out.printf( "%-4s %-14s depth %2d: %d of %d results differ from parallelism 1%n",
+						isPassed ? "ok" : "FAIL", method, depth, mismatches, _PARALLELISMS_.length * _REPEATS_ );
+			}
+		}
+		
+		if ( failures > 0 ) {
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Dithers a copy of a screen inside a fork/join pool.
+	 * 
+	 * @param pool
+	 * @param screen
+	 * @param depth
+	 * @param method
+	 * @return Dithered copy.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private static int[] dither( ForkJoinPool pool, int[] screen, final int depth, final BlumeDither.Method method )
+			throws InterruptedException, ExecutionException {
+		final int[] pixels = screen.clone();
+		
+		pool.submit( new Runnable() {
+			@Override
+			public void run() {
+				BlumeDither.dither( pixels, BlumeDitherBenchmark._WIDTH_, BlumeDitherBenchmark._HEIGHT_, depth, method );
+			}
+		} ).get();
+		
+		return pixels;
+	}
+}
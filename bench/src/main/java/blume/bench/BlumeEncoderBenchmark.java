@@ -0,0 +1,146 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeEncoderBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.BlumeColor;
+import blume.BlumeEncoder;
+import blume.BlumeText;
+
+/**
+ * Cost of encoding one foreground and background prefix with
+ * {@link blume.BlumeEncoder}, averaged over every pair of 8-bit colors or
+ * as many pairs of 24-bit colors, with zero, one or two display
+ * attributes.
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumeEncoderBenchmark
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumeEncoderBenchmark {
+	/**
+	 * Number of 8-bit foreground and background pairs.
+	 */
+	private static final int _PAIRS_ = 256 * 256;
+	
+	/**
+	 * Color depth the prefixes are encoded at: 8 or 24.
+	 */
+	@Param( { "8", "24" } )
+	public int depth;
+	/**
+	 * Display attributes before the colors: none, bold, or bold and
+	 * underline.
+	 */
+	@Param( { "", "1", "1,4" } )
+	public String attributes;
+	
+	/**
+	 * Color depth before the benchmark, restored afterwards.
+	 */
+	private int previousDepth;
+	/**
+	 * Packed foreground and background of every pair.
+	 */
+	private int[] fgs;
+	private int[] bgs;
+	/**
+	 * Parsed display attributes, or null for none, and the buffer every
+	 * prefix is encoded into.
+	 */
+	private String[] attrs;
+	private byte[] dst;
+	
+	@Setup
+	public void setup() {
+		this.previousDepth = BlumeText.getColorDepth();
+		
+		BlumeText.setColorDepth( this.depth );
+		
+		this.fgs = new int[_PAIRS_];
+		this.bgs = new int[_PAIRS_];
+		
+		for ( int i = 0; i < _PAIRS_; i++ ) {
+			int fg = i >> 8;
+			int bg = i & 0xFF;
+			
+			if ( this.depth == BlumeText._DEPTH_8_BIT_ ) {
+				this.fgs[i] = BlumeColor.pack8Bit( fg );
+				this.bgs[i] = BlumeColor.pack8Bit( bg );
+			} else {
+				this.fgs[i] = BlumeColor.pack24Bit( fg, bg, 255 - fg );
+				this.bgs[i] = BlumeColor.pack24Bit( bg, 255 - bg, fg );
+			}
+		}
+		
+		this.attrs = this.attributes.isEmpty() ? null : this.attributes.split( "," );
+		this.dst = new byte[BlumeEncoder.getMaxPrefixLength( this.attrs )];
+	}
+	
+	@TearDown
+	public void tearDown() {
+		BlumeText.setColorDepth( this.previousDepth );
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _PAIRS_ )
+	public int encodePrefix() {
+		int length = 0;
+		
+		for ( int i = 0; i < _PAIRS_; i++ ) {
+			length += BlumeEncoder.encodePrefix( this.dst, 0, this.attrs, this.fgs[i], this.bgs[i] );
+		}
+		
+		return length;
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumePrintBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.Blume;
+import blume.BlumeCapabilities;
+import blume.BlumeColor;
+import blume.BlumeStyle;
+import blume.BlumeText;
+
+/**
+ * Throughput of every public Blume print path writing to a null sink, in
+ * 8-bit and 24-bit modes. Run with the gc profiler to see bytes allocated
+ * per call next to ops/s:
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumePrintBenchmark -prof gc
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumePrintBenchmark {
+	/**
+	 * Text printed by every benchmark.
+	 */
+	private static final String _TEXT_ = "Blume is \"flower\" in German";
+	
+	/**
+	 * Color depth the terminal is forced to: 8 or 24.
+	 */
+	@Param( { "8", "24" } )
+	public int depth;
+	
+	/**
+	 * Stream and capabilities Blume had before the benchmark, restored
+	 * afterwards.
+	 */
+	private PrintStream out;
+	private BlumeCapabilities capabilities;
+	/**
+	 * Arguments of the print calls, 8-bit or 24-bit colors to match the
+	 * depth.
+	 */
+	private String[] mods;
+	private String[] attrs;
+	private BlumeColor fg;
+	private BlumeColor bg;
+	private BlumeStyle style;
+	
+	@Setup
+	public void setup() {
+		this.out = Blume.getOut();
+		this.capabilities = BlumeText.getCapabilities();
+		
+		Blume.setOut( new PrintStream( new OutputStream() {
+			@Override
+			public void write( int b ) {}
+			
+			@Override
+			public void write( byte[] b, int off, int len ) {}
+		} ) );
+		BlumeText.setCapabilities( new BlumeCapabilities( true, true, this.depth ) );
+		
+		this.mods = new String[] { BlumeText.Cyan, BlumeText.Background.Magenta, BlumeText.Attribute.Bold };
+		this.attrs = new String[] { BlumeText.Attribute.Bold, BlumeText.Attribute.Underline };
+		
+		if ( this.depth == BlumeText._DEPTH_8_BIT_ ) {
+			this.fg = BlumeColor.valueOf( 208 );
+			this.bg = BlumeColor.valueOf( 17 );
+		} else {
+			this.fg = BlumeColor.valueOf( 255, 155, 231 );
+			this.bg = BlumeColor.valueOf( 12, 34, 56 );
+		}
+		
+		this.style = BlumeStyle.of( this.fg, this.bg, this.attrs );
+	}
+	
+	@TearDown
+	public void tearDown() {
+		Blume.setOut( this.out );
+		BlumeText.setCapabilities( this.capabilities );
+	}
+	
+	@Benchmark
+	public void printMods() {
+		Blume.print( _TEXT_, this.mods );
+	}
+	
+	@Benchmark
+	public void printFg() {
+		Blume.print( _TEXT_, this.fg );
+	}
+	
+	@Benchmark
+	public void printFgBg() {
+		Blume.print( _TEXT_, this.fg, this.bg );
+	}
+	
+	@Benchmark
+	public void printFgAttrs() {
+		Blume.print( _TEXT_, this.fg, this.attrs );
+	}
+	
+	@Benchmark
+	public void printFgBgAttrs() {
+		Blume.print( _TEXT_, this.fg, this.bg, this.attrs );
+	}
+	
+	@Benchmark
+	public void printStyle() {
+		Blume.print( _TEXT_, this.style );
+	}
+	
+	@Benchmark
+	public void printlnMods() {
+		Blume.println( _TEXT_, this.mods );
+	}
+	
+	@Benchmark
+	public void printlnFg() {
+		Blume.println( _TEXT_, this.fg );
+	}
+	
+	@Benchmark
+	public void printlnFgBg() {
+		Blume.println( _TEXT_, this.fg, this.bg );
+	}
+	
+	@Benchmark
+	public void printlnFgAttrs() {
+		Blume.println( _TEXT_, this.fg, this.attrs );
+	}
+	
+	@Benchmark
+	public void printlnFgBgAttrs() {
+		Blume.println( _TEXT_, this.fg, this.bg, this.attrs );
+	}
+	
+	@Benchmark
+	public void printlnStyle() {
+		Blume.println( _TEXT_, this.style );
+	}
+	
+	@Benchmark
+	public void display8BitColors() {
+		Blume.display8BitColors();
+	}
+	
+	@Benchmark
+	public void displayANSIGradients() {
+		Blume.displayANSIGradients();
+	}
+}
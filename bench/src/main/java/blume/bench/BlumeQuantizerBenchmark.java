@@ -0,0 +1,126 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeQuantizerBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.BlumeColor;
+import blume.BlumeQuantizer;
+import blume.BlumeText;
+
+/**
+ * Cost of reducing one 24-bit color to a palette color with
+ * {@link blume.BlumeQuantizer#quantize(int, int)}, a table lookup, against
+ * the exhaustive redmean searches {@link blume.BlumeQuantizer#nearest256(int)}
+ * and {@link blume.BlumeQuantizer#nearest16(int)}, at 8-bit and basic depth.
+ * BlumeQuantizerCheck measures how far apart their results are.
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumeQuantizerBenchmark
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumeQuantizerBenchmark {
+	/**
+	 * Number of random colors reduced by each invocation.
+	 */
+	private static final int _COLORS_ = 4096;
+	
+	/**
+	 * Color depth the colors are reduced to: 8 or 4.
+	 */
+	@Param( { "8", "4" } )
+	public int depth;
+	
+	/**
+	 * Colors as 0xRRGGBB, and the same colors packed.
+	 */
+	private int[] rgbs;
+	private int[] packed;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random( 42 );
+		
+		this.rgbs = new int[_COLORS_];
+		this.packed = new int[_COLORS_];
+		
+		for ( int i = 0; i < _COLORS_; i++ ) {
+			this.rgbs[i] = random.nextInt( 1 << 24 );
+			this.packed[i] = BlumeColor.pack24Bit( this.rgbs[i] );
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public int quantize() {
+		int sum = 0;
+		
+		for ( int i = 0; i < _COLORS_; i++ ) {
+			sum += BlumeQuantizer.quantize( this.packed[i], this.depth );
+		}
+		
+		return sum;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation( _COLORS_ )
+	public int exhaustive() {
+		int sum = 0;
+		
+		for ( int i = 0; i < _COLORS_; i++ ) {
+			sum += ( this.depth == BlumeText._DEPTH_8_BIT_ ) ? BlumeQuantizer.nearest256( this.rgbs[i] )
+					: BlumeQuantizer.nearest16( this.rgbs[i] );
+		}
+		
+		return sum;
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeQuantizerCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import blume.BlumeColor;
+import blume.BlumeQuantizer;
+import blume.BlumeText;
+
+/**
+ * Accuracy check of {@link blume.BlumeQuantizer#quantize(int, int)}
+ * against the exhaustive searches {@link blume.BlumeQuantizer#nearest256(int)}
+ * and {@link blume.BlumeQuantizer#nearest16(int)}, over every 24-bit color
+ * at 8-bit and basic depth.
+ * 
+ * Error is how much farther the table's color is than the exhaustive
+ * search's by the square root of {@link blume.BlumeQuantizer#distance(int, int)},
+ * a redmean distance in about the units of an 8-bit channel. The check
+ * reports how often the two differ and the mean and largest error, and
+ * fails if the mean error reaches {@link #_MAX_MEAN_ERROR_} or the largest
+ * reaches {@link #_MAX_ERROR_}.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.bench.BlumeQuantizerCheck
+ */
+public final class BlumeQuantizerCheck {
+	/**
+	 * Largest mean error allowed at either depth, over every 24-bit color
+	 * including those where the table and the search agree. The tables
+	 * measure about 0.69 at 8-bit and 0.08 at basic depth.
+	 */
+	private static final double _MAX_MEAN_ERROR_ = 1.0;
+	/**
+	 * Largest error allowed for any one color: twice the distance from the
+	 * center of a lookup table cell to its corner, 2 * sqrt( ( 3 + 4 + 3 ) * 4 * 4 ),
+	 * which bounds how much worse the color nearest to the center can be.
+	 */
+	private static final double _MAX_ERROR_ = 25.3;
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeQuantizerCheck() {}
+	
+	public static void main( String[] args ) {
+		int failures = 0;
+		
+		for ( int depth : new int[] { BlumeText._DEPTH_8_BIT_, BlumeText._DEPTH_BASIC_ } ) {
+			long differing = 0;
+			double sum = 0;
+			double max = 0;
+			int worst = 0;
+			
+			for ( int rgb = 0; rgb < 1 << 24; rgb++ ) {
+				int lut = BlumeColor.toRGB( BlumeQuantizer.quantize( BlumeColor.pack24Bit( rgb ), depth ) );
+				int exact = BlumeColor.toRGB( ( depth == BlumeText._DEPTH_8_BIT_ )
+						? BlumeColor.pack8Bit( BlumeQuantizer.nearest256( rgb ) )
+						: BlumeColor.valueOf( BlumeQuantizer.nearest16( rgb ) ).getPacked() );
+				
+				if ( lut == exact ) {
+					continue;
+				}
+				
+				double error = Math.sqrt( BlumeQuantizer.distance( rgb, lut ) ) - Math.sqrt( BlumeQuantizer.distance( rgb, exact ) );
+				
+				differing++;
+				sum += error;
+				
+				if ( error > max ) {
+					max = error;
+					worst = rgb;
+				}
+			}
+			
+			double mean = sum / ( 1 << 24 );
+			boolean isPassed = mean < _MAX_MEAN_ERROR_ && max < _MAX_ERROR_;
+			
+			if ( !isPassed ) {
+				failures++;
+			}
+			
+			System.out.printf( "%-4s depth %2d: %5.2f%% of colors differ, mean error %.4f, max error %.2f at #%06x%n",
+					isPassed ? "ok" : "FAIL", depth, 100.0 * differing / ( 1 << 24 ), mean, max, worst );
+		}
+		
+		if ( failures > 0 ) {
+			System.exit( 1 );
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeSinkCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import blume.Blume;
+import blume.BlumeCapabilities;
+import blume.BlumeColor;
+import blume.BlumeParser;
+import blume.BlumeSink;
+import blume.BlumeText;
+
+/**
+ * Contention check for {@link blume.BlumeSink} on platform threads. Several
+ * threads print numbered lines at once, half through the sink itself and
+ * half through colored Blume.println calls, into a deliberately slow
+ * stream. The check fails if the stream is ever written by two threads at
+ * once, or if any line is lost, duplicated, interleaved with another or
+ * out of order within its thread.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.bench.BlumeSinkCheck
+ */
+public final class BlumeSinkCheck {
+	/**
+	 * Threads printing at once.
+	 */
+	private static final int _THREADS_ = 8;
+	/**
+	 * Lines printed by each thread.
+	 */
+	private static final int _LINES_ = 20000;
+	/**
+	 * Text after each line's number, long enough that a torn write shows.
+	 */
+	private static final String _PADDING_ = " the quick brown fox jumps over the lazy dog";
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeSinkCheck() {}
+	
+	/**
+	 * Stream which collects everything written to it, yields inside each
+	 * write so that other threads pile up behind the sink's lock, and
+	 * counts overlapping writes.
+	 */
+	private static final class SlowStream extends OutputStream {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final AtomicInteger writers = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final AtomicInteger writes = new AtomicInteger();
+		
+		@Override
+		public void write( int b ) {
+			write( new byte[] { (byte) b }, 0, 1 );
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) {
+			if ( this.writers.incrementAndGet() > 1 ) {
+				this.overlaps.incrementAndGet();
+			}
+			
+			this.writes.incrementAndGet();
+			this.bytes.write( b, off, len );
+			Thread.yield();
+			
+			this.writers.decrementAndGet();
+		}
+	}
+	
+	public static void main( String[] args ) throws InterruptedException {
+		final SlowStream stream = new SlowStream();
+		final BlumeSink sink = new BlumeSink( stream );
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final BlumeColor fg = BlumeColor.valueOf( 255, 155, 231 );
+		final BlumeColor bg = BlumeColor.valueOf( 17 );
+		PrintStream out = Blume.getOut();
+		BlumeCapabilities capabilities = BlumeText.getCapabilities();
+		Thread[] threads = new Thread[_THREADS_];
+		
+		Blume.setOut( sink );
+		BlumeText.setCapabilities( new BlumeCapabilities( true, true, BlumeText._DEPTH_24_BIT_ ) );
+		
+		try {
+			for ( int t = 0; t < _THREADS_; t++ ) {
+				final int thread = t;
+				
+				threads[t] = new Thread( "sink-check-" + t ) {
+					@Override
+					public void run() {
+						try {
+							start.await();
+						} catch ( InterruptedException e ) {
+							return;
+						}
+						
+						for ( int line = 0; line < _LINES_; line++ ) {
+							String text = thread + ":" + line + _PADDING_;
+							
+							if ( line % 2 == 0 ) {
+								sink.println( text );
+							} else {
+								Blume.println( text, fg, bg );
+							}
+						}
+					}
+				};
+				threads[t].start();
+			}
+			
+			start.countDown();
+			
+			for ( Thread thread : threads ) {
+				thread.join();
+			}
+			
+			sink.flush();
+		} finally {
+			Blume.setOut( out );
+			BlumeText.setCapabilities( capabilities );
+		}
+		
+		String text = BlumeParser.strip( new String( stream.bytes.toByteArray(), StandardCharsets.UTF_8 ) );
+		String[] lines = text.split( System.lineSeparator(), -1 );
+		int[] next = new int[_THREADS_];
+		int failures = 0;
+		
+		// Every line is whole and each thread's lines come in order, the last piece being empty
+		for ( int i = 0; i < lines.length - 1; i++ ) {
+			String line = lines[i];
+			int colon = line.indexOf( ':' );
+			int space = line.indexOf( ' ' );
+			
+			if ( colon < 0 || space < colon || !line.substring( space ).equals( _PADDING_ ) ) {
+				if ( failures++ < 10 ) {
+					out.println( "Torn line " + i + ": " + line );
+				}
+				
+				continue;
+			}
+			
+			int thread = Integer.parseInt( line.substring( 0, colon ) );
+			int number = Integer.parseInt( line.substring( colon + 1, space ) );
+			
+			if ( number != next[thread] ) {
+				if ( failures++ < 10 ) {
+					out.println( "Thread " + thread + " printed line " + number + " when " + next[thread] + " was next." );
+				}
+			}
+			
+			next[thread] = number + 1;
+		}
+		
+		for ( int t = 0; t < _THREADS_; t++ ) {
+			if ( next[t] != _LINES_ ) {
+				failures++;
+				out.println( "Thread " + t + " ended at line " + next[t] + " of " + _LINES_ + "." );
+			}
+		}
+		
+		if ( lines.length - 1 != _THREADS_ * _LINES_ || !lines[lines.length - 1].isEmpty() ) {
+			failures++;
+			out.println( ( lines.length - 1 ) + " lines written, " + ( _THREADS_ * _LINES_ ) + " expected." );
+		}
+		
+		if ( stream.overlaps.get() > 0 ) {
+			failures++;
+			out.println( stream.overlaps.get() + " writes overlapped another." );
+		}
+		
+		out.println( _THREADS_ * _LINES_ + " lines from " + _THREADS_ + " threads in " + stream.writes.get()
+				+ " writes to the stream, " + failures + " failure(s)." );
+		
+		if ( failures > 0 ) {
+			System.exit( 1 );
+		}
+	}
+}
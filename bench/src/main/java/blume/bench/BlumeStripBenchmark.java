@@ -0,0 +1,125 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeStripBenchmark.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import blume.BlumeParser;
+
+/**
+ * {@link blume.BlumeParser}'s strip methods against the usual regular
+ * expression for removing colors, on captured log lines with or without
+ * escape sequences. Run with the gc profiler to compare allocation too:
+ * 
+ *     java -jar bench/target/benchmarks.jar BlumeStripBenchmark -prof gc
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlumeStripBenchmark {
+	/**
+	 * Regular expression commonly used to strip SGR sequences.
+	 */
+	private static final Pattern _SGR_ = Pattern.compile( "\\u001B\\[[;\\d]*m" );
+	/**
+	 * Number of log lines in the text.
+	 */
+	private static final int _LINES_ = 100;
+	
+	/**
+	 * Whether the log lines are colored.
+	 */
+	@Param( { "true", "false" } )
+	public boolean isColored;
+	
+	/**
+	 * Captured text, as a String and as characters, and the buffer the
+	 * characters are stripped into.
+	 */
+	private String text;
+	private char[] chars;
+	private char[] dst;
+	
+	@Setup
+	public void setup() {
+		StringBuilder text = new StringBuilder();
+		
+		for ( int i = 0; i < _LINES_; i++ ) {
+			if ( this.isColored ) {
+				text.append( "\u001B[2m2026-10-17 12:00:" ).append( i % 60 ).append( "\u001B[0m " )
+					.append( "\u001B[1;38;5;196mERROR\u001B[0m " )
+					.append( "\u001B[38;2;241;66;244mworker-" ).append( i ).append( "\u001B[0m " )
+					.append( "request failed after \u001B[4m" ).append( i * 7 ).append( " ms\u001B[24m\n" );
+			} else {
+				text.append( "2026-10-17 12:00:" ).append( i % 60 ).append( " ERROR worker-" ).append( i )
+					.append( " request failed after " ).append( i * 7 ).append( " ms\n" );
+			}
+		}
+		
+		this.text = text.toString();
+		this.chars = this.text.toCharArray();
+		this.dst = new char[this.chars.length];
+	}
+	
+	@Benchmark
+	public String stripRegex() {
+		return _SGR_.matcher( this.text ).replaceAll( "" );
+	}
+	
+	@Benchmark
+	public String strip() {
+		return BlumeParser.strip( this.text );
+	}
+	
+	@Benchmark
+	public int stripChars() {
+		return BlumeParser.strip( this.chars, 0, this.chars.length, this.dst, 0 );
+	}
+}
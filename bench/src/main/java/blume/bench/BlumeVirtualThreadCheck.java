@@ -0,0 +1,190 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeVirtualThreadCheck.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+
+import blume.Blume;
+import blume.BlumeCapabilities;
+import blume.BlumeStyle;
+import blume.BlumeText;
+
+/**
+ * Memory check for Blume's static print methods on virtual threads. Two
+ * batches of virtual threads are started and kept parked: one which only
+ * parks, and one which prints a styled line and a markup template first.
+ * The check fails if the printing threads hold more heap per thread than
+ * the parked ones by {@link #_MAX_BYTES_PER_THREAD_} or more, which a
+ * per-thread writer (8 KB) or scratch buffer (1 KB) would exceed.
+ * 
+ * Virtual threads are created through reflection, so the check builds
+ * for Java 8 and exits with status 2 on Java versions before 21.
+ * 
+ *     java -cp bench/target/benchmarks.jar blume.bench.BlumeVirtualThreadCheck
+ */
+public final class BlumeVirtualThreadCheck {
+	/**
+	 * Virtual threads in each batch.
+	 */
+	private static final int _THREADS_ = 100000;
+	/**
+	 * Most extra heap a printing thread may keep after its calls return.
+	 */
+	private static final long _MAX_BYTES_PER_THREAD_ = 512;
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeVirtualThreadCheck() {}
+	
+	public static void main( String[] args ) throws Exception {
+		Method unstarted;
+		Object builder;
+		
+		try {
+			builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+			unstarted = Class.forName( "java.lang.Thread$Builder" ).getMethod( "unstarted", Runnable.class );
+		} catch ( ReflectiveOperationException e ) {
+			System.err.println( "Virtual threads are not supported by this JVM." );
+			System.exit( 2 );
+			
+			return;
+		}
+		
+		PrintStream out = Blume.getOut();
+		BlumeCapabilities capabilities = BlumeText.getCapabilities();
+		long parked;
+		long printing;
+		
+		Blume.setOut( new PrintStream( new OutputStream() {
+			@Override
+			public void write( int b ) {}
+			
+			@Override
+			public void write( byte[] b, int off, int len ) {}
+		} ) );
+		BlumeText.setCapabilities( new BlumeCapabilities( true, true, BlumeText._DEPTH_24_BIT_ ) );
+		
+		try {
+			// Warm up both batches, so that only per-thread state is left to measure
+			retained( builder, unstarted, false, _THREADS_ );
+			retained( builder, unstarted, true, _THREADS_ );
+			
+			parked = retained( builder, unstarted, false, _THREADS_ );
+			printing = retained( builder, unstarted, true, _THREADS_ );
+		} finally {
+			Blume.setOut( out );
+			BlumeText.setCapabilities( capabilities );
+		}
+		
+		long perThread = ( printing - parked ) / _THREADS_;
+		boolean isPassed = perThread < _MAX_BYTES_PER_THREAD_;
+		
+		out.printf( "%-4s %d virtual threads: %d MB parked, %d MB after printing, %d extra bytes / thread%n",
+				isPassed ? "ok" : "FAIL", _THREADS_, parked >> 20, printing >> 20, perThread );
+		
+		if ( !isPassed ) {
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Starts a batch of virtual threads and measures the heap they hold
+	 * while all of them are parked.
+	 * 
+	 * @param builder Thread.ofVirtual() builder.
+	 * @param unstarted Thread.Builder.unstarted(Runnable).
+	 * @param isPrinting Whether each thread prints before parking.
+	 * @param count Number of threads.
+	 * @return Bytes of heap in use while the threads are parked, less the heap in use before.
+	 * @throws Exception
+	 */
+	private static long retained( Object builder, Method unstarted, final boolean isPrinting, int count ) throws Exception {
+		final BlumeStyle style = BlumeStyle.of( "1", "31" );
+		final CountDownLatch ready = new CountDownLatch( count );
+		final CountDownLatch release = new CountDownLatch( 1 );
+		Thread[] threads = new Thread[count];
+		long before = usedHeap();
+		
+		for ( int i = 0; i < count; i++ ) {
+			threads[i] = (Thread) unstarted.invoke( builder, new Runnable() {
+				@Override
+				public void run() {
+					if ( isPrinting ) {
+						Blume.println( "Blume is \"flower\" in German", style );
+						Blume.printlnMarkup( "[bold red]ERROR[/] user [#f142f4]{}[/]", "blume" );
+					}
+					
+					ready.countDown();
+					
+					try {
+						release.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+				}
+			} );
+			threads[i].start();
+		}
+		
+		ready.await();
+		
+		long after = usedHeap();
+		
+		release.countDown();
+		
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+		
+		return after - before;
+	}
+	
+	/**
+	 * @return Bytes of heap in use after a full garbage collection.
+	 * @throws InterruptedException
+	 */
+	private static long usedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		
+		System.gc();
+		Thread.sleep( 100 );
+		System.gc();
+		
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	MemoryKernel32.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import com.sun.jna.ptr.IntByReference;
+
+import blume.Win32;
+
+/**
+ * Stand-in for the kernel32 library which keeps a console's text
+ * attributes in memory and counts the calls made to it, so console
+ * code can be tested and measured on any operating system. It lives with
+ * the benchmarks rather than in Blume.
+ */
+public class MemoryKernel32 implements Win32.Kernel32 {
+	/**
+	 * Handle returned for standard output.
+	 */
+	public static final int _HANDLE_ = 7;
+	/**
+	 * Console mode a console starts in: processed output and wrapping
+	 * at the end of a line.
+	 */
+	public static final int _DEFAULT_MODE_ = 0x0003;
+	
+	private final boolean isVirtualTerminalSupported;
+	private short attributes;
+	private int mode = _DEFAULT_MODE_;
+	private int callCount;
+	
+	/**
+	 * Constructor for a console with default text attributes which
+	 * predates virtual terminal processing.
+	 * 
+	 * @param attributes Default text attributes, e.g., 0x07 for gray on black.
+	 */
+	public MemoryKernel32( short attributes ) {
+		this( attributes, false );
+	}
+	
+	/**
+	 * Constructor for a console with default text attributes.
+	 * 
+	 * @param attributes Default text attributes, e.g., 0x07 for gray on black.
+	 * @param isVirtualTerminalSupported Whether the console accepts
+	 * {@link Win32#ENABLE_VIRTUAL_TERMINAL_PROCESSING}, as on Windows 10 and later.
+	 */
+	public MemoryKernel32( short attributes, boolean isVirtualTerminalSupported ) {
+		this.attributes = attributes;
+		this.isVirtualTerminalSupported = isVirtualTerminalSupported;
+	}
+	
+	@Override
+	public synchronized int GetStdHandle( int nStdHandle ) {
+		this.callCount++;
+		
+		return ( nStdHandle == Win32.STD_OUTPUT_HANDLE ) ? _HANDLE_ : -1;
+	}
+	
+	@Override
+	public synchronized boolean SetConsoleTextAttribute( int in_hConsoleOutput, short in_wAttributes ) {
+		this.callCount++;
+		
+		if ( in_hConsoleOutput != _HANDLE_ ) {
+			return false;
+		}
+		
+		this.attributes = in_wAttributes;
+		
+		return true;
+	}
+	
+	@Override
+	public synchronized boolean GetConsoleScreenBufferInfo( int in_hConsoleOutput, Win32.CONSOLE_SCREEN_BUFFER_INFO out_lpConsoleScreenBufferInfo ) {
+		this.callCount++;
+		
+		if ( in_hConsoleOutput != _HANDLE_ ) {
+			return false;
+		}
+		
+		out_lpConsoleScreenBufferInfo.wAttributes = this.attributes;
+		
+		return true;
+	}
+	
+	@Override
+	public synchronized boolean GetConsoleMode( int in_hConsoleHandle, IntByReference out_lpMode ) {
+		this.callCount++;
+		
+		if ( in_hConsoleHandle != _HANDLE_ ) {
+			return false;
+		}
+		
+		out_lpMode.setValue( this.mode );
+		
+		return true;
+	}
+	
+	@Override
+	public synchronized boolean SetConsoleMode( int in_hConsoleHandle, int in_dwMode ) {
+		this.callCount++;
+		
+		// Consoles before Windows 10 reject the flag as an invalid parameter
+		if ( in_hConsoleHandle != _HANDLE_
+				|| ( ( in_dwMode & Win32.ENABLE_VIRTUAL_TERMINAL_PROCESSING ) != 0 && !this.isVirtualTerminalSupported ) ) {
+			return false;
+		}
+		
+		this.mode = in_dwMode;
+		
+		return true;
+	}
+	
+	/**
+	 * @return Current text attributes of the console.
+	 */
+	public synchronized short getAttributes() {
+		return this.attributes;
+	}
+	
+	/**
+	 * @return Current console mode.
+	 */
+	public synchronized int getMode() {
+		return this.mode;
+	}
+	
+	/**
+	 * @return Number of calls made so far.
+	 */
+	public synchronized int getCallCount() {
+		return this.callCount;
+	}
+	
+	/**
+	 * Sets the number of calls made back to zero.
+	 */
+	public synchronized void resetCallCount() {
+		this.callCount = 0;
+	}
+}
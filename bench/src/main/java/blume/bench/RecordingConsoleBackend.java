@@ -0,0 +1,128 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	RecordingConsoleBackend.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume.bench;
+
+import java.util.Arrays;
+
+import blume.ConsoleBackend;
+import blume.Win32;
+
+/**
+ * Console backend which records every change of text attributes in
+ * memory instead of making native calls, for testing Win32 output on any
+ * operating system. It lives with the benchmarks rather than in Blume.
+ * 
+ * Example:
+ * <pre>
+ * RecordingConsoleBackend console = new RecordingConsoleBackend( (short) 0x07 );
+ * 
+ * Blume.setConsole( console );
+ * ...
+ * short[] changes = console.getChanges();
+ * </pre>
+ */
+public class RecordingConsoleBackend implements ConsoleBackend {
+	private final short defaults;
+	private short current;
+	/**
+	 * Attributes set on each change, in order.
+	 */
+	private short[] changes = new short[16];
+	private int changeCount;
+	
+	/**
+	 * Constructor for a console with default text attributes.
+	 * 
+	 * @param defaults Default text attributes, e.g., 0x07 for gray on black.
+	 */
+	public RecordingConsoleBackend( short defaults ) {
+		this.defaults = defaults;
+		this.current = defaults;
+	}
+	
+	@Override
+	public void setAttributes( String[] mods ) {
+		setAttributes( Win32.parseAttributes( mods ) );
+	}
+	
+	@Override
+	public synchronized void setAttributes( short attributes ) {
+		if ( this.changeCount == this.changes.length ) {
+			this.changes = Arrays.copyOf( this.changes, this.changes.length * 2 );
+		}
+		
+		this.changes[this.changeCount++] = attributes;
+		this.current = attributes;
+	}
+	
+	@Override
+	public synchronized void reset() {
+		setAttributes( this.defaults );
+	}
+	
+	/**
+	 * Forgets the changes recorded so far.
+	 */
+	public synchronized void clear() {
+		this.changeCount = 0;
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return Attributes set on each change, in order.
+	 */
+	public synchronized short[] getChanges() {
+		return Arrays.copyOf( this.changes, this.changeCount );
+	}
+	/**
+	 * @return Number of changes recorded.
+	 */
+	public synchronized int getChangeCount() {
+		return this.changeCount;
+	}
+	/**
+	 * @return Current text attributes.
+	 */
+	public synchronized short getAttributes() {
+		return this.current;
+	}
+	/**
+	 * @return Default text attributes.
+	 */
+	public short getDefaults() {
+		return this.defaults;
+	}
+}
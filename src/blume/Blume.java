@@ -33,6 +33,10 @@
 
 package blume;
 
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Blume implementation methods.
  */
@@ -44,6 +48,123 @@ public class Blume {
 	 * before a color option, and vice versa.
 	 */
 	
+	/**
+	 * Stream all Blume output is printed to once it has been set with
+	 * {@link #setOut(PrintStream)}. While null, output follows whichever
+	 * stream System.out is at the time, so a later
+	 * {@link System#setOut(PrintStream)} is honored.
+	 */
+	protected static volatile PrintStream _out;
+	/**
+	 * Backend which changes the text attributes of Win32 consoles, created
+	 * when first needed.
+	 */
+	protected static volatile ConsoleBackend _console;
+	/**
+	 * Per-thread writers which encode a whole print call before handing it
+	 * to {@link #getOut()} in one write. Only platform threads keep one.
+	 */
+	protected static final ThreadLocal<BlumeWriter> _writers = new ThreadLocal<BlumeWriter>() {
+		@Override
+		protected BlumeWriter initialValue() {
+			return new BlumeWriter( new OutStream(), BlumeWriter._DEFAULT_CAPACITY_, false );
+		}
+	};
+	/**
+	 * Writers lent to virtual threads for one print call each, at most one
+	 * per processor, since a writer per virtual thread would hold 8 KB for
+	 * each of possibly hundreds of thousands of threads.
+	 */
+	protected static final AtomicReferenceArray<BlumeWriter> _pooledWriters = new AtomicReferenceArray<BlumeWriter>(
+			Math.max( 2, Runtime.getRuntime().availableProcessors() ) );
+	
+	/**
+	 * Output stream which forwards to whichever stream {@link #getOut()}
+	 * is at the time.
+	 */
+	static final class OutStream extends OutputStream {
+		@Override
+		public void write( int b ) {
+			getOut().write( b );
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) {
+			getOut().write( b, off, len );
+		}
+		
+		@Override
+		public void flush() {
+			getOut().flush();
+		}
+	}
+	
+	/**
+	 * Sets the stream all Blume output is printed to, e.g., a file, a
+	 * buffer for capturing output in tests, or a null stream for
+	 * measuring the cost of printing without a terminal. From then on
+	 * Blume keeps printing to this stream even if System.out is replaced.
+	 * 
+	 * @param stream
+	 */
+	public static void setOut( PrintStream stream ) {
+		if ( stream == null ) {
+			throw new NullPointerException( "Blume requires an output stream." );
+		}
+		
+		_out = stream;
+	}
+	
+	/**
+	 * Gets the stream all Blume output is printed to.
+	 * 
+	 * @return The stream set with {@link #setOut(PrintStream)}, or the
+	 * current System.out if none has been set.
+	 */
+	public static PrintStream getOut() {
+		PrintStream out = _out;
+		
+		return ( out != null ) ? out : System.out;
+	}
+	
+	/**
+	 * Sets the backend Blume changes the text attributes of Win32
+	 * consoles through, e.g., one which records the changes in memory for
+	 * testing.
+	 * 
+	 * @param console
+	 */
+	public static void setConsole( ConsoleBackend console ) {
+		if ( console == null ) {
+			throw new NullPointerException( "Blume requires a console backend." );
+		}
+		
+		_console = console;
+	}
+	
+	/**
+	 * Gets the backend Blume changes the text attributes of Win32
+	 * consoles through, creating a {@link blume.Win32ConsoleBackend} the
+	 * first time one is needed.
+	 * 
+	 * @return Current console backend.
+	 */
+	public static ConsoleBackend getConsole() {
+		ConsoleBackend console = _console;
+		
+		if ( console == null ) {
+			synchronized ( Blume.class ) {
+				if ( _console == null ) {
+					_console = new Win32ConsoleBackend();
+				}
+				
+				console = _console;
+			}
+		}
+		
+		return console;
+	}
+	
 	/**
 	 * Displays a 16x16 table of the 8-bit color palette values
 	 * available for ANSI-supported terminals.
@@ -60,20 +181,21 @@ public class Blume {
 			}
 		}
 		
-		BlumeColor white = new BlumeColor( 255 );
-		BlumeColor bg = new BlumeColor( 0 );
+		BlumeColor white = BlumeColor.valueOf( 255 );
+		
+		// Collect the whole table before handing it to the output stream
+		BlumeWriter writer = new BlumeWriter( getOut() );
 		
 		for ( int i = 0; i < 256; i++ ) {
 			if ( i % 16 == 0 ) {
-				System.out.println();
+				writer.println();
 			}
 			
-			bg.setColorValue( i );
-			
-			print( String.format( " %03d ",  i ), white, bg );
+			writer.print( String.format( " %03d ",  i ), white, BlumeColor.valueOf( i ) );
 		}
 		
-		System.out.println();
+		writer.println();
+		writer.flush();
 	}
 	
 	/**
@@ -92,43 +214,39 @@ public class Blume {
 			}
 		}
 		
-		BlumeColor nothing = new BlumeColor( 0 );
+		BlumeColor nothing = BlumeColor.valueOf( 0 );
+		
+		// Collect all three blocks before handing them to the output stream
+		BlumeWriter writer = new BlumeWriter( getOut() );
 		
 		// Red
-		BlumeColor red = new BlumeColor( 255, 0, 0 );
 		for ( int r = 0; r <= 255; r++ ) {
 			if ( r % 16 == 0 ) {
-				System.out.println();
+				writer.println();
 			} else {
-				red.setRed( r );
-				
-				print( "  ", nothing, red );
+				writer.print( "  ", nothing, BlumeColor.valueOf( r, 0, 0 ) );
 			}
 		}
 		
 		// Green
-		BlumeColor green = new BlumeColor( 0, 255, 0 );
 		for ( int g = 0; g <= 255; g++ ) {
 			if ( g % 16 == 0 ) {
-				System.out.println();
+				writer.println();
 			} else { 
-				green.setGreen( g );
-				
-				print( "  ", nothing, green );
+				writer.print( "  ", nothing, BlumeColor.valueOf( 0, g, 0 ) );
 			}
 		}
 		
 		// Blue
-		BlumeColor blue = new BlumeColor( 0, 0, 255 );
 		for ( int b = 0; b <= 255; b++ ) {
 			if ( b % 16 == 0 ) {
-				System.out.println();
+				writer.println();
 			} else {
-				blue.setBlue( b );
-				
-				print( "  ", nothing, blue );
+				writer.print( "  ", nothing, BlumeColor.valueOf( 0, 0, b ) );
 			}
 		}
+		
+		writer.flush();
 	}
 	
 	/**
@@ -145,26 +263,18 @@ public class Blume {
 			for ( int i = fgStart; i <= fgEnd; i++ ) {
 				for ( int j = bgStart; j <= bgEnd; j++ ) {
 					if ( j % 8 == 0 ) {
-						System.out.println();
+						getOut().println();
 					} else {
 						print( "abc   ", String.valueOf( i ), String.valueOf( j ) );
 					}
 				}
 			}
 		} else if ( BlumeText.getIsWin32() ) { // Win32
-			try {
-				Win32.initializeConsole();
-			} catch ( Exception e ) {
-				e.printStackTrace();
-				
-				return;
-			}
-			
 			for ( short hex = 0; hex <= 256; hex += 1 ) {				
 				printFromHex( "abc   ", hex );
 				
 				if ( hex % 15 == 0 ) {
-					System.out.println();
+					getOut().println();
 				}
 			}
 		}
@@ -183,9 +293,11 @@ public class Blume {
 	 * @param mods
 	 */
 	public static <T> void print( T text, String... mods ) {
-		// If there are no modification arguments, print like normal and return
-		if ( mods.length == 0 ) {
-			System.out.print( text );
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// If there are no modification arguments or no color terminal, print like normal and return
+		if ( mods.length == 0 || !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.Print, start );
 			
 			return;
 		}
@@ -195,39 +307,18 @@ public class Blume {
 		 * operating system.
 		 */
 		if ( BlumeText.getIsANSI() ) {
-			StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-			
-			// Build the ANSI color sequence from the method arguments into a de		// ANSIliminated string
-			for ( String mod : mods ) {
-				string.append( mod )
-					.append( ANSI._DELIM_ );
-			}
-			
-			// Remove the trailing delimiter character appended from the previous loop logic
-			string.setLength( string.length() - 1 );
-			// ANSI
-			// Close the string and prepare for printing to the terminal
-			string.append( ANSI._TERMINATOR_ )
-				.append( text )
-				.append( ANSI._RESET_ );
-			
-			System.out.print( string );
+			// Encode the escape sequence, text and reset into this thread's writer and print
+			write( text, mods, null, null, false, BlumeMetrics.Call.Print, start );
 		} else if ( BlumeText.getIsWin32() ) {			
-			try {				
-				Win32.initializeConsole();
-			} catch ( Exception e ) {
-				e.printStackTrace();
-				
-				return;
-			}
+			ConsoleBackend console = getConsole();
 			
-			Win32.setColor( mods );
+			console.setAttributes( mods );
 			
-			System.out.print( text );
+			write( text, false, BlumeMetrics.Call.Print, start );
 			
-			Win32.resetConsole();
+			console.reset();
 		} else {
-			System.out.print( text );
+			write( text, false, BlumeMetrics.Call.Print, start );
 		}
 	}
 	
@@ -244,6 +335,15 @@ public class Blume {
 	 * @param fg
 	 */
 	public static <T> void print( T text, BlumeColor fg ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintColor, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -255,27 +355,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.print( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, null, fg, null, false, BlumeMetrics.Call.PrintColor, start );
 	}
 	
 	/**
@@ -292,6 +373,15 @@ public class Blume {
 	 * @param bg
 	 */
 	public static <T> void print( T text, BlumeColor fg, BlumeColor bg ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintColors, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -303,43 +393,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Append another delimiter before appending the background color
-		string.append( ANSI._DELIM_ );
-		
-		// Set 8- or 24-bit background color
-		if ( bg.getIs8Bit() ) {
-			string.append( ANSI._8_BIT_BACKGROUND_ )
-				.append( bg.getColorValue() );
-		} else if ( bg.getIs24Bit() ) {
-			string.append( ANSI._24_BIT_BACKGROUND_ )
-				.append( bg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-		
-		System.out.print( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, null, fg, bg, false, BlumeMetrics.Call.PrintColors, start );
 	}
 	
 	/**
@@ -354,6 +409,15 @@ public class Blume {
 	 * @param attrs
 	 */
 	public static <T> void print( T text, BlumeColor fg, String... attrs ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintColorAttributes, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -365,35 +429,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Append ANSI display options to the string
-		if ( attrs.length > 0 ) {
-			for ( String attr : attrs ) {
-				string.append( attr )
-					.append( ANSI._DELIM_ );
-			}
-		}
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.print( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, attrs, fg, null, false, BlumeMetrics.Call.PrintColorAttributes, start );
 	}
 	
 	/**
@@ -410,6 +447,15 @@ public class Blume {
 	 * @param attrs
 	 */
 	public static <T> void print( T text, BlumeColor fg, BlumeColor bg, String... attrs ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintColorsAttributes, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -421,51 +467,53 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Append ANSI display options to the string
-		if ( attrs.length > 0 ) {
-			for ( String attr : attrs ) {
-				string.append( attr )
-					.append( ANSI._DELIM_ );
-			}
-		}
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, attrs, fg, bg, false, BlumeMetrics.Call.PrintColorsAttributes, start );
+	}
+	
+	/**
+	 * Prints a string with a precompiled {@link blume.BlumeStyle}. The
+	 * style's escape sequence is reused as-is, so no encoding work is done
+	 * for the colors and display attributes on each call.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public static <T> void print( T text, BlumeStyle style ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
 		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
+		// If the style applies nothing or no color terminal, print like normal and return
+		if ( style.getIsPlain() || !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintStyle, start );
+			
+			return;
 		}
 		
-		// Append another delimiter before appending the background color
-		string.append( ANSI._DELIM_ );
-		
-		// Set 8- or 24-bit background color
-		if ( bg.getIs8Bit() ) {
-			string.append( ANSI._8_BIT_BACKGROUND_ )
-				.append( bg.getColorValue() );
-		} else if ( bg.getIs24Bit() ) {
-			string.append( ANSI._24_BIT_BACKGROUND_ )
-				.append( bg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getBlue() );
+		if ( BlumeText.getIsANSI() ) {
+			write( text, style, false, BlumeMetrics.Call.PrintStyle, start );
+		} else if ( BlumeText.getIsWin32() ) {
+			if ( style.getIsColored() ) {
+				try {				
+					throw new OSIncompatibilityException();
+				} catch (OSIncompatibilityException e) {				
+					e.printStackTrace( "BlumeColor is not compatible with Win32 consoles." );
+					
+					return;
+				}
+			}
+			
+			ConsoleBackend console = getConsole();
+			
+			console.setAttributes( style.getSharedMods() );
+			
+			write( text, false, BlumeMetrics.Call.PrintStyle, start );
+			
+			console.reset();
+		} else {
+			write( text, false, BlumeMetrics.Call.PrintStyle, start );
 		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.print( string );
 	}
 	
 	/**
@@ -481,6 +529,15 @@ public class Blume {
 	 * @param hexes
 	 */
 	public static <T> void printFromHex( T text, short... hexes ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintFromHex, start );
+			
+			return;
+		}
+		
 		if ( BlumeText.getIsANSI() ) {
 			try {
 				throw new OSIncompatibilityException();
@@ -490,19 +547,19 @@ public class Blume {
 				return;
 			}
 		}
-		try {				
-			Win32.initializeConsole();
-		} catch ( Exception e ) {
-			e.printStackTrace();
-			
-			return;
+		ConsoleBackend console = getConsole();
+		
+		// Combine the hexadecimal (short) color options via bitwise OR
+		short attributes = 0x00;
+		for ( short hex : hexes ) {
+			attributes |= hex;
 		}
 		
-		Win32.setColor( hexes );
+		console.setAttributes( attributes );
 		
-		System.out.print( text );
+		write( text, false, BlumeMetrics.Call.PrintFromHex, start );
 		
-		Win32.resetConsole();
+		console.reset();
 	}	
 	
 	/**
@@ -518,9 +575,11 @@ public class Blume {
 	 * @param mods
 	 */
 	public static <T> void println( T text, String... mods ) {
-		// If there are no modification arguments, print like normal and return
-		if ( mods.length == 0 ) {
-			System.out.println( text );
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// If there are no modification arguments or no color terminal, print like normal and return
+		if ( mods.length == 0 || !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.Println, start );
 			
 			return;
 		}
@@ -530,39 +589,18 @@ public class Blume {
 		 * operating system.
 		 */
 		if ( BlumeText.getIsANSI() ) {
-			StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-			
-			// Build the ANSI color sequence from the method arguments into a deliminated string
-			for ( String mod : mods ) {
-				string.append( mod )
-					.append( ANSI._DELIM_ );
-			}
-			
-			// Remove the trailing delimiter character appended from the previous loop logic
-			string.setLength( string.length() - 1 );
-			
-			// Close the string and prepare for printing to the terminal
-			string.append( ANSI._TERMINATOR_ )
-				.append( text )
-				.append( ANSI._RESET_ );
-			
-			System.out.println( string );
+			// Encode the escape sequence, text and reset into this thread's writer and print
+			write( text, mods, null, null, true, BlumeMetrics.Call.Println, start );
 		} else if ( BlumeText.getIsWin32() ) {			
-			try {				
-				Win32.initializeConsole();
-			} catch ( Exception e ) {
-				e.printStackTrace();
-				
-				return;
-			}
+			ConsoleBackend console = getConsole();
 			
-			Win32.setColor( mods );
+			console.setAttributes( mods );
 			
-			System.out.println( text );
+			write( text, true, BlumeMetrics.Call.Println, start );
 			
-			Win32.resetConsole();
+			console.reset();
 		} else {
-			System.out.println( text );
+			write( text, true, BlumeMetrics.Call.Println, start );
 		}
 	}
 	
@@ -579,6 +617,15 @@ public class Blume {
 	 * @param fg
 	 */
 	public static <T> void println( T text, BlumeColor fg ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.PrintlnColor, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -590,27 +637,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.println( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, null, fg, null, true, BlumeMetrics.Call.PrintlnColor, start );
 	}
 	
 	/**
@@ -627,6 +655,15 @@ public class Blume {
 	 * @param bg
 	 */
 	public static <T> void println( T text, BlumeColor fg, BlumeColor bg ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.PrintlnColors, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -638,43 +675,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Append another delimiter before appending the background color
-		string.append( ANSI._DELIM_ );
-		
-		// Set 8- or 24-bit background color
-		if ( bg.getIs8Bit() ) {
-			string.append( ANSI._8_BIT_BACKGROUND_ )
-				.append( bg.getColorValue() );
-		} else if ( bg.getIs24Bit() ) {
-			string.append( ANSI._24_BIT_BACKGROUND_ )
-				.append( bg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-		
-		System.out.println( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, null, fg, bg, true, BlumeMetrics.Call.PrintlnColors, start );
 	}
 	
 	/**
@@ -689,6 +691,15 @@ public class Blume {
 	 * @param attrs
 	 */
 	public static <T> void println( T text, BlumeColor fg, String... attrs ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.PrintlnColorAttributes, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -700,35 +711,8 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
-		
-		// Append ANSI display options to the string
-		if ( attrs.length > 0 ) {
-			for ( String attr : attrs ) {
-				string.append( attr )
-					.append( ANSI._DELIM_ );
-			}
-		}
-		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.println( string );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, attrs, fg, null, true, BlumeMetrics.Call.PrintlnColorAttributes, start );
 	}
 	
 	/**
@@ -745,6 +729,15 @@ public class Blume {
 	 * @param attrs
 	 */
 	public static <T> void println( T text, BlumeColor fg, BlumeColor bg, String... attrs ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.PrintlnColorsAttributes, start );
+			
+			return;
+		}
+		
 		// Test if method is being executed from a Windows system
 		if ( BlumeText.getIsWin32() ) {
 			try {				
@@ -756,50 +749,385 @@ public class Blume {
 			}
 		}
 		
-		StringBuilder string = new StringBuilder( ANSI._PREFIX_ );
+		// Encode the escape sequence, text and reset into this thread's writer and print
+		write( text, attrs, fg, bg, true, BlumeMetrics.Call.PrintlnColorsAttributes, start );
+	}
+	
+	/**
+	 * Prints a string with a precompiled {@link blume.BlumeStyle}. The
+	 * style's escape sequence is reused as-is, so no encoding work is done
+	 * for the colors and display attributes on each call.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public static <T> void println( T text, BlumeStyle style ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// If the style applies nothing or no color terminal, print like normal and return
+		if ( style.getIsPlain() || !BlumeText.getIsColor() ) {
+			write( text, true, BlumeMetrics.Call.PrintlnStyle, start );
+			
+			return;
+		}
+		
+		if ( BlumeText.getIsANSI() ) {
+			write( text, style, true, BlumeMetrics.Call.PrintlnStyle, start );
+		} else if ( BlumeText.getIsWin32() ) {
+			if ( style.getIsColored() ) {
+				try {				
+					throw new OSIncompatibilityException();
+				} catch (OSIncompatibilityException e) {				
+					e.printStackTrace( "BlumeColor is not compatible with Win32 consoles." );
+					
+					return;
+				}
+			}
+			
+			ConsoleBackend console = getConsole();
+			
+			console.setAttributes( style.getSharedMods() );
+			
+			write( text, true, BlumeMetrics.Call.PrintlnStyle, start );
+			
+			console.reset();
+		} else {
+			write( text, true, BlumeMetrics.Call.PrintlnStyle, start );
+		}
+	}
+	
+	/**
+	 * Prints a string with its foreground color running through a gradient
+	 * one character at a time, from one color to another and then on
+	 * through any further stops. The colors are blended in 24-bit, so an
+	 * 8-bit color may be given as a stop.
+	 * 
+	 * Characters which round to the same color share one escape sequence,
+	 * and the whole string is encoded before it is written to the console
+	 * at once.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @param stops
+	 */
+	public static void printGradient( CharSequence text, BlumeColor from, BlumeColor to, BlumeColor... stops ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintGradient, start );
+			
+			return;
+		}
+		
+		if ( BlumeText.getIsWin32() ) {
+			try {				
+				throw new OSIncompatibilityException();
+			} catch (OSIncompatibilityException e) {				
+				e.printStackTrace( "BlumeColor is not compatible with Win32 consoles." );
+				
+				return;
+			}
+		}
+		
+		BlumeWriter writer = new BlumeWriter( getOut(), getGradientCapacity( text ), false );
+		
+		writer.printGradient( text, from, to, stops );
+		writer.flush();
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintGradient, start );
+		}
+	}
+	
+	/**
+	 * Prints lines of text with each line's foreground color one step along
+	 * a gradient, from one color to another and then on through any
+	 * further stops. Lines are separated by LF.
+	 * 
+	 * The whole text is encoded before it is written to the console at once.
+	 * 
+	 * No new line or LF is produced beyond those in the text.
+	 * 
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @param stops
+	 */
+	public static void printGradientLines( CharSequence text, BlumeColor from, BlumeColor to, BlumeColor... stops ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		// Without a color terminal, print like normal and return
+		if ( !BlumeText.getIsColor() ) {
+			write( text, false, BlumeMetrics.Call.PrintGradientLines, start );
+			
+			return;
+		}
+		
+		if ( BlumeText.getIsWin32() ) {
+			try {				
+				throw new OSIncompatibilityException();
+			} catch (OSIncompatibilityException e) {				
+				e.printStackTrace( "BlumeColor is not compatible with Win32 consoles." );
+				
+				return;
+			}
+		}
+		
+		BlumeWriter writer = new BlumeWriter( getOut(), getGradientCapacity( text ), false );
+		
+		writer.printGradientLines( text, from, to, stops );
+		writer.flush();
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintGradientLines, start );
+		}
+	}
+	
+	/**
+	 * Prints a markup template with arguments in its slots, e.g.,
+	 * "[bold red]ERROR[/] user [#f142f4]{}[/]". The template is compiled
+	 * once and cached (see {@link blume.BlumeTemplate}), and each call is
+	 * encoded before it is written to the console at once.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param template
+	 * @param args
+	 */
+	public static void printMarkup( String template, Object... args ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		BlumeWriter writer = acquireWriter();
+		
+		BlumeTemplate.of( template ).print( writer, args );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintMarkup, start );
+		}
+	}
+	
+	/**
+	 * Prints a markup template with arguments in its slots, e.g.,
+	 * "[bold red]ERROR[/] user [#f142f4]{}[/]". The template is compiled
+	 * once and cached (see {@link blume.BlumeTemplate}), and each call is
+	 * encoded before it is written to the console at once.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param template
+	 * @param args
+	 */
+	public static void printlnMarkup( String template, Object... args ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		BlumeWriter writer = acquireWriter();
+		
+		BlumeTemplate.of( template ).println( writer, args );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintlnMarkup, start );
+		}
+	}
+	
+	/**
+	 * Prints a {@link blume.StyledText} in one pass, encoding it into a
+	 * buffer which is written to the console in large chunks.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 */
+	public static void print( StyledText text ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		BlumeWriter writer = acquireWriter();
+		
+		text.print( writer );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintStyledText, start );
+		}
+	}
+	
+	/**
+	 * Prints a {@link blume.StyledText} in one pass, encoding it into a
+	 * buffer which is written to the console in large chunks.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 */
+	public static void println( StyledText text ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		BlumeWriter writer = acquireWriter();
+		
+		text.println( writer );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintlnStyledText, start );
+		}
+	}
+	
+	/**
+	 * Prints a {@link blume.BlumeTable} which keeps its rows, with its
+	 * columns aligned by display width.
+	 * 
+	 * @param table
+	 */
+	public static void print( BlumeTable table ) {
+		long start = BlumeMetrics._IS_ENABLED_ ? System.nanoTime() : 0L;
+		
+		BlumeWriter writer = acquireWriter();
+		
+		table.print( writer );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( BlumeMetrics.Call.PrintTable, start );
+		}
+	}
+	
+	/**
+	 * Prints text to {@link #getOut()} and records the call in
+	 * {@link blume.BlumeMetrics} when metrics are enabled.
+	 * 
+	 * @param text
+	 * @param newline Whether to end with a new line.
+	 * @param call Overload which printed the text.
+	 * @param start Time the call started from {@link System#nanoTime()}.
+	 */
+	protected static void write( Object text, boolean newline, BlumeMetrics.Call call, long start ) {
+		String string = String.valueOf( text );
+		
+		if ( newline ) {
+			getOut().println( string );
+		} else {
+			getOut().print( string );
+		}
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordWrite( newline ? string + System.lineSeparator() : string );
+			BlumeMetrics.recordCall( call, start );
+		}
+	}
+	
+	/**
+	 * Gets a writer for one print call: the calling thread's own writer
+	 * on a platform thread, or one borrowed from {@link #_pooledWriters}
+	 * on a virtual thread, which is made new if none is free.
+	 * 
+	 * @return Empty writer to {@link #getOut()}.
+	 */
+	protected static BlumeWriter acquireWriter() {
+		if ( !BlumeEncoder.isVirtualThread() ) {
+			return _writers.get();
+		}
+		
+		for ( int i = 0; i < _pooledWriters.length(); i++ ) {
+			BlumeWriter writer = _pooledWriters.get( i );
+			
+			if ( writer != null && _pooledWriters.compareAndSet( i, writer, null ) ) {
+				return writer;
+			}
+		}
+		
+		return new BlumeWriter( new OutStream(), BlumeWriter._DEFAULT_CAPACITY_, false );
+	}
+	
+	/**
+	 * Gives back a writer from {@link #acquireWriter()} once it has been
+	 * flushed. A virtual thread's writer is returned to the pool if there
+	 * is room, and otherwise left for the garbage collector.
+	 * 
+	 * @param writer
+	 */
+	protected static void releaseWriter( BlumeWriter writer ) {
+		if ( !BlumeEncoder.isVirtualThread() ) {
+			return;
+		}
 		
-		// Append ANSI display options to the string
-		if ( attrs.length > 0 ) {
-			for ( String attr : attrs ) {
-				string.append( attr )
-					.append( ANSI._DELIM_ );
+		for ( int i = 0; i < _pooledWriters.length(); i++ ) {
+			if ( _pooledWriters.get( i ) == null && _pooledWriters.compareAndSet( i, null, writer ) ) {
+				return;
 			}
 		}
+	}
+	
+	/**
+	 * Gets a buffer size large enough for most gradient text to be written
+	 * in one piece: up to 4 bytes of UTF-8 and a 24-bit color's escape
+	 * sequence per character.
+	 * 
+	 * @param text
+	 * @return Buffer capacity in bytes.
+	 */
+	protected static int getGradientCapacity( CharSequence text ) {
+		return (int) Math.min( text.length() * 24L + 16, 1 << 16 );
+	}
+	
+	/**
+	 * Encodes text wrapped in the escape sequence for modifiers and colors
+	 * into the calling thread's writer, prints it to {@link #getOut()} in one
+	 * write and records the call in {@link blume.BlumeMetrics} when
+	 * metrics are enabled.
+	 * 
+	 * @param text
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @param fg Foreground color, or null for none.
+	 * @param bg Background color, or null for none.
+	 * @param newline Whether to end with a new line.
+	 * @param call Overload which printed the text.
+	 * @param start Time the call started from {@link System#nanoTime()}.
+	 */
+	protected static void write( Object text, String[] attrs, BlumeColor fg, BlumeColor bg, boolean newline, BlumeMetrics.Call call, long start ) {
+		BlumeWriter writer = acquireWriter();
 		
-		// Set 8- or 24-bit foreground color
-		if ( fg.getIs8Bit() ) { // 8-bit color
-			string.append( ANSI._8_BIT_FOREGROUND_ )
-				.append( fg.getColorValue() );
-		} else if ( fg.getIs24Bit() ) { // 24-bit color
-			string.append( ANSI._24_BIT_FOREGROUND_ )
-				.append( fg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( fg.getBlue() );
-		}
-		
-		// Append another delimiter before appending the background color
-		string.append( ANSI._DELIM_ );
-		
-		// Set 8- or 24-bit background color
-		if ( bg.getIs8Bit() ) {
-			string.append( ANSI._8_BIT_BACKGROUND_ )
-				.append( bg.getColorValue() );
-		} else if ( bg.getIs24Bit() ) {
-			string.append( ANSI._24_BIT_BACKGROUND_ )
-				.append( bg.getRed() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getGreen() )
-				.append( ANSI._DELIM_ )
-				.append( bg.getBlue() );
-		}
-		
-		// Terminate the escape sequence and print
-		string.append( ANSI._TERMINATOR_ )
-			.append( text )
-			.append( ANSI._RESET_ );
-	
-		System.out.println( string );
+		writer.write( text, attrs, fg, bg, newline );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( call, start );
+		}
+	}
+	
+	/**
+	 * Encodes text wrapped in the escape sequence of a style into the
+	 * calling thread's writer, prints it to {@link #getOut()} in one write and
+	 * records the call in {@link blume.BlumeMetrics} when metrics are
+	 * enabled.
+	 * 
+	 * @param text
+	 * @param style
+	 * @param newline Whether to end with a new line.
+	 * @param call Overload which printed the text.
+	 * @param start Time the call started from {@link System#nanoTime()}.
+	 */
+	protected static void write( Object text, BlumeStyle style, boolean newline, BlumeMetrics.Call call, long start ) {
+		BlumeWriter writer = acquireWriter();
+		
+		writer.write( text, style, newline );
+		writer.flush();
+		releaseWriter( writer );
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordCall( call, start );
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,524 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeAsyncWriter.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous Blume output for colored logging from many threads.
+ * 
+ * Producer threads publish (text, style) events into a bounded ring buffer
+ * without taking any locks, and a single background drainer thread encodes
+ * them through a {@link blume.BlumeWriter} and writes them out in large
+ * chunks. Events published by one thread are always written in the order
+ * they were published.
+ * 
+ * Text objects are converted to strings when they are drained rather than
+ * when they are published, so they should not be changed afterwards.
+ * 
+ * Example:
+ * <pre>
+ * BlumeAsyncWriter log = new BlumeAsyncWriter();
+ * BlumeStyle error = BlumeStyle.of( BlumeText.Red );
+ * 
+ * log.println( "Request failed.", error );
+ * ...
+ * log.shutdown();
+ * </pre>
+ */
+public class BlumeAsyncWriter {
+	/**
+	 * What a producer does when the ring buffer is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Wait until the drainer makes room for the event.
+		 */
+		Block,
+		/**
+		 * Silently discard the event.
+		 */
+		Drop,
+		/**
+		 * Discard the event and count it in {@link BlumeAsyncWriter#getDroppedCount()}.
+		 */
+		DropAndCount
+	}
+	
+	/**
+	 * Default number of events the ring buffer can hold.
+	 */
+	public static final int _DEFAULT_CAPACITY_ = 8192;
+	/**
+	 * Default size in bytes of the drainer's output buffer.
+	 */
+	protected static final int _WRITER_CAPACITY_ = 64 * 1024;
+	/**
+	 * Longest time in nanoseconds the drainer sleeps before checking for
+	 * events on its own.
+	 */
+	protected static final long _IDLE_NANOS_ = TimeUnit.MILLISECONDS.toNanos( 1 );
+	/**
+	 * Bit set in {@link #tail} once the drainer has taken its final
+	 * position, so no producer can claim a slot after it.
+	 */
+	protected static final long _CLOSED_ = 1L << 62;
+	
+	/**
+	 * Writer which encodes and writes drained events.
+	 */
+	protected final BlumeWriter writer;
+	/**
+	 * Producer behavior when the ring buffer is full.
+	 */
+	protected final OverflowPolicy policy;
+	/**
+	 * Ring buffer mask (capacity - 1).
+	 */
+	protected final int mask;
+	/**
+	 * Sequence number of each slot. A slot is free for position p when its
+	 * sequence equals p, and holds a published event when it equals p + 1.
+	 */
+	protected final AtomicLongArray sequences;
+	/**
+	 * Text of each slot.
+	 */
+	protected final Object[] texts;
+	/**
+	 * Style of each slot.
+	 */
+	protected final BlumeStyle[] styles;
+	/**
+	 * Whether each slot's text ends with a new line.
+	 */
+	protected final boolean[] newlines;
+	/**
+	 * Next position to be claimed by a producer, with {@link #_CLOSED_} set
+	 * after shutdown.
+	 */
+	protected final AtomicLong tail = new AtomicLong();
+	/**
+	 * Next position to be drained. Only written by the drainer.
+	 */
+	protected volatile long head;
+	/**
+	 * Every position below this has been written and flushed.
+	 */
+	protected volatile long flushed;
+	/**
+	 * Position a caller of {@link #flush()} is waiting to have flushed.
+	 */
+	protected final AtomicLong flushRequest = new AtomicLong();
+	/**
+	 * Number of events discarded because the ring buffer was full.
+	 */
+	protected final LongAdder dropped = new LongAdder();
+	/**
+	 * Flag set while the drainer is parked waiting for events.
+	 */
+	protected volatile boolean isIdle;
+	/**
+	 * Flag cleared when the writer is shut down.
+	 */
+	protected volatile boolean isRunning = true;
+	/**
+	 * Background thread which drains the ring buffer.
+	 */
+	protected final Thread drainer;
+	
+	/**
+	 * Default constructor which writes to {@link blume.Blume#getOut()} with
+	 * the default capacity and blocks producers when the ring buffer is full.
+	 */
+	public BlumeAsyncWriter() {
+		this( new BlumeWriter( new Blume.OutStream(), _WRITER_CAPACITY_, false ), _DEFAULT_CAPACITY_, OverflowPolicy.Block );
+	}
+	
+	/**
+	 * Constructor for asynchronous output through any writer.
+	 * 
+	 * @param writer Writer used only by the drainer thread from now on.
+	 * @param capacity Number of events the ring buffer can hold, rounded up to a power of two.
+	 * @param policy What producers do when the ring buffer is full.
+	 */
+	public BlumeAsyncWriter( BlumeWriter writer, int capacity, OverflowPolicy policy ) {
+		int size = Integer.highestOneBit( Math.max( capacity, 2 ) - 1 ) << 1;
+		
+		this.writer = writer;
+		this.policy = policy;
+		this.mask = size - 1;
+		this.sequences = new AtomicLongArray( size );
+		this.texts = new Object[size];
+		this.styles = new BlumeStyle[size];
+		this.newlines = new boolean[size];
+		
+		for ( int i = 0; i < size; i++ ) {
+			this.sequences.set( i, i );
+		}
+		
+		this.drainer = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				drainLoop();
+			}
+		}, "blume-async-writer" );
+		this.drainer.setDaemon( true );
+		this.drainer.start();
+	}
+	
+	/**
+	 * Publishes a string with a precompiled {@link blume.BlumeStyle}.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void print( T text, BlumeStyle style ) {
+		publish( text, style, false );
+	}
+	
+	/**
+	 * Publishes a string with various modifiers for text color and
+	 * display attributes. Precompiling the modifiers once with
+	 * {@link blume.BlumeStyle#of(String...)} avoids looking up the style
+	 * on every call.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param mods
+	 */
+	public <T> void print( T text, String... mods ) {
+		publish( text, BlumeStyle.of( mods ), false );
+	}
+	
+	/**
+	 * Publishes a string with a precompiled {@link blume.BlumeStyle}.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void println( T text, BlumeStyle style ) {
+		publish( text, style, true );
+	}
+	
+	/**
+	 * Publishes a string with various modifiers for text color and
+	 * display attributes.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param mods
+	 */
+	public <T> void println( T text, String... mods ) {
+		publish( text, BlumeStyle.of( mods ), true );
+	}
+	
+	/**
+	 * Waits until every event published before this call has been written
+	 * and the underlying writer has been flushed.
+	 */
+	public void flush() {
+		long target = this.tail.get() & ~_CLOSED_;
+		
+		// Raise the flush request to at least this target
+		long request;
+		while ( ( request = this.flushRequest.get() ) < target ) {
+			if ( this.flushRequest.compareAndSet( request, target ) ) {
+				break;
+			}
+		}
+		
+		while ( this.flushed < target && this.drainer.isAlive() ) {
+			LockSupport.unpark( this.drainer );
+			LockSupport.parkNanos( _IDLE_NANOS_ / 10 );
+		}
+	}
+	
+	/**
+	 * Stops accepting events, drains and writes everything already published,
+	 * flushes the writer and waits for the drainer thread to finish. Events
+	 * published after this call are dropped.
+	 */
+	public void shutdown() {
+		this.isRunning = false;
+		
+		LockSupport.unpark( this.drainer );
+		
+		boolean isInterrupted = false;
+		while ( this.drainer.isAlive() ) {
+			try {
+				this.drainer.join();
+			} catch ( InterruptedException e ) {
+				isInterrupted = true;
+			}
+		}
+		
+		// A drainer which died early never closed the ring buffer
+		closeTail();
+		
+		if ( isInterrupted ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * @return The number of events discarded by {@link OverflowPolicy#DropAndCount},
+	 * published after shutdown or whose text could not be converted to a string.
+	 */
+	public long getDroppedCount() {
+		return this.dropped.sum();
+	}
+	
+	/**
+	 * @return The overflow policy of this writer.
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return this.policy;
+	}
+	
+	/**
+	 * Claims a slot in the ring buffer and publishes an event into it.
+	 * 
+	 * @param text
+	 * @param style
+	 * @param newline
+	 */
+	protected void publish( Object text, BlumeStyle style, boolean newline ) {
+		long position;
+		int index;
+		
+		for ( ;; ) {
+			if ( !this.isRunning ) {
+				recordDrop();
+				
+				return;
+			}
+			
+			position = this.tail.get();
+			
+			// The drainer has taken its final position, so this event would never be written
+			if ( ( position & _CLOSED_ ) != 0 ) {
+				recordDrop();
+				
+				return;
+			}
+			
+			index = (int) position & this.mask;
+			
+			long difference = this.sequences.get( index ) - position;
+			
+			if ( difference == 0 ) { // Slot is free
+				if ( this.tail.compareAndSet( position, position + 1 ) ) {
+					break;
+				}
+			} else if ( difference < 0 ) { // Ring buffer is full
+				if ( this.policy != OverflowPolicy.Block ) {
+					if ( this.policy == OverflowPolicy.DropAndCount ) {
+						this.dropped.increment();
+					}
+					
+					if ( BlumeMetrics._IS_ENABLED_ ) {
+						BlumeMetrics.recordDrop();
+					}
+					
+					return;
+				}
+				
+				// A drainer which died would never make room
+				if ( !this.drainer.isAlive() ) {
+					recordDrop();
+					
+					return;
+				}
+				
+				LockSupport.unpark( this.drainer );
+				Thread.yield();
+			}
+			// Otherwise another producer claimed this position first, so try again
+		}
+		
+		this.texts[index] = text;
+		this.styles[index] = ( style != null ) ? style : BlumeStyle.of();
+		this.newlines[index] = newline;
+		this.sequences.lazySet( index, position + 1 );
+		
+		if ( this.isIdle ) {
+			LockSupport.unpark( this.drainer );
+		}
+	}
+	
+	/**
+	 * Body of the drainer thread.
+	 */
+	protected void drainLoop() {
+		while ( this.isRunning ) {
+			if ( drainAvailable() ) {
+				// Keep emptying the ring buffer, flushing only when a caller is waiting
+				if ( this.flushRequest.get() > this.flushed ) {
+					flushWriter();
+				}
+				
+				continue;
+			}
+			
+			// Nothing to do, so flush what was written and wait for more
+			flushWriter();
+			
+			this.isIdle = true;
+			
+			if ( !hasPublished() && this.isRunning ) {
+				LockSupport.parkNanos( this, _IDLE_NANOS_ );
+			}
+			
+			this.isIdle = false;
+		}
+		
+		// Shut down: write out everything claimed before the ring buffer was closed
+		long end = closeTail();
+		
+		while ( this.head < end ) {
+			if ( !drainAvailable() ) {
+				Thread.yield();
+			}
+		}
+		
+		flushWriter();
+	}
+	
+	/**
+	 * Sets {@link #_CLOSED_} in the tail, after which producers drop their
+	 * events instead of claiming a slot. A producer which saw the writer
+	 * running but claims its slot first is still drained.
+	 * 
+	 * @return The position after the last slot claimed.
+	 */
+	protected long closeTail() {
+		for ( ;; ) {
+			long position = this.tail.get();
+			
+			if ( ( position & _CLOSED_ ) != 0 || this.tail.compareAndSet( position, position | _CLOSED_ ) ) {
+				return position & ~_CLOSED_;
+			}
+		}
+	}
+	
+	/**
+	 * Encodes every consecutive published event into the writer.
+	 * 
+	 * @return True if at least one event was drained.
+	 */
+	protected boolean drainAvailable() {
+		long position = this.head;
+		long start = position;
+		
+		for ( ;; ) {
+			int index = (int) position & this.mask;
+			
+			if ( this.sequences.get( index ) != position + 1 ) {
+				break;
+			}
+			
+			try {
+				Object text = this.texts[index];
+				
+				// Convert before encoding, so a failing toString() leaves no partial escape code
+				if ( !( text instanceof CharSequence ) ) {
+					text = String.valueOf( text );
+				}
+				
+				if ( this.newlines[index] ) {
+					this.writer.println( text, this.styles[index] );
+				} else {
+					this.writer.print( text, this.styles[index] );
+				}
+			} catch ( RuntimeException e ) {
+				// One bad event must not stop the drainer and every producer waiting on it
+				recordDrop();
+			}
+			
+			// Release the slot for the producer one lap ahead
+			this.texts[index] = null;
+			this.styles[index] = null;
+			this.sequences.lazySet( index, position + this.mask + 1 );
+			
+			position++;
+		}
+		
+		this.head = position;
+		
+		return position != start;
+	}
+	
+	/**
+	 * Counts a discarded event.
+	 */
+	protected void recordDrop() {
+		this.dropped.increment();
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordDrop();
+		}
+	}
+	
+	/**
+	 * @return Whether the next event to drain has been published.
+	 */
+	protected boolean hasPublished() {
+		long position = this.head;
+		
+		return this.sequences.get( (int) position & this.mask ) == position + 1;
+	}
+	
+	/**
+	 * Flushes the writer and records how far output has been flushed.
+	 */
+	protected void flushWriter() {
+		long position = this.head;
+		
+		if ( this.flushed < position ) {
+			this.writer.flush();
+			this.flushed = position;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeCapabilities.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.Map;
+
+/**
+ * What the terminal Blume is printing to can display, probed once when
+ * Blume starts and cached by {@link blume.BlumeText#getCapabilities()}.
+ * 
+ * Color is used when standard output is a terminal (System.console() is
+ * not null) whose TERM is not "dumb", unless NO_COLOR is set to anything
+ * but an empty string. FORCE_COLOR overrides both: 0 or false turns color
+ * off, and 1, 2 or 3 (or any other value) turns it on with at least 16,
+ * 256 or 24-bit colors. The color depth is 24-bit unless something says
+ * otherwise: 256 colors when TERM names a 256-color terminal (and COLORTERM
+ * is not truecolor or 24bit), and the 16 basic colors when TERM is linux or
+ * vt100.
+ * 
+ * When color is not used, every Blume print method writes its text alone
+ * without building any escape sequences.
+ */
+public final class BlumeCapabilities {
+	/**
+	 * Whether standard output is a terminal.
+	 */
+	private final boolean isTTY;
+	/**
+	 * Whether colors and display attributes are written.
+	 */
+	private final boolean isColor;
+	/**
+	 * Color depth of the terminal, or 0 when color is not used.
+	 */
+	private final int colorDepth;
+	
+	/**
+	 * Constructor for a terminal's capabilities.
+	 * 
+	 * @param isTTY
+	 * @param isColor
+	 * @param colorDepth One of the BlumeText._DEPTH_ constants. Ignored
+	 * unless color is used.
+	 */
+	public BlumeCapabilities( boolean isTTY, boolean isColor, int colorDepth ) {
+		this.isTTY = isTTY;
+		this.isColor = isColor;
+		this.colorDepth = isColor ? colorDepth : 0;
+	}
+	
+	/**
+	 * Probes the current process's terminal and environment.
+	 * 
+	 * @return Detected capabilities.
+	 */
+	public static BlumeCapabilities detect() {
+		return detect( System.getenv(), System.console() != null );
+	}
+	
+	/**
+	 * Works out the capabilities of a terminal from its environment.
+	 * 
+	 * @param env Environment variables.
+	 * @param isTTY Whether standard output is a terminal.
+	 * @return Detected capabilities.
+	 */
+	public static BlumeCapabilities detect( Map<String, String> env, boolean isTTY ) {
+		String term = env.get( "TERM" );
+		String colorTerm = env.get( "COLORTERM" );
+		String noColor = env.get( "NO_COLOR" );
+		String forceColor = env.get( "FORCE_COLOR" );
+		
+		// Only reduce the depth when the terminal is known to support fewer colors
+		int depth = BlumeText._DEPTH_24_BIT_;
+		
+		if ( colorTerm != null && ( colorTerm.equalsIgnoreCase( "truecolor" ) || colorTerm.equalsIgnoreCase( "24bit" ) ) ) {
+			depth = BlumeText._DEPTH_24_BIT_;
+		} else if ( term != null && ( term.endsWith( "-direct" ) || term.endsWith( "-truecolor" ) ) ) {
+			depth = BlumeText._DEPTH_24_BIT_;
+		} else if ( term != null && term.indexOf( "256" ) >= 0 ) {
+			depth = BlumeText._DEPTH_8_BIT_;
+		} else if ( term != null && ( term.equals( "linux" ) || term.equals( "vt100" ) ) ) {
+			depth = BlumeText._DEPTH_BASIC_;
+		}
+		
+		if ( forceColor != null ) {
+			if ( forceColor.equals( "0" ) || forceColor.equalsIgnoreCase( "false" ) ) {
+				return new BlumeCapabilities( isTTY, false, 0 );
+			} else if ( forceColor.equals( "2" ) ) {
+				depth = Math.max( depth, BlumeText._DEPTH_8_BIT_ );
+			} else if ( forceColor.equals( "3" ) ) {
+				depth = BlumeText._DEPTH_24_BIT_;
+			}
+			
+			return new BlumeCapabilities( isTTY, true, depth );
+		}
+		
+		boolean isDumb = ( term != null && term.equals( "dumb" ) );
+		boolean isNoColor = ( noColor != null && !noColor.isEmpty() );
+		
+		return new BlumeCapabilities( isTTY, isTTY && !isDumb && !isNoColor, depth );
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return True if standard output is a terminal.
+	 */
+	public boolean getIsTTY() {
+		return this.isTTY;
+	}
+	
+	/**
+	 * @return True if colors and display attributes are written.
+	 */
+	public boolean getIsColor() {
+		return this.isColor;
+	}
+	
+	/**
+	 * @return Color depth of the terminal, or 0 when color is not used.
+	 */
+	public int getColorDepth() {
+		return this.colorDepth;
+	}
+	
+	@Override
+	public String toString() {
+		return "BlumeCapabilities[isTTY=" + this.isTTY + ", isColor=" + this.isColor
+				+ ", colorDepth=" + this.colorDepth + "]";
+	}
+}
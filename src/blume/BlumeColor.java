@@ -35,41 +35,101 @@ package blume;
 
 /**
  * Color object used by Blume for ANSI-based 8- and 24-bit coloring.
+ * 
+ * A color is stored as a single packed integer holding its mode (8- or
+ * 24-bit) along with its palette value or red, green and blue channels.
+ * The same packed form is available through the static methods of this
+ * class, so large numbers of colors (gradients, images, heatmaps) can be
+ * kept in primitive int arrays instead of as individual objects.
+ * 
+ * Colors made with the constructors can be changed with the setters. Like
+ * the original color objects, such a color keeps its palette value and its
+ * red, green and blue channels apart, so switching between 8- and 24-bit
+ * brings back whichever was set before. Values outside 0 - 255 are
+ * rejected. Colors returned by {@link #valueOf(int)}, {@link #valueOf(int, int, int)}
+ * and {@link #fromPacked(int)} are immutable and safe to share between
+ * threads; the 256 palette colors are cached so that each is a single
+ * shared instance.
  */
 public class BlumeColor {
 	/**
-	 * Integer from 0 to 255 that represents an 8-bit
-	 * color palette option.
+	 * Packed mode of an 8-bit color palette option.
 	 */
-	protected int colorValue;
+	public static final int _MODE_8_BIT_ = 1 << 24;
 	/**
-	 * Red color value for 24-bit color.
+	 * Packed mode of a 24-bit RGB color.
 	 */
-	protected int red;
+	public static final int _MODE_24_BIT_ = 2 << 24;
 	/**
-	 * Green color value for 24-bit color.
+	 * Packed mode of a basic palette color (0 - 15) written with the standard
+	 * SGR color codes (30 - 37 and 90 - 97, or 40 - 47 and 100 - 107 for
+	 * backgrounds). Only used internally for colors given as BlumeText modifiers.
 	 */
-	protected int green;
+	protected static final int _MODE_BASIC_ = 3 << 24;
 	/**
-	 * Blue color value for 24-bit color.
+	 * Mask of the mode bits of a packed color.
 	 */
-	protected int blue;
+	protected static final int _MODE_MASK_ = 0xFF << 24;
 	/**
-	 * Flag to determine whether this is an 8-bit color instance.
+	 * Shared immutable instances of all 256 palette colors.
 	 */
-	protected boolean is8Bit;
+	private static final BlumeColor[] _palette = new BlumeColor[256];
+	
 	/**
-	 * Flag to determine whether this is a 24-bit color instance.
+	 * Red, green and blue channels (0xRRGGBB) of the standard xterm 256-color
+	 * palette: 16 basic colors, a 6x6x6 color cube and a 24-step gray ramp.
 	 */
-	protected boolean is24Bit;
+	protected static final int[] _PALETTE_RGB_ = new int[256];
+	
+	static {
+		for ( int i = 0; i < 256; i++ ) {
+			_palette[i] = new BlumeColor( _MODE_8_BIT_ | i, true );
+		}
+		
+		int[] basic = {
+			0x000000, 0x800000, 0x008000, 0x808000, 0x000080, 0x800080, 0x008080, 0xC0C0C0,
+			0x808080, 0xFF0000, 0x00FF00, 0xFFFF00, 0x0000FF, 0xFF00FF, 0x00FFFF, 0xFFFFFF
+		};
+		System.arraycopy( basic, 0, _PALETTE_RGB_, 0, 16 );
+		
+		int[] levels = { 0, 95, 135, 175, 215, 255 };
+		for ( int i = 0; i < 216; i++ ) {
+			_PALETTE_RGB_[16 + i] = ( levels[i / 36] << 16 ) | ( levels[( i / 6 ) % 6] << 8 ) | levels[i % 6];
+		}
+		
+		for ( int i = 0; i < 24; i++ ) {
+			int gray = 8 + i * 10;
+			
+			_PALETTE_RGB_[232 + i] = ( gray << 16 ) | ( gray << 8 ) | gray;
+		}
+	}
+	
+	/**
+	 * Mode in the high byte, and either the 8-bit color palette value in the
+	 * low byte or the red, green and blue channels in the low three bytes
+	 * (0xRRGGBB).
+	 */
+	protected int packed;
+	/**
+	 * 8-bit color palette value, kept while the color is 24-bit.
+	 */
+	protected int colorValue;
+	/**
+	 * Red, green and blue channels (0xRRGGBB), kept while the color is
+	 * 8-bit.
+	 */
+	protected int rgb;
+	/**
+	 * Flag to determine whether this color's setters are disabled.
+	 */
+	protected final boolean isImmutable;
 	
 	/**
 	 * Default constructor which produces black ({@link blume.BlumeText#Black}) from the
 	 * system's 8-bit color palette.
 	 */
 	public BlumeColor() {
-		this.colorValue = 16;
-		this.is8Bit = true;
+		this( 16 );
 	}
 	
 	/**
@@ -78,8 +138,7 @@ public class BlumeColor {
 	 * @param colorValue
 	 */
 	public BlumeColor( int colorValue ) {
-		this.colorValue = colorValue;
-		this.is8Bit = true;
+		this( pack8Bit( checkValue( colorValue, "color value" ) ), false );
 	}
 	
 	/**
@@ -94,15 +153,293 @@ public class BlumeColor {
 	 * @param blue
 	 */
 	public BlumeColor( int red, int green, int blue ) {
-		this.red = red;
-		this.green = green;
-		this.blue = blue;
-		this.is24Bit = true;
+		this( pack24Bit( checkValue( red, "red value" ), checkValue( green, "green value" ),
+				checkValue( blue, "blue value" ) ), false );
+	}
+	
+	/**
+	 * Constructor from a packed color.
+	 * 
+	 * @param packed
+	 * @param isImmutable
+	 */
+	protected BlumeColor( int packed, boolean isImmutable ) {
+		this.packed = packed;
+		this.isImmutable = isImmutable;
+		
+		if ( isPacked24Bit( packed ) ) {
+			this.rgb = packed & 0xFFFFFF;
+		} else {
+			this.colorValue = packed & 0xFF;
+		}
+	}
+	
+	/**
+	 * Checks that a palette value or color channel is from 0 to 255.
+	 * 
+	 * @param value
+	 * @param name What the value is, for the exception message.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the value is out of range.
+	 */
+	protected static int checkValue( int value, String name ) {
+		if ( value < 0 || value > 255 ) {
+			throw new IllegalArgumentException( "Blume requires a " + name + " from 0 to 255: " + value );
+		}
+		
+		return value;
+	}
+	
+	/*
+	 * Immutable colors.
+	 */
+	/**
+	 * Gets the shared, immutable color for an 8-bit color palette
+	 * option (0 - 255).
+	 * 
+	 * @param colorValue
+	 * @return Cached palette color.
+	 */
+	public static BlumeColor valueOf( int colorValue ) {
+		return _palette[checkValue( colorValue, "color value" )];
+	}
+	
+	/**
+	 * Gets an immutable color for a 24-bit RGB color option.
+	 * 
+	 * @param red
+	 * @param green
+	 * @param blue
+	 * @return Immutable RGB color.
+	 */
+	public static BlumeColor valueOf( int red, int green, int blue ) {
+		return new BlumeColor( pack24Bit( checkValue( red, "red value" ), checkValue( green, "green value" ),
+				checkValue( blue, "blue value" ) ), true );
+	}
+	
+	/**
+	 * Gets the immutable color for a packed color. Palette colors are
+	 * the shared cached instances.
+	 * 
+	 * @param packed
+	 * @return Immutable color.
+	 */
+	public static BlumeColor fromPacked( int packed ) {
+		if ( isPacked8Bit( packed ) ) {
+			return _palette[packed & 0xFF];
+		}
+		
+		return new BlumeColor( packed, true );
+	}
+	
+	/*
+	 * Packed colors.
+	 */
+	/**
+	 * Packs an 8-bit color palette option (0 - 255).
+	 * 
+	 * @param colorValue
+	 * @return Packed color.
+	 */
+	public static int pack8Bit( int colorValue ) {
+		return _MODE_8_BIT_ | ( colorValue & 0xFF );
+	}
+	
+	/**
+	 * Packs a 24-bit RGB color option.
+	 * 
+	 * @param red
+	 * @param green
+	 * @param blue
+	 * @return Packed color.
+	 */
+	public static int pack24Bit( int red, int green, int blue ) {
+		return _MODE_24_BIT_ | ( ( red & 0xFF ) << 16 ) | ( ( green & 0xFF ) << 8 ) | ( blue & 0xFF );
+	}
+	
+	/**
+	 * Packs a 24-bit RGB color given as 0xRRGGBB, e.g., a pixel from
+	 * BufferedImage.getRGB(). Any alpha channel is ignored.
+	 * 
+	 * @param rgb
+	 * @return Packed color.
+	 */
+	public static int pack24Bit( int rgb ) {
+		return _MODE_24_BIT_ | ( rgb & 0xFFFFFF );
+	}
+	
+	/**
+	 * Packs a basic palette color (0 - 15).
+	 * 
+	 * @param index
+	 * @return Packed color.
+	 */
+	protected static int packBasic( int index ) {
+		return _MODE_BASIC_ | ( index & 0x0F );
+	}
+	
+	/**
+	 * @param packed
+	 * @return Whether the packed color is a basic palette color.
+	 */
+	protected static boolean isPackedBasic( int packed ) {
+		return ( packed & _MODE_MASK_ ) == _MODE_BASIC_;
+	}
+	
+	/**
+	 * @param packed
+	 * @return Whether the packed color is an 8-bit color.
+	 */
+	public static boolean isPacked8Bit( int packed ) {
+		return ( packed & _MODE_MASK_ ) == _MODE_8_BIT_;
+	}
+	
+	/**
+	 * @param packed
+	 * @return Whether the packed color is a 24-bit color.
+	 */
+	public static boolean isPacked24Bit( int packed ) {
+		return ( packed & _MODE_MASK_ ) == _MODE_24_BIT_;
+	}
+	
+	/**
+	 * @param packed
+	 * @return The 8-bit color palette value of the packed color.
+	 */
+	public static int unpackColorValue( int packed ) {
+		return packed & 0xFF;
+	}
+	
+	/**
+	 * @param packed
+	 * @return The red color value of the packed color.
+	 */
+	public static int unpackRed( int packed ) {
+		return ( packed >> 16 ) & 0xFF;
+	}
+	
+	/**
+	 * @param packed
+	 * @return The green color value of the packed color.
+	 */
+	public static int unpackGreen( int packed ) {
+		return ( packed >> 8 ) & 0xFF;
+	}
+	
+	/**
+	 * @param packed
+	 * @return The blue color value of the packed color.
+	 */
+	public static int unpackBlue( int packed ) {
+		return packed & 0xFF;
+	}
+	
+	/**
+	 * @param packed
+	 * @return The red, green and blue channels of the packed color as 0xRRGGBB.
+	 */
+	public static int unpackRGB( int packed ) {
+		return packed & 0xFFFFFF;
+	}
+	
+	/**
+	 * Gets the red, green and blue channels of any packed color. Palette
+	 * colors are looked up in the standard xterm palette, which most
+	 * terminals use or closely follow.
+	 * 
+	 * @param packed
+	 * @return The color as 0xRRGGBB.
+	 */
+	public static int toRGB( int packed ) {
+		if ( isPacked24Bit( packed ) ) {
+			return packed & 0xFFFFFF;
+		} else if ( isPacked8Bit( packed ) ) {
+			return _PALETTE_RGB_[packed & 0xFF];
+		} else if ( isPackedBasic( packed ) ) {
+			return _PALETTE_RGB_[packed & 0x0F];
+		}
+		
+		return 0;
+	}
+	
+	/*
+	 * Bulk packed colors.
+	 */
+	/**
+	 * Packs an array of colors.
+	 * 
+	 * @param colors
+	 * @return Packed colors in the same order.
+	 */
+	public static int[] pack( BlumeColor[] colors ) {
+		int[] packed = new int[colors.length];
+		
+		for ( int i = 0; i < colors.length; i++ ) {
+			packed[i] = colors[i].packed;
+		}
+		
+		return packed;
+	}
+	
+	/**
+	 * Packs an array of 24-bit RGB colors given as 0xRRGGBB in place.
+	 * 
+	 * @param rgbs
+	 * @param offset
+	 * @param length
+	 */
+	public static void pack24Bit( int[] rgbs, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			rgbs[i] = _MODE_24_BIT_ | ( rgbs[i] & 0xFFFFFF );
+		}
+	}
+	
+	/**
+	 * Fills an array with a range of 8-bit color palette options.
+	 * 
+	 * @param packed
+	 * @param offset
+	 * @param firstColorValue Palette value of the first color, counting up from there.
+	 * @param length
+	 */
+	public static void pack8Bit( int[] packed, int offset, int firstColorValue, int length ) {
+		for ( int i = 0; i < length; i++ ) {
+			packed[offset + i] = _MODE_8_BIT_ | ( ( firstColorValue + i ) & 0xFF );
+		}
+	}
+	
+	/**
+	 * Gets the immutable colors of an array of packed colors.
+	 * 
+	 * @param packed
+	 * @return Immutable colors in the same order.
+	 */
+	public static BlumeColor[] unpack( int[] packed ) {
+		BlumeColor[] colors = new BlumeColor[packed.length];
+		
+		for ( int i = 0; i < packed.length; i++ ) {
+			colors[i] = fromPacked( packed[i] );
+		}
+		
+		return colors;
 	}
 	
 	/*
 	 * Accessors.
 	 */
+	/**
+	 * @return This color in packed form.
+	 */
+	public int getPacked() {
+		return this.packed;
+	}
+	/**
+	 * @return The red, green and blue channels of this color as 0xRRGGBB,
+	 * looking up 8-bit colors in the standard xterm palette.
+	 */
+	public int toRGB() {
+		return toRGB( this.packed );
+	}
 	/**
 	 * @return The 8-bit color palette value of this color.
 	 */
@@ -113,31 +450,37 @@ public class BlumeColor {
 	 * @return The red color value of this color.
 	 */
 	public int getRed() {
-		return this.red;
+		return unpackRed( this.rgb );
 	}
 	/**
 	 * @return The green color value of this color.
 	 */
 	public int getGreen() {
-		return this.green;
+		return unpackGreen( this.rgb );
 	}
 	/**
 	 * @return The blue color value of this color.
 	 */
 	public int getBlue() {
-		return this.blue;
+		return unpackBlue( this.rgb );
 	}
 	/**
 	 * @return Whether this color is an 8-bit color.
 	 */
 	public boolean getIs8Bit() {
-		return this.is8Bit;
+		return isPacked8Bit( this.packed );
 	}
 	/**
 	 * @return Whether this color is a 24-bit color.
 	 */
 	public boolean getIs24Bit() {
-		return this.is24Bit;
+		return isPacked24Bit( this.packed );
+	}
+	/**
+	 * @return Whether this color's setters are disabled.
+	 */
+	public boolean getIsImmutable() {
+		return this.isImmutable;
 	}
 	/**
 	 * Sets this object's 256-color palette value.
@@ -145,7 +488,13 @@ public class BlumeColor {
 	 * @param _colorValue
 	 */
 	public void setColorValue( int _colorValue ) {
-		this.colorValue = _colorValue;
+		checkMutable();
+		
+		this.colorValue = checkValue( _colorValue, "color value" );
+		
+		if ( !getIs24Bit() ) {
+			this.packed = pack8Bit( this.colorValue );
+		}
 	}
 	/**
 	 * Sets this object's red value.
@@ -153,7 +502,7 @@ public class BlumeColor {
 	 * @param _red
 	 */
 	public void setRed( int _red ) {
-		this.red = _red;
+		setRGB( ( this.rgb & ~0xFF0000 ) | ( checkValue( _red, "red value" ) << 16 ) );
 	}
 	/**
 	 * Sets this object's green value.
@@ -161,7 +510,7 @@ public class BlumeColor {
 	 * @param _green
 	 */
 	public void setGreen( int _green ) {
-		this.green = _green;
+		setRGB( ( this.rgb & ~0xFF00 ) | ( checkValue( _green, "green value" ) << 8 ) );
 	}
 	/**
 	 * Sets this object's blue value.
@@ -169,20 +518,61 @@ public class BlumeColor {
 	 * @param _blue
 	 */
 	public void setBlue( int _blue ) {
-		this.blue = _blue;
+		setRGB( ( this.rgb & ~0xFF ) | checkValue( _blue, "blue value" ) );
 	}
 	/**
-	 * Sets this object's color type as 8-bit.
+	 * Sets this object's color type as 8-bit, using its palette value.
 	 */
 	public void setIs8Bit() {
-		this.is8Bit = true;
-		this.is24Bit = false;
+		checkMutable();
+		
+		this.packed = pack8Bit( this.colorValue );
 	}
 	/**
-	 * Sets this object's color type as 24-bit.
+	 * Sets this object's color type as 24-bit, using its red, green and
+	 * blue values.
 	 */
 	public void setIs24Bit() {
-		this.is24Bit = true;
-		this.is8Bit = false;
+		checkMutable();
+		
+		this.packed = pack24Bit( this.rgb );
+	}
+	/**
+	 * Replaces this object's red, green and blue channels.
+	 * 
+	 * @param _rgb
+	 */
+	protected void setRGB( int _rgb ) {
+		checkMutable();
+		
+		this.rgb = _rgb;
+		
+		if ( getIs24Bit() ) {
+			this.packed = pack24Bit( this.rgb );
+		}
+	}
+	/**
+	 * Throws if this object's setters are disabled.
+	 */
+	protected void checkMutable() {
+		if ( this.isImmutable ) {
+			throw new UnsupportedOperationException( "This BlumeColor is immutable." );
+		}
+	}
+	/**
+	 * Replaces this object's packed color.
+	 * 
+	 * @param _packed
+	 */
+	protected void setPacked( int _packed ) {
+		checkMutable();
+		
+		this.packed = _packed;
+		
+		if ( isPacked24Bit( _packed ) ) {
+			this.rgb = _packed & 0xFFFFFF;
+		} else {
+			this.colorValue = _packed & 0xFF;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,581 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeColorSpace.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Bulk color space math on arrays of packed colors (see
+ * {@link blume.BlumeColor#pack(BlumeColor[])}): conversions between sRGB
+ * and linear light, HSL, HSV and OKLab, gamma-correct blending, perceptual
+ * ramps and WCAG contrast picking, e.g., for the cells of a heatmap.
+ * 
+ * Every method works on a range of colors: color i of the range is
+ * packed[offset + i] in int arrays and the three floats from
+ * 3 * ( offset + i ) in float arrays. Packed colors of any kind are read,
+ * palette colors through the standard xterm palette, and results are
+ * packed 24-bit colors.
+ * 
+ * Decoding sRGB channels into linear light goes through a 256-entry table
+ * and encoding back through a 16384-entry one, so neither calls
+ * {@link Math#pow(double, double)}; the rest is straight-line float math
+ * without branches where the color spaces allow it.
+ * 
+ * Only this scalar path exists. Blume builds for Java 8, where
+ * jdk.incubator.vector is not available, so any vectorization is left to
+ * the JIT compiler's auto-vectorization of these loops. On one core of the
+ * benchmark machine (see BlumeColorSpaceBenchmark in bench/) a block of
+ * 4096 colors runs at about 340 million colors/s through
+ * {@link #toLinear(int[], float[], int, int)}, 150 million through
+ * {@link #fromLinear(float[], int[], int, int)}, 90 million through
+ * {@link #mix(int[], int[], float, int[], int, int)} and 15 million through
+ * an OKLab round trip.
+ */
+public final class BlumeColorSpace {
+	/**
+	 * Minimum contrast ratio of normal text under WCAG 2 level AA.
+	 */
+	public static final double _WCAG_AA_ = 4.5;
+	/**
+	 * Minimum contrast ratio of normal text under WCAG 2 level AAA.
+	 */
+	public static final double _WCAG_AAA_ = 7.0;
+	/**
+	 * Number of steps of the table which encodes linear light as sRGB,
+	 * fine enough that each step is less than half of an 8-bit level.
+	 */
+	protected static final int _ENCODE_STEPS_ = ( 1 << 14 ) - 1;
+	/**
+	 * Linear light of each 8-bit sRGB channel value.
+	 */
+	protected static final float[] _TO_LINEAR_ = new float[256];
+	/**
+	 * 8-bit sRGB channel value of each step of linear light from 0 to 1.
+	 */
+	protected static final byte[] _TO_SRGB_ = new byte[_ENCODE_STEPS_ + 1];
+	
+	static {
+		for ( int i = 0; i < 256; i++ ) {
+			double c = i / 255.0;
+			
+			_TO_LINEAR_[i] = (float) ( ( c <= 0.04045 ) ? c / 12.92 : Math.pow( ( c + 0.055 ) / 1.055, 2.4 ) );
+		}
+		
+		for ( int i = 0; i <= _ENCODE_STEPS_; i++ ) {
+			double c = (double) i / _ENCODE_STEPS_;
+			double srgb = ( c <= 0.0031308 ) ? c * 12.92 : 1.055 * Math.pow( c, 1 / 2.4 ) - 0.055;
+			
+			_TO_SRGB_[i] = (byte) Math.round( srgb * 255 );
+		}
+	}
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeColorSpace() {
+	}
+	
+	/*
+	 * Linear light.
+	 */
+	/**
+	 * Decodes colors into linear light red, green and blue from 0 to 1.
+	 * 
+	 * @param packed
+	 * @param linear Three floats per color.
+	 * @param offset
+	 * @param length
+	 */
+	public static void toLinear( int[] packed, float[] linear, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int rgb = BlumeColor.toRGB( packed[i] );
+			int j = 3 * i;
+			
+			linear[j] = _TO_LINEAR_[( rgb >> 16 ) & 0xFF];
+			linear[j + 1] = _TO_LINEAR_[( rgb >> 8 ) & 0xFF];
+			linear[j + 2] = _TO_LINEAR_[rgb & 0xFF];
+		}
+	}
+	
+	/**
+	 * Encodes linear light red, green and blue as packed 24-bit colors,
+	 * clipping each channel to 0 to 1.
+	 * 
+	 * @param linear Three floats per color.
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 */
+	public static void fromLinear( float[] linear, int[] packed, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int j = 3 * i;
+			
+			packed[i] = encode( linear[j], linear[j + 1], linear[j + 2] );
+		}
+	}
+	
+	/**
+	 * Gets the linear light of an 8-bit sRGB channel.
+	 * 
+	 * @param channel From 0 to 255.
+	 * @return Linear light from 0 to 1.
+	 */
+	public static float toLinear( int channel ) {
+		return _TO_LINEAR_[channel & 0xFF];
+	}
+	
+	/**
+	 * Gets the 8-bit sRGB channel of linear light.
+	 * 
+	 * @param linear Linear light, clipped to 0 to 1.
+	 * @return Channel from 0 to 255.
+	 */
+	public static int toSRGB( float linear ) {
+		// NaN fails both comparisons and becomes 0
+		float c = ( linear > 0 ) ? ( ( linear < 1 ) ? linear : 1 ) : 0;
+		
+		return _TO_SRGB_[(int) ( c * _ENCODE_STEPS_ + 0.5f )] & 0xFF;
+	}
+	
+	/**
+	 * Encodes linear light as a packed 24-bit color.
+	 * 
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @return Packed 24-bit color.
+	 */
+	protected static int encode( float r, float g, float b ) {
+		return BlumeColor.pack24Bit( toSRGB( r ), toSRGB( g ), toSRGB( b ) );
+	}
+	
+	/*
+	 * HSL and HSV.
+	 */
+	/**
+	 * Converts colors into hue in degrees from 0 to 360, saturation and
+	 * lightness from 0 to 1.
+	 * 
+	 * @param packed
+	 * @param hsl Three floats per color.
+	 * @param offset
+	 * @param length
+	 */
+	public static void toHSL( int[] packed, float[] hsl, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int rgb = BlumeColor.toRGB( packed[i] );
+			int r = ( rgb >> 16 ) & 0xFF;
+			int g = ( rgb >> 8 ) & 0xFF;
+			int b = rgb & 0xFF;
+			int max = Math.max( r, Math.max( g, b ) );
+			int min = Math.min( r, Math.min( g, b ) );
+			int chroma = max - min;
+			float lightness = ( max + min ) / 510f;
+			int j = 3 * i;
+			
+			hsl[j] = getHue( r, g, b, max, chroma );
+			hsl[j + 1] = ( chroma == 0 ) ? 0 : chroma / ( 255f * ( 1 - Math.abs( 2 * lightness - 1 ) ) );
+			hsl[j + 2] = lightness;
+		}
+	}
+	
+	/**
+	 * Converts hue in degrees, saturation and lightness from 0 to 1 into
+	 * packed 24-bit colors.
+	 * 
+	 * @param hsl Three floats per color.
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 */
+	public static void fromHSL( float[] hsl, int[] packed, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int j = 3 * i;
+			float lightness = clip( hsl[j + 2] );
+			float chroma = ( 1 - Math.abs( 2 * lightness - 1 ) ) * clip( hsl[j + 1] );
+			
+			packed[i] = fromHueChroma( hsl[j], chroma, lightness - chroma / 2 );
+		}
+	}
+	
+	/**
+	 * Converts colors into hue in degrees from 0 to 360, saturation and
+	 * value from 0 to 1.
+	 * 
+	 * @param packed
+	 * @param hsv Three floats per color.
+	 * @param offset
+	 * @param length
+	 */
+	public static void toHSV( int[] packed, float[] hsv, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int rgb = BlumeColor.toRGB( packed[i] );
+			int r = ( rgb >> 16 ) & 0xFF;
+			int g = ( rgb >> 8 ) & 0xFF;
+			int b = rgb & 0xFF;
+			int max = Math.max( r, Math.max( g, b ) );
+			int chroma = max - Math.min( r, Math.min( g, b ) );
+			int j = 3 * i;
+			
+			hsv[j] = getHue( r, g, b, max, chroma );
+			hsv[j + 1] = ( max == 0 ) ? 0 : (float) chroma / max;
+			hsv[j + 2] = max / 255f;
+		}
+	}
+	
+	/**
+	 * Converts hue in degrees, saturation and value from 0 to 1 into
+	 * packed 24-bit colors.
+	 * 
+	 * @param hsv Three floats per color.
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 */
+	public static void fromHSV( float[] hsv, int[] packed, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int j = 3 * i;
+			float value = clip( hsv[j + 2] );
+			float chroma = value * clip( hsv[j + 1] );
+			
+			packed[i] = fromHueChroma( hsv[j], chroma, value - chroma );
+		}
+	}
+	
+	/**
+	 * Gets the hue of a color, which HSL and HSV share.
+	 * 
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @param max Largest channel.
+	 * @param chroma Largest minus smallest channel.
+	 * @return Hue in degrees from 0 to 360, or 0 for grays.
+	 */
+	private static float getHue( int r, int g, int b, int max, int chroma ) {
+		if ( chroma == 0 ) {
+			return 0;
+		}
+		
+		float hue;
+		
+		if ( max == r ) {
+			hue = (float) ( g - b ) / chroma;
+		} else if ( max == g ) {
+			hue = (float) ( b - r ) / chroma + 2;
+		} else {
+			hue = (float) ( r - g ) / chroma + 4;
+		}
+		
+		return ( hue < 0 ) ? hue * 60 + 360 : hue * 60;
+	}
+	
+	/**
+	 * Builds a packed 24-bit color from its hue, chroma and the amount
+	 * added to every channel, which HSL and HSV share.
+	 * 
+	 * @param hue Hue in degrees, any number of turns.
+	 * @param chroma From 0 to 1.
+	 * @param base From 0 to 1.
+	 * @return Packed 24-bit color.
+	 */
+	private static int fromHueChroma( float hue, float chroma, float base ) {
+		float sector = ( ( hue % 360 + 360 ) % 360 ) / 60;
+		
+		// Each channel is a trapezoid over the sextants of the hue circle
+		float r = base + chroma * clip( Math.abs( sector % 6 - 3 ) - 1 );
+		float g = base + chroma * clip( Math.abs( ( sector + 4 ) % 6 - 3 ) - 1 );
+		float b = base + chroma * clip( Math.abs( ( sector + 2 ) % 6 - 3 ) - 1 );
+		
+		return BlumeColor.pack24Bit( Math.round( clip( r ) * 255 ), Math.round( clip( g ) * 255 ), Math.round( clip( b ) * 255 ) );
+	}
+	
+	/*
+	 * OKLab.
+	 */
+	/**
+	 * Converts colors into OKLab lightness from 0 to 1 and the a and b
+	 * opponent axes, about -0.4 to 0.4.
+	 * 
+	 * @param packed
+	 * @param lab Three floats per color.
+	 * @param offset
+	 * @param length
+	 */
+	public static void toOKLab( int[] packed, float[] lab, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int rgb = BlumeColor.toRGB( packed[i] );
+			
+			toOKLab( _TO_LINEAR_[( rgb >> 16 ) & 0xFF], _TO_LINEAR_[( rgb >> 8 ) & 0xFF], _TO_LINEAR_[rgb & 0xFF], lab, 3 * i );
+		}
+	}
+	
+	/**
+	 * Converts OKLab colors into packed 24-bit colors, clipping colors
+	 * outside of sRGB channel by channel.
+	 * 
+	 * @param lab Three floats per color.
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 */
+	public static void fromOKLab( float[] lab, int[] packed, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int j = 3 * i;
+			
+			packed[i] = fromOKLab( lab[j], lab[j + 1], lab[j + 2] );
+		}
+	}
+	
+	/**
+	 * Converts linear light into OKLab.
+	 * 
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @param lab
+	 * @param index Index of the lightness in lab.
+	 */
+	private static void toOKLab( float r, float g, float b, float[] lab, int index ) {
+		float l = (float) Math.cbrt( 0.4122214708f * r + 0.5363325363f * g + 0.0514459929f * b );
+		float m = (float) Math.cbrt( 0.2119034982f * r + 0.6806995451f * g + 0.1073969566f * b );
+		float s = (float) Math.cbrt( 0.0883024619f * r + 0.2817188376f * g + 0.6299787005f * b );
+		
+		lab[index] = 0.2104542553f * l + 0.7936177850f * m - 0.0040720468f * s;
+		lab[index + 1] = 1.9779984951f * l - 2.4285922050f * m + 0.4505937099f * s;
+		lab[index + 2] = 0.0259040371f * l + 0.7827717662f * m - 0.8086757660f * s;
+	}
+	
+	/**
+	 * Converts an OKLab color into a packed 24-bit color.
+	 * 
+	 * @param lightness
+	 * @param a
+	 * @param b
+	 * @return Packed 24-bit color.
+	 */
+	private static int fromOKLab( float lightness, float a, float b ) {
+		float l = lightness + 0.3963377774f * a + 0.2158037573f * b;
+		float m = lightness - 0.1055613458f * a - 0.0638541728f * b;
+		float s = lightness - 0.0894841775f * a - 1.2914855480f * b;
+		
+		l = l * l * l;
+		m = m * m * m;
+		s = s * s * s;
+		
+		return encode( 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s,
+				-1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s,
+				-0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s );
+	}
+	
+	/*
+	 * Blending and interpolation.
+	 */
+	/**
+	 * Mixes two arrays of colors in linear light, so a mix of two bright
+	 * colors does not darken as it does when sRGB values are averaged.
+	 * 
+	 * @param from
+	 * @param to
+	 * @param t Amount of to from 0 to 1, e.g., its opacity over from.
+	 * @param packed Mixed colors, which may be either input.
+	 * @param offset
+	 * @param length
+	 */
+	public static void mix( int[] from, int[] to, float t, int[] packed, int offset, int length ) {
+		float s = 1 - t;
+		
+		for ( int i = offset; i < offset + length; i++ ) {
+			int a = BlumeColor.toRGB( from[i] );
+			int b = BlumeColor.toRGB( to[i] );
+			
+			packed[i] = encode( s * _TO_LINEAR_[( a >> 16 ) & 0xFF] + t * _TO_LINEAR_[( b >> 16 ) & 0xFF],
+					s * _TO_LINEAR_[( a >> 8 ) & 0xFF] + t * _TO_LINEAR_[( b >> 8 ) & 0xFF],
+					s * _TO_LINEAR_[a & 0xFF] + t * _TO_LINEAR_[b & 0xFF] );
+		}
+	}
+	
+	/**
+	 * Mixes two arrays of colors in linear light, each pair by its own amount.
+	 * 
+	 * @param from
+	 * @param to
+	 * @param t Amount of to from 0 to 1 for each color.
+	 * @param packed Mixed colors, which may be either input.
+	 * @param offset
+	 * @param length
+	 */
+	public static void mix( int[] from, int[] to, float[] t, int[] packed, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			int a = BlumeColor.toRGB( from[i] );
+			int b = BlumeColor.toRGB( to[i] );
+			float u = t[i];
+			float s = 1 - u;
+			
+			packed[i] = encode( s * _TO_LINEAR_[( a >> 16 ) & 0xFF] + u * _TO_LINEAR_[( b >> 16 ) & 0xFF],
+					s * _TO_LINEAR_[( a >> 8 ) & 0xFF] + u * _TO_LINEAR_[( b >> 8 ) & 0xFF],
+					s * _TO_LINEAR_[a & 0xFF] + u * _TO_LINEAR_[b & 0xFF] );
+		}
+	}
+	
+	/**
+	 * Fills a range with a ramp from one color to another in even
+	 * perceptual steps, interpolating in OKLab, e.g., the scale of a heatmap.
+	 * 
+	 * @param from Packed color of the first position.
+	 * @param to Packed color of the last position.
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 */
+	public static void ramp( int from, int to, int[] packed, int offset, int length ) {
+		float[] lab = new float[6];
+		
+		toOKLab( new int[] { from, to }, lab, 0, 2 );
+		
+		int last = Math.max( 1, length - 1 );
+		
+		for ( int i = 0; i < length; i++ ) {
+			float t = (float) i / last;
+			
+			packed[offset + i] = fromOKLab( lab[0] + ( lab[3] - lab[0] ) * t, lab[1] + ( lab[4] - lab[1] ) * t,
+					lab[2] + ( lab[5] - lab[2] ) * t );
+		}
+	}
+	
+	/*
+	 * WCAG contrast.
+	 */
+	/**
+	 * Gets the WCAG relative luminance of colors.
+	 * 
+	 * @param packed
+	 * @param luminance One float per color, at the same index as its color.
+	 * @param offset
+	 * @param length
+	 */
+	public static void getLuminance( int[] packed, float[] luminance, int offset, int length ) {
+		for ( int i = offset; i < offset + length; i++ ) {
+			luminance[i] = getLuminance( packed[i] );
+		}
+	}
+	
+	/**
+	 * Gets the WCAG relative luminance of a color.
+	 * 
+	 * @param packed
+	 * @return Luminance from 0 for black to 1 for white.
+	 */
+	public static float getLuminance( int packed ) {
+		int rgb = BlumeColor.toRGB( packed );
+		
+		return 0.2126f * _TO_LINEAR_[( rgb >> 16 ) & 0xFF] + 0.7152f * _TO_LINEAR_[( rgb >> 8 ) & 0xFF]
+				+ 0.0722f * _TO_LINEAR_[rgb & 0xFF];
+	}
+	
+	/**
+	 * Gets the WCAG contrast ratio of two colors.
+	 * 
+	 * @param a Packed color.
+	 * @param b Packed color.
+	 * @return Contrast ratio from 1 to 21.
+	 */
+	public static double getContrast( int a, int b ) {
+		return getContrast( getLuminance( a ), getLuminance( b ) );
+	}
+	
+	/**
+	 * Gets the WCAG contrast ratio of two luminances.
+	 * 
+	 * @param a
+	 * @param b
+	 * @return Contrast ratio from 1 to 21.
+	 */
+	private static double getContrast( float a, float b ) {
+		return ( Math.max( a, b ) + 0.05 ) / ( Math.min( a, b ) + 0.05 );
+	}
+	
+	/**
+	 * Picks a text color for each background: the first candidate with at
+	 * least a minimum contrast against it or, if none has, the candidate
+	 * with the most contrast.
+	 * 
+	 * @param backgrounds Packed background colors.
+	 * @param packed Picked text colors, which may be the backgrounds.
+	 * @param offset
+	 * @param length
+	 * @param minimum Contrast ratio wanted, e.g., {@link #_WCAG_AA_}.
+	 * @param candidates Packed text colors in order of preference, at least one.
+	 */
+	public static void pickContrasting( int[] backgrounds, int[] packed, int offset, int length, double minimum, int... candidates ) {
+		if ( candidates.length == 0 ) {
+			throw new IllegalArgumentException( "Contrast picking requires at least one candidate color." );
+		}
+		
+		float[] luminances = new float[candidates.length];
+		
+		getLuminance( candidates, luminances, 0, candidates.length );
+		
+		for ( int i = offset; i < offset + length; i++ ) {
+			float background = getLuminance( backgrounds[i] );
+			int best = 0;
+			double bestContrast = 0;
+			
+			for ( int c = 0; c < candidates.length; c++ ) {
+				double contrast = getContrast( background, luminances[c] );
+				
+				if ( contrast >= minimum ) {
+					best = c;
+					
+					break;
+				}
+				
+				if ( contrast > bestContrast ) {
+					best = c;
+					bestContrast = contrast;
+				}
+			}
+			
+			packed[i] = candidates[best];
+		}
+	}
+	
+	/**
+	 * Clips a channel to 0 to 1, turning NaN into 0.
+	 * 
+	 * @param c
+	 * @return Clipped channel.
+	 */
+	private static float clip( float c ) {
+		return ( c > 0 ) ? ( ( c < 1 ) ? c : 1 ) : 0;
+	}
+}
@@ -0,0 +1,748 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeColorizer.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Colors log files and streams with rules which give a style to literal
+ * keywords (e.g., log levels) or to regular expression matches (e.g.,
+ * timestamps, IP addresses and UUIDs).
+ * 
+ * Input is processed as raw UTF-8 bytes in chunks of whole lines, so
+ * memory use stays the same whatever the size of the input. Files are read
+ * through memory-mapped regions and other input through one large buffer.
+ * All keywords are found together in one pass by a
+ * {@link blume.BlumeKeywords} automaton, and regular expressions run over a
+ * view of the bytes as ISO-8859-1 characters without decoding them. Output
+ * goes through a {@link blume.BlumeWriter}, so it is written in large
+ * batches.
+ * 
+ * When rules overlap, the match which starts first wins, then the longest.
+ * Keywords only match whole words unless {@link #setIsWholeWord(boolean)}
+ * is turned off. Lines longer than {@link #_CHUNK_SIZE_} bytes are split,
+ * and matches across the split are missed.
+ * 
+ * Example:
+ * <pre>
+ * BlumeColorizer colorizer = BlumeColorizer.createDefault()
+ *     .addKeywords( BlumeStyle.of( BlumeText.Magenta ), "GET", "POST" );
+ * 
+ * colorizer.colorize( Paths.get( "server.log" ), System.out );
+ * </pre>
+ * 
+ * It can also be run from the command line, coloring the given files or
+ * else standard input with the default rules:
+ * <pre>
+ * java -cp blume.jar blume.BlumeColorizer server.log
+ * tail -f server.log | java -cp blume.jar blume.BlumeColorizer
+ * </pre>
+ * 
+ * A BlumeColorizer is not safe for use by multiple threads at once.
+ */
+public class BlumeColorizer {
+	/**
+	 * Most bytes colored at once.
+	 */
+	public static final int _CHUNK_SIZE_ = 1 << 16;
+	/**
+	 * Size in bytes of each region of a file mapped into memory.
+	 */
+	public static final int _REGION_SIZE_ = 1 << 26;
+	/**
+	 * Size in bytes of the buffer input from a channel is read into.
+	 */
+	public static final int _BUFFER_SIZE_ = 1 << 20;
+	/**
+	 * Size in bytes of the output buffer.
+	 */
+	public static final int _OUTPUT_CAPACITY_ = 1 << 16;
+	/**
+	 * ISO 8601 style dates with times, or times alone.
+	 */
+	public static final Pattern _TIMESTAMP_ = Pattern.compile(
+			"\\b\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?(?:Z|[+-]\\d{2}:?\\d{2})?|\\b\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?\\b" );
+	/**
+	 * IPv4 addresses.
+	 */
+	public static final Pattern _IPV4_ = Pattern.compile(
+			"\\b(?:(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)\\.){3}(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)\\b" );
+	/**
+	 * UUIDs.
+	 */
+	public static final Pattern _UUID_ = Pattern.compile(
+			"\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b" );
+	/**
+	 * Bits of each field of a packed span.
+	 */
+	private static final int _SPAN_BITS_ = 20;
+	private static final long _SPAN_MASK_ = ( 1L << _SPAN_BITS_ ) - 1;
+	
+	/**
+	 * Styles of the rules. Rules refer to their style by index.
+	 */
+	private final List<BlumeStyle> styles = new ArrayList<BlumeStyle>();
+	private final List<String> keywords = new ArrayList<String>();
+	private final List<Integer> keywordStyles = new ArrayList<Integer>();
+	private final List<Pattern> patterns = new ArrayList<Pattern>();
+	private final List<Integer> patternStyles = new ArrayList<Integer>();
+	private boolean isWholeWord = true;
+	private boolean isIgnoreCase = false;
+	
+	/*
+	 * Compiled rules, rebuilt after any rule changes.
+	 */
+	private boolean isCompiled;
+	private BlumeKeywords automaton;
+	private int[] automatonStyles;
+	private Matcher[] matchers;
+	private boolean[][] matcherStarts;
+	private int[] matcherStyles;
+	private BlumeStyle[] styleTable;
+	
+	/**
+	 * Matches found in the current chunk, each packed as its start, its
+	 * length (inverted, so longer sorts first) and its style.
+	 */
+	private long[] spans = new long[256];
+	private int spanCount;
+	/**
+	 * Copy of the chunk being colored.
+	 */
+	private final byte[] chunk = new byte[_CHUNK_SIZE_];
+	private final ByteSequence view = new ByteSequence();
+	
+	/**
+	 * Constructor for a colorizer without any rules.
+	 */
+	public BlumeColorizer() {
+	}
+	
+	/**
+	 * Creates a colorizer with rules for log levels, timestamps, IP
+	 * addresses and UUIDs.
+	 * 
+	 * @return New colorizer.
+	 */
+	public static BlumeColorizer createDefault() {
+		return new BlumeColorizer()
+				.addKeywords( BlumeStyle.of( BlumeText.Red, BlumeText.Attribute.Bold ), "FATAL", "SEVERE", "ERROR" )
+				.addKeywords( BlumeStyle.of( BlumeText.Yellow, BlumeText.Attribute.Bold ), "WARN", "WARNING" )
+				.addKeywords( BlumeStyle.of( BlumeText.Green ), "INFO" )
+				.addKeywords( BlumeStyle.of( BlumeText.Cyan ), "DEBUG" )
+				.addKeywords( BlumeStyle.of( BlumeText.Attribute.Faint ), "TRACE" )
+				.addPattern( _TIMESTAMP_, BlumeStyle.of( BlumeText.Blue ) )
+				.addPattern( _IPV4_, BlumeStyle.of( BlumeText.Magenta ) )
+				.addPattern( _UUID_, BlumeStyle.of( BlumeText.Attribute.Underline ) );
+	}
+	
+	/**
+	 * Colors standard input, or each file given, with the default rules
+	 * and writes it to standard output.
+	 * 
+	 * @param args Files to color.
+	 */
+	public static void main( String[] args ) {
+		BlumeColorizer colorizer = createDefault();
+		BlumeWriter writer = new BlumeWriter( new FileOutputStream( FileDescriptor.out ), _OUTPUT_CAPACITY_, false );
+		
+		try {
+			if ( args.length == 0 ) {
+				try ( FileChannel in = new FileInputStream( FileDescriptor.in ).getChannel() ) {
+					colorizer.colorize( in, writer );
+				}
+			}
+			
+			for ( String arg : args ) {
+				colorizer.colorize( Paths.get( arg ), writer );
+			}
+		} catch ( IOException e ) {
+			writer.flush();
+			System.err.println( "blume: " + e.getMessage() );
+			System.exit( 1 );
+		}
+		
+		writer.flush();
+	}
+	
+	/**
+	 * Adds a rule which styles literal keywords.
+	 * 
+	 * @param style
+	 * @param keywords
+	 * @return This colorizer.
+	 */
+	public BlumeColorizer addKeywords( BlumeStyle style, String... keywords ) {
+		int index = addStyle( style );
+		
+		for ( String keyword : keywords ) {
+			this.keywords.add( keyword );
+			this.keywordStyles.add( index );
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Adds a rule which styles matches of a regular expression. Since the
+	 * expression sees each byte as one character, it should only rely on
+	 * ASCII characters.
+	 * 
+	 * @param regex
+	 * @param style
+	 * @return This colorizer.
+	 */
+	public BlumeColorizer addPattern( String regex, BlumeStyle style ) {
+		return addPattern( Pattern.compile( regex ), style );
+	}
+	
+	/**
+	 * Adds a rule which styles matches of a regular expression. Since the
+	 * expression sees each byte as one character, it should only rely on
+	 * ASCII characters.
+	 * 
+	 * @param pattern
+	 * @param style
+	 * @return This colorizer.
+	 */
+	public BlumeColorizer addPattern( Pattern pattern, BlumeStyle style ) {
+		this.patterns.add( pattern );
+		this.patternStyles.add( addStyle( style ) );
+		
+		return this;
+	}
+	
+	/**
+	 * Colors a file, memory-mapping it one region at a time.
+	 * 
+	 * @param file
+	 * @param out
+	 * @throws IOException If the file cannot be read or the output written.
+	 */
+	public void colorize( Path file, OutputStream out ) throws IOException {
+		BlumeWriter writer = new BlumeWriter( out, _OUTPUT_CAPACITY_, false );
+		
+		colorize( file, writer );
+		flush( writer );
+	}
+	
+	/**
+	 * Colors everything read from a stream.
+	 * 
+	 * @param in
+	 * @param out
+	 * @throws IOException If the input cannot be read or the output written.
+	 */
+	public void colorize( InputStream in, OutputStream out ) throws IOException {
+		colorize( Channels.newChannel( in ), out );
+	}
+	
+	/**
+	 * Colors everything read from a channel.
+	 * 
+	 * @param in
+	 * @param out
+	 * @throws IOException If the input cannot be read or the output written.
+	 */
+	public void colorize( ReadableByteChannel in, OutputStream out ) throws IOException {
+		BlumeWriter writer = new BlumeWriter( out, _OUTPUT_CAPACITY_, false );
+		
+		colorize( in, writer );
+		flush( writer );
+	}
+	
+	/**
+	 * Colors a file, memory-mapping it one region at a time. The writer
+	 * is not flushed.
+	 * 
+	 * @param file
+	 * @param writer
+	 * @throws IOException If the file cannot be read.
+	 */
+	public void colorize( Path file, BlumeWriter writer ) throws IOException {
+		try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+			long size = channel.size();
+			long position = 0;
+			
+			while ( position < size ) {
+				int length = (int) Math.min( _REGION_SIZE_, size - position );
+				MappedByteBuffer region = channel.map( FileChannel.MapMode.READ_ONLY, position, length );
+				
+				// A line cut off at the end of a region begins the next one
+				position += colorize( region, 0, length, position + length == size, writer );
+			}
+		}
+	}
+	
+	/**
+	 * Colors everything read from a channel. Each read is colored and
+	 * flushed as soon as it has complete lines, so slow streams such as
+	 * a followed log are shown as they arrive.
+	 * 
+	 * @param in
+	 * @param writer
+	 * @throws IOException If the input cannot be read.
+	 */
+	public void colorize( ReadableByteChannel in, BlumeWriter writer ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate( _BUFFER_SIZE_ );
+		
+		while ( in.read( buffer ) >= 0 ) {
+			int end = buffer.position();
+			int start = colorize( buffer, 0, end, false, writer );
+			
+			// Keep the incomplete last line for the next read
+			buffer.limit( end );
+			buffer.position( start );
+			buffer.compact();
+			
+			writer.flush();
+		}
+		
+		colorize( buffer, 0, buffer.position(), true, writer );
+	}
+	
+	/**
+	 * Colors the complete lines in a range of a buffer.
+	 * 
+	 * @param src
+	 * @param start
+	 * @param end
+	 * @param isLast Whether the range ends the input, so an incomplete
+	 * last line is colored too.
+	 * @param writer
+	 * @return Index just past the last byte colored.
+	 */
+	protected int colorize( ByteBuffer src, int start, int end, boolean isLast, BlumeWriter writer ) {
+		while ( start < end ) {
+			int limit = Math.min( start + _CHUNK_SIZE_, end );
+			
+			if ( limit < end || !isLast ) {
+				int newline = lastIndexOf( src, start, limit, (byte) '\n' );
+				
+				if ( newline >= 0 ) {
+					limit = newline + 1;
+				} else if ( limit == end && !isLast && limit - start < _CHUNK_SIZE_ ) { // Wait for the rest of the line
+					break;
+				}
+			}
+			
+			colorizeChunk( src, start, limit, writer );
+			
+			start = limit;
+		}
+		
+		return start;
+	}
+	
+	/**
+	 * Colors a range of whole lines.
+	 * 
+	 * @param src
+	 * @param start
+	 * @param end
+	 * @param writer
+	 */
+	protected void colorizeChunk( ByteBuffer src, int start, int end, BlumeWriter writer ) {
+		if ( !BlumeText.getIsANSIColor() ) {
+			src.position( start );
+			writer.writeBytes( src, end - start );
+			
+			return;
+		}
+		
+		compile();
+		
+		// Bulk copy once, since single byte reads of a mapped buffer are slow
+		int length = end - start;
+		byte[] chunk = this.chunk;
+		
+		src.position( start );
+		src.get( chunk, 0, length );
+		
+		this.spanCount = 0;
+		
+		if ( this.automaton != null ) {
+			findKeywords( chunk, length );
+		}
+		
+		if ( this.matchers.length > 0 ) {
+			this.view.set( chunk, 0, length );
+			
+			for ( int i = 0; i < this.matchers.length; i++ ) {
+				findMatches( this.matchers[i].reset( this.view ), this.matcherStarts[i], chunk, length, this.matcherStyles[i] );
+			}
+		}
+		
+		Arrays.sort( this.spans, 0, this.spanCount );
+		
+		int position = 0;
+		
+		for ( int i = 0; i < this.spanCount; i++ ) {
+			long span = this.spans[i];
+			int spanStart = (int) ( span >>> ( 2 * _SPAN_BITS_ ) );
+			int spanLength = (int) ( _SPAN_MASK_ - ( ( span >>> _SPAN_BITS_ ) & _SPAN_MASK_ ) );
+			BlumeStyle style = this.styleTable[(int) ( span & _SPAN_MASK_ )];
+			
+			if ( spanStart < position ) { // Overlaps an earlier match
+				continue;
+			}
+			
+			writer.writeBytes( chunk, position, spanStart - position );
+			writer.writeBytes( style.getPrefixBytes() );
+			writer.writeBytes( chunk, spanStart, spanLength );
+			writer.writeBytes( style.getResetBytes() );
+			
+			position = spanStart + spanLength;
+		}
+		
+		writer.writeBytes( chunk, position, length - position );
+	}
+	
+	/**
+	 * Runs the keyword automaton over a chunk, adding a span for each
+	 * keyword found.
+	 * 
+	 * @param chunk
+	 * @param length
+	 */
+	private void findKeywords( byte[] chunk, int length ) {
+		int[] transitions = this.automaton.transitions;
+		int[] matches = this.automaton.matches;
+		boolean[] starts = this.automaton.starts;
+		int state = 0;
+		
+		for ( int i = 0; i < length; i++ ) {
+			if ( state == 0 ) {
+				while ( i < length && !starts[chunk[i] & 0xFF] ) {
+					i++;
+				}
+				
+				if ( i == length ) {
+					break;
+				}
+			}
+			
+			state = transitions[( state << 8 ) | ( chunk[i] & 0xFF )];
+			
+			int match = matches[state];
+			
+			if ( match >= 0 ) {
+				int matchLength = this.automaton.lengths[match];
+				int matchStart = i + 1 - matchLength;
+				
+				if ( !this.isWholeWord || ( ( matchStart == 0 || !isWordByte( chunk[matchStart - 1] ) )
+						&& ( i + 1 == length || !isWordByte( chunk[i + 1] ) ) ) ) {
+					addSpan( matchStart, matchLength, this.automatonStyles[match] );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Finds the matches of a regular expression in a chunk, trying it
+	 * only where the byte before and the first byte could begin a match
+	 * rather than at every byte.
+	 * 
+	 * @param matcher Matcher over the chunk, with transparent bounds.
+	 * @param starts Whether a match can begin with each pair of bytes.
+	 * @param chunk
+	 * @param length
+	 * @param style Index of the style.
+	 */
+	private void findMatches( Matcher matcher, boolean[] starts, byte[] chunk, int length, int style ) {
+		int previous = '\n';
+		
+		for ( int i = 0; i < length; i++ ) {
+			int b = chunk[i] & 0xFF;
+			
+			if ( starts[( previous << 8 ) | b] ) {
+				matcher.region( i, length );
+				
+				if ( matcher.lookingAt() && matcher.end() > i ) {
+					addSpan( i, matcher.end() - i, style );
+					
+					i = matcher.end() - 1;
+					b = chunk[i] & 0xFF;
+				}
+			}
+			
+			previous = b;
+		}
+	}
+	
+	/**
+	 * Works out which pairs of bytes a match of a regular expression can
+	 * begin with the second of, by trying it on each pair alone. A match
+	 * can begin there if the expression matches or needs more input to
+	 * decide.
+	 * 
+	 * @param pattern
+	 * @return Whether a match can begin after each byte with each byte,
+	 * indexed by the two bytes.
+	 */
+	private static boolean[] getStarts( Pattern pattern ) {
+		boolean[] starts = new boolean[1 << 16];
+		
+		// Lookbehinds may depend on more than one byte before the match
+		if ( pattern.pattern().contains( "(?<=" ) || pattern.pattern().contains( "(?<!" ) ) {
+			Arrays.fill( starts, true );
+			
+			return starts;
+		}
+		
+		char[] pair = new char[2];
+		Matcher matcher = pattern.matcher( "" ).useTransparentBounds( true ).useAnchoringBounds( false );
+		
+		for ( int i = 0; i < starts.length; i++ ) {
+			pair[0] = (char) ( i >>> 8 );
+			pair[1] = (char) ( i & 0xFF );
+			
+			matcher.reset( new String( pair ) ).region( 1, 2 );
+			
+			starts[i] = matcher.lookingAt() || matcher.hitEnd();
+		}
+		
+		return starts;
+	}
+	
+	/**
+	 * Records a match.
+	 * 
+	 * @param start Start relative to the chunk.
+	 * @param length
+	 * @param style Index of the style.
+	 */
+	private void addSpan( int start, int length, int style ) {
+		if ( this.spanCount == this.spans.length ) {
+			this.spans = Arrays.copyOf( this.spans, this.spans.length * 2 );
+		}
+		
+		this.spans[this.spanCount++] = ( (long) start << ( 2 * _SPAN_BITS_ ) )
+				| ( ( _SPAN_MASK_ - length ) << _SPAN_BITS_ ) | style;
+	}
+	
+	/**
+	 * Builds the keyword automaton and matchers if any rule has changed.
+	 */
+	private void compile() {
+		if ( this.isCompiled ) {
+			return;
+		}
+		
+		this.automaton = this.keywords.isEmpty() ? null
+				: BlumeKeywords.compile( this.isIgnoreCase, this.keywords.toArray( new String[0] ) );
+		this.automatonStyles = toArray( this.keywordStyles );
+		this.matchers = new Matcher[this.patterns.size()];
+		this.matcherStyles = toArray( this.patternStyles );
+		this.styleTable = this.styles.toArray( new BlumeStyle[0] );
+		
+		this.matcherStarts = new boolean[this.matchers.length][];
+		
+		for ( int i = 0; i < this.matchers.length; i++ ) {
+			this.matchers[i] = this.patterns.get( i ).matcher( "" ).useTransparentBounds( true ).useAnchoringBounds( false );
+			this.matcherStarts[i] = getStarts( this.patterns.get( i ) );
+		}
+		
+		this.isCompiled = true;
+	}
+	
+	/**
+	 * Adds a rule's style.
+	 * 
+	 * @param style
+	 * @return Index of the style.
+	 */
+	private int addStyle( BlumeStyle style ) {
+		if ( style == null ) {
+			throw new NullPointerException( "style" );
+		}
+		
+		if ( this.styles.size() == _SPAN_MASK_ ) {
+			throw new IllegalStateException( "Too many rules." );
+		}
+		
+		this.styles.add( style );
+		this.isCompiled = false;
+		
+		return this.styles.size() - 1;
+	}
+	
+	/**
+	 * Writes out a writer's buffer, turning a write failure into an
+	 * exception.
+	 * 
+	 * @param writer
+	 * @throws IOException If the output could not be written.
+	 */
+	private static void flush( BlumeWriter writer ) throws IOException {
+		writer.flush();
+		
+		if ( writer.checkError() ) {
+			throw new IOException( "Could not write colored output." );
+		}
+	}
+	
+	/**
+	 * @param src
+	 * @param start
+	 * @param end
+	 * @param b
+	 * @return Index of the last occurrence of a byte in a range, or -1.
+	 */
+	private static int lastIndexOf( ByteBuffer src, int start, int end, byte b ) {
+		for ( int i = end - 1; i >= start; i-- ) {
+			if ( src.get( i ) == b ) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * @param b
+	 * @return True if a byte is an ASCII letter, digit or underscore.
+	 */
+	private static boolean isWordByte( byte b ) {
+		return ( b >= 'a' && b <= 'z' ) || ( b >= 'A' && b <= 'Z' ) || ( b >= '0' && b <= '9' ) || b == '_';
+	}
+	
+	/**
+	 * @param list
+	 * @return Values of a list of integers.
+	 */
+	private static int[] toArray( List<Integer> list ) {
+		int[] array = new int[list.size()];
+		
+		for ( int i = 0; i < array.length; i++ ) {
+			array[i] = list.get( i );
+		}
+		
+		return array;
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return True if keywords only match whole words.
+	 */
+	public boolean getIsWholeWord() {
+		return this.isWholeWord;
+	}
+	/**
+	 * @return True if keywords match ASCII letters of either case.
+	 */
+	public boolean getIsIgnoreCase() {
+		return this.isIgnoreCase;
+	}
+	/**
+	 * Sets whether keywords only match whole words.
+	 * 
+	 * @param _isWholeWord
+	 */
+	public void setIsWholeWord( boolean _isWholeWord ) {
+		this.isWholeWord = _isWholeWord;
+	}
+	/**
+	 * Sets whether keywords match ASCII letters of either case.
+	 * 
+	 * @param _isIgnoreCase
+	 */
+	public void setIsIgnoreCase( boolean _isIgnoreCase ) {
+		this.isIgnoreCase = _isIgnoreCase;
+		this.isCompiled = false;
+	}
+	
+	/**
+	 * View of a range of a byte array as ISO-8859-1 characters.
+	 */
+	private static final class ByteSequence implements CharSequence {
+		private byte[] bytes;
+		private int offset;
+		private int length;
+		
+		ByteSequence() {
+		}
+		
+		ByteSequence( byte[] bytes, int offset, int length ) {
+			set( bytes, offset, length );
+		}
+		
+		void set( byte[] bytes, int offset, int length ) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+		
+		@Override
+		public int length() {
+			return this.length;
+		}
+		
+		@Override
+		public char charAt( int index ) {
+			return (char) ( this.bytes[this.offset + index] & 0xFF );
+		}
+		
+		@Override
+		public CharSequence subSequence( int start, int end ) {
+			return new ByteSequence( this.bytes, this.offset + start, end - start );
+		}
+		
+		@Override
+		public String toString() {
+			return new String( this.bytes, this.offset, this.length, StandardCharsets.ISO_8859_1 );
+		}
+	}
+}
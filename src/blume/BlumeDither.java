@@ -0,0 +1,519 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeDither.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dithers 2D buffers of packed colors down to a color depth, so gradients
+ * and images reduced to the 256-color palette or the 16 basic colors show
+ * a fine pattern of neighboring palette colors instead of wide bands of
+ * the nearest one.
+ * 
+ * Ordered dithering offsets each color by an 8x8 Bayer matrix before
+ * looking up its nearest palette color. Every pixel is independent, so
+ * bands of rows are dithered in parallel on the fork/join pool the caller
+ * runs in, or else the common pool.
+ * 
+ * Floyd-Steinberg error diffusion carries each pixel's error to its
+ * right and lower neighbors, so a row can only be dithered behind the
+ * row above it. Rows are dealt in turn to one task per thread of that
+ * pool and dithered as a wavefront: each row publishes how many
+ * of its columns are done, and the row below waits, through
+ * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, only
+ * until the columns it reads are.
+ * 
+ * The result does not depend on the pool's parallelism.
+ * 
+ * Pixels are packed colors of any kind, row after row; 0 marks a pixel
+ * without color, which is left as it is. Nothing changes at 24-bit depth.
+ * 
+ * Example:
+ * <pre>
+ * BlumeDither.dither( pixels, 80, 48, BlumeText.getColorDepth(), BlumeDither.Method.FloydSteinberg );
+ * </pre>
+ */
+public final class BlumeDither {
+	/**
+	 * Number of rows dithered by one ordered dithering task.
+	 */
+	protected static final int _BAND_ROWS_ = 16;
+	/**
+	 * Number of columns of error diffusion between two updates of a row's
+	 * progress.
+	 */
+	protected static final int _CHUNK_COLUMNS_ = 32;
+	/**
+	 * Number of times a waiting row yields before it parks between checks.
+	 */
+	protected static final int _SPINS_ = 64;
+	/**
+	 * Time in nanoseconds a waiting row parks between checks.
+	 */
+	protected static final long _PARK_NANOS_ = 10000L;
+	/**
+	 * Offset range of ordered dithering at 8-bit depth, about one step of
+	 * the palette's color cube.
+	 */
+	protected static final int _SPREAD_8_BIT_ = 40;
+	/**
+	 * Offset range of ordered dithering at basic depth.
+	 */
+	protected static final int _SPREAD_BASIC_ = 128;
+	/**
+	 * 8x8 Bayer threshold matrix, row after row, with values 0 to 63.
+	 */
+	protected static final int[] _BAYER_ = {
+		0, 32, 8, 40, 2, 34, 10, 42,
+		48, 16, 56, 24, 50, 18, 58, 26,
+		12, 44, 4, 36, 14, 46, 6, 38,
+		60, 28, 52, 20, 62, 30, 54, 22,
+		3, 35, 11, 43, 1, 33, 9, 41,
+		51, 19, 59, 27, 49, 17, 57, 25,
+		15, 47, 7, 39, 13, 45, 5, 37,
+		63, 31, 55, 23, 61, 29, 53, 21
+	};
+	
+	/**
+	 * Dithering methods.
+	 */
+	public enum Method {
+		/**
+		 * Nearest palette color of each pixel, without dithering.
+		 */
+		None,
+		/**
+		 * Ordered dithering by a Bayer matrix.
+		 */
+		Ordered,
+		/**
+		 * Floyd-Steinberg error diffusion.
+		 */
+		FloydSteinberg
+	}
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeDither() {
+	}
+	
+	/**
+	 * Dithers a buffer of packed colors in place.
+	 * 
+	 * @param packed Pixels row after row, at least width * height.
+	 * @param width
+	 * @param height
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 * @param method
+	 */
+	public static void dither( int[] packed, int width, int height, int depth, Method method ) {
+		switch ( method ) {
+			case Ordered:
+				ordered( packed, width, height, depth );
+				break;
+			case FloydSteinberg:
+				diffuse( packed, width, height, depth );
+				break;
+			default:
+				check( packed, width, height );
+				
+				for ( int i = 0; i < width * height; i++ ) {
+					packed[i] = BlumeQuantizer.quantize( packed[i], depth );
+				}
+		}
+	}
+	
+	/**
+	 * Dithers a buffer of packed colors in place by a Bayer matrix.
+	 * 
+	 * @param packed Pixels row after row, at least width * height.
+	 * @param width
+	 * @param height
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 */
+	public static void ordered( int[] packed, int width, int height, int depth ) {
+		check( packed, width, height );
+		
+		if ( depth >= BlumeText._DEPTH_24_BIT_ ) {
+			return;
+		}
+		
+		if ( height <= _BAND_ROWS_ ) {
+			new OrderedBand( packed, width, 0, height, depth ).compute();
+			
+			return;
+		}
+		
+		List<OrderedBand> bands = new ArrayList<OrderedBand>();
+		
+		for ( int row = 0; row < height; row += _BAND_ROWS_ ) {
+			bands.add( new OrderedBand( packed, width, row, Math.min( row + _BAND_ROWS_, height ), depth ) );
+		}
+		
+		ForkJoinTask.invokeAll( bands );
+	}
+	
+	/**
+	 * Dithers a buffer of packed colors in place by Floyd-Steinberg error
+	 * diffusion.
+	 * 
+	 * @param packed Pixels row after row, at least width * height.
+	 * @param width
+	 * @param height
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 */
+	public static void diffuse( int[] packed, int width, int height, int depth ) {
+		check( packed, width, height );
+		
+		if ( depth >= BlumeText._DEPTH_24_BIT_ || width == 0 || height == 0 ) {
+			return;
+		}
+		
+		int lanes = Math.max( 1, Math.min( height / 2, getParallelism() ) );
+		Diffusion diffusion = new Diffusion( packed, width, height, depth, lanes );
+		
+		if ( lanes == 1 ) {
+			new Lane( diffusion, 0 ).compute();
+			
+			return;
+		}
+		
+		List<Lane> tasks = new ArrayList<Lane>();
+		
+		for ( int lane = 0; lane < lanes; lane++ ) {
+			tasks.add( new Lane( diffusion, lane ) );
+		}
+		
+		ForkJoinTask.invokeAll( tasks );
+	}
+	
+	/**
+	 * @return Parallelism of the fork/join pool the caller runs in, or of
+	 * the common pool.
+	 */
+	private static int getParallelism() {
+		ForkJoinPool pool = ForkJoinTask.getPool();
+		
+		return ( pool != null ) ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+	}
+	
+	/**
+	 * Checks that a buffer holds every pixel.
+	 * 
+	 * @param packed
+	 * @param width
+	 * @param height
+	 */
+	private static void check( int[] packed, int width, int height ) {
+		if ( width < 0 || height < 0 || (long) width * height > packed.length ) {
+			throw new IllegalArgumentException( "Blume cannot dither " + width + "x" + height + " pixels in a buffer of "
+					+ packed.length + "." );
+		}
+	}
+	
+	/**
+	 * Gets the palette color nearest to a color, clipping its channels.
+	 * 
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @param depth
+	 * @return Packed 8-bit or basic color.
+	 */
+	private static int nearest( int r, int g, int b, int depth ) {
+		return BlumeQuantizer.quantize( BlumeColor.pack24Bit( clip( r ), clip( g ), clip( b ) ), depth );
+	}
+	
+	/**
+	 * Clips a channel to 0 to 255.
+	 * 
+	 * @param c
+	 * @return Clipped channel.
+	 */
+	private static int clip( int c ) {
+		return ( c < 0 ) ? 0 : ( c > 255 ) ? 255 : c;
+	}
+	
+	/**
+	 * Task which dithers a band of rows by the Bayer matrix.
+	 */
+	private static final class OrderedBand extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] packed;
+		private final int width;
+		private final int firstRow;
+		private final int endRow;
+		private final int depth;
+		
+		OrderedBand( int[] packed, int width, int firstRow, int endRow, int depth ) {
+			this.packed = packed;
+			this.width = width;
+			this.firstRow = firstRow;
+			this.endRow = endRow;
+			this.depth = depth;
+		}
+		
+		@Override
+		protected void compute() {
+			int spread = ( this.depth >= BlumeText._DEPTH_8_BIT_ ) ? _SPREAD_8_BIT_ : _SPREAD_BASIC_;
+			
+			for ( int y = this.firstRow; y < this.endRow; y++ ) {
+				int line = y * this.width;
+				int matrixRow = ( y & 7 ) << 3;
+				
+				for ( int x = 0; x < this.width; x++ ) {
+					int color = this.packed[line + x];
+					
+					if ( color == 0 ) {
+						continue;
+					}
+					
+					// Threshold centered on 0, from -spread / 2 to spread / 2
+					int offset = spread * ( 2 * _BAYER_[matrixRow + ( x & 7 )] + 1 - 64 ) / 128;
+					int rgb = BlumeColor.toRGB( color );
+					
+					this.packed[line + x] = nearest( ( ( rgb >> 16 ) & 0xFF ) + offset, ( ( rgb >> 8 ) & 0xFF ) + offset,
+							( rgb & 0xFF ) + offset, this.depth );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * State shared by the tasks of one error diffusion.
+	 */
+	private static final class Diffusion {
+		final int[] packed;
+		final int width;
+		final int height;
+		final int depth;
+		final int lanes;
+		/**
+		 * Number of columns of each row which are done.
+		 */
+		final AtomicIntegerArray progress;
+		/**
+		 * Error carried into a row, in sixteenths, three channels per column
+		 * and a column of padding at each end. Row y reads buffer
+		 * y % errors.length and writes the next, so a buffer is only reused
+		 * once the lane which reads it comes back around.
+		 */
+		final int[][] errors;
+		
+		Diffusion( int[] packed, int width, int height, int depth, int lanes ) {
+			this.packed = packed;
+			this.width = width;
+			this.height = height;
+			this.depth = depth;
+			this.lanes = lanes;
+			this.progress = new AtomicIntegerArray( height );
+			this.errors = new int[lanes + 1][3 * ( width + 2 )];
+		}
+	}
+	
+	/**
+	 * Task which diffuses the error of every lanes-th row, starting from
+	 * its own.
+	 */
+	private static final class Lane extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final Diffusion diffusion;
+		private final int firstRow;
+		
+		Lane( Diffusion diffusion, int firstRow ) {
+			this.diffusion = diffusion;
+			this.firstRow = firstRow;
+		}
+		
+		@Override
+		protected void compute() {
+			for ( int y = this.firstRow; y < this.diffusion.height; y += this.diffusion.lanes ) {
+				diffuseRow( y );
+			}
+		}
+		
+		/**
+		 * Dithers one row, reading the error the row above carried into it
+		 * and carrying its own into the row below.
+		 * 
+		 * @param y
+		 */
+		private void diffuseRow( int y ) {
+			Diffusion d = this.diffusion;
+			int[] in = d.errors[y % d.errors.length];
+			int[] out = d.errors[( y + 1 ) % d.errors.length];
+			int line = y * d.width;
+			// Error carried right from the previous pixel, in sixteenths
+			int er = 0;
+			int eg = 0;
+			int eb = 0;
+			
+			for ( int x = 0; x < d.width; x++ ) {
+				if ( x % _CHUNK_COLUMNS_ == 0 ) {
+					if ( x > 0 ) {
+						d.progress.lazySet( y, x );
+					}
+					
+					// Pixel x of the row above carries error as far as pixel x - 1 of this row
+					if ( y > 0 ) {
+						awaitRow( y - 1, Math.min( d.width, x + _CHUNK_COLUMNS_ + 1 ) );
+					}
+				}
+				
+				int slot = 3 * ( x + 1 );
+				int r = er + in[slot];
+				int g = eg + in[slot + 1];
+				int b = eb + in[slot + 2];
+				
+				// Consumed, so the buffer is clear when it comes around again
+				in[slot] = 0;
+				in[slot + 1] = 0;
+				in[slot + 2] = 0;
+				
+				int color = d.packed[line + x];
+				
+				if ( color == 0 ) {
+					er = 0;
+					eg = 0;
+					eb = 0;
+					
+					continue;
+				}
+				
+				int rgb = BlumeColor.toRGB( color );
+				
+				r = clip( ( ( rgb >> 16 ) & 0xFF ) + ( ( r + 8 ) >> 4 ) );
+				g = clip( ( ( rgb >> 8 ) & 0xFF ) + ( ( g + 8 ) >> 4 ) );
+				b = clip( ( rgb & 0xFF ) + ( ( b + 8 ) >> 4 ) );
+				
+				int chosen = nearest( r, g, b, d.depth );
+				int chosenRGB = BlumeColor.toRGB( chosen );
+				
+				d.packed[line + x] = chosen;
+				
+				r -= ( chosenRGB >> 16 ) & 0xFF;
+				g -= ( chosenRGB >> 8 ) & 0xFF;
+				b -= chosenRGB & 0xFF;
+				
+				er = 7 * r;
+				eg = 7 * g;
+				eb = 7 * b;
+				
+				// 3/16 below left, 5/16 below and 1/16 below right
+				out[slot - 3] += 3 * r;
+				out[slot - 2] += 3 * g;
+				out[slot - 1] += 3 * b;
+				out[slot] += 5 * r;
+				out[slot + 1] += 5 * g;
+				out[slot + 2] += 5 * b;
+				out[slot + 3] += r;
+				out[slot + 4] += g;
+				out[slot + 5] += b;
+			}
+			
+			d.progress.set( y, d.width );
+		}
+		
+		/**
+		 * Waits until a row has done a number of columns, letting the pool
+		 * start another thread while this one waits.
+		 * 
+		 * @param row
+		 * @param columns
+		 */
+		private void awaitRow( int row, int columns ) {
+			RowBlocker blocker = new RowBlocker( this.diffusion.progress, row, columns );
+			boolean isInterrupted = false;
+			
+			while ( !blocker.isReleasable() ) {
+				try {
+					ForkJoinPool.managedBlock( blocker );
+				} catch ( InterruptedException e ) {
+					// The row above is still needed, so keep waiting
+					isInterrupted = true;
+				}
+			}
+			
+			if ( isInterrupted ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Blocker which waits for a row's progress.
+	 */
+	private static final class RowBlocker implements ForkJoinPool.ManagedBlocker {
+		private final AtomicIntegerArray progress;
+		private final int row;
+		private final int columns;
+		
+		RowBlocker( AtomicIntegerArray progress, int row, int columns ) {
+			this.progress = progress;
+			this.row = row;
+			this.columns = columns;
+		}
+		
+		@Override
+		public boolean isReleasable() {
+			return this.progress.get( this.row ) >= this.columns;
+		}
+		
+		@Override
+		public boolean block() throws InterruptedException {
+			for ( int spins = 0; !isReleasable(); spins++ ) {
+				if ( Thread.interrupted() ) {
+					throw new InterruptedException();
+				}
+				
+				if ( spins < _SPINS_ ) {
+					Thread.yield();
+				} else {
+					LockSupport.parkNanos( this, _PARK_NANOS_ );
+				}
+			}
+			
+			return true;
+		}
+	}
+}
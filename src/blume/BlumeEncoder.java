@@ -0,0 +1,520 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeEncoder.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * Allocation-free encoder for Blume's ANSI escape sequences.
+ * 
+ * Every method writes ASCII bytes into a caller-supplied array starting at
+ * an offset and returns the offset just past what it wrote. Color channel
+ * and palette values from 0 to 255 are copied from a precomputed table
+ * instead of being formatted, so encoding a complete 8- or 24-bit
+ * foreground and background prefix does no arithmetic on digits and
+ * allocates nothing.
+ * 
+ * The parameters of every 8-bit foreground and background color, e.g.,
+ * 38;5;144, and the start of a prefix with each single digit display
+ * attribute, e.g., ESC [ 1, are built once, the first time they are
+ * needed. An 8-bit prefix is then assembled from a few array copies.
+ * 
+ * Callers without a buffer of their own can borrow the calling thread's
+ * scratch buffer from {@link #getScratch()}. Virtual threads, which may
+ * number in the hundreds of thousands, are given a new buffer each time
+ * instead of keeping one.
+ */
+public final class BlumeEncoder {
+	/**
+	 * Size in bytes of each thread's scratch buffer.
+	 */
+	public static final int _SCRATCH_SIZE_ = 1024;
+	/**
+	 * Longest possible escape sequence for an 8- or 24-bit foreground and
+	 * background without any display attributes, allowing for channel
+	 * values outside of 0 to 255: ESC [ 38;2;r;g;b ; 48;2;r;g;b m
+	 */
+	protected static final int _MAX_COLOR_PREFIX_LENGTH_ = 2 + ( 5 + 3 * 11 + 2 ) * 2 + 1 + 1;
+	/**
+	 * ASCII digits of the values 0 to 255 in groups of four bytes: the number
+	 * of digits followed by the digits themselves.
+	 */
+	protected static final byte[] _DIGITS_ = new byte[256 * 4];
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_PREFIX_}.
+	 */
+	protected static final byte[] _PREFIX_ = ascii( ANSI._PREFIX_ );
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_RESET_}.
+	 */
+	protected static final byte[] _RESET_ = ascii( ANSI._RESET_ );
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_8_BIT_FOREGROUND_}.
+	 */
+	protected static final byte[] _8_BIT_FOREGROUND_ = ascii( ANSI._8_BIT_FOREGROUND_ );
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_8_BIT_BACKGROUND_}.
+	 */
+	protected static final byte[] _8_BIT_BACKGROUND_ = ascii( ANSI._8_BIT_BACKGROUND_ );
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_24_BIT_FOREGROUND_}.
+	 */
+	protected static final byte[] _24_BIT_FOREGROUND_ = ascii( ANSI._24_BIT_FOREGROUND_ );
+	/**
+	 * ASCII bytes of {@link blume.ANSI#_24_BIT_BACKGROUND_}.
+	 */
+	protected static final byte[] _24_BIT_BACKGROUND_ = ascii( ANSI._24_BIT_BACKGROUND_ );
+	/**
+	 * Thread.isVirtual(), or null on Java versions without virtual threads.
+	 */
+	private static final MethodHandle _IS_VIRTUAL_ = findIsVirtual();
+	/**
+	 * Scratch buffer of each platform thread.
+	 */
+	private static final ThreadLocal<byte[]> _scratch = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[_SCRATCH_SIZE_];
+		}
+	};
+	
+	static {
+		for ( int i = 0; i < 256; i++ ) {
+			byte[] digits = ascii( Integer.toString( i ) );
+			
+			_DIGITS_[i * 4] = (byte) digits.length;
+			System.arraycopy( digits, 0, _DIGITS_, i * 4 + 1, digits.length );
+		}
+	}
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeEncoder() {
+	}
+	
+	/**
+	 * Encoded fragments of 8-bit colors and display attributes, built on
+	 * first use.
+	 */
+	private static final class Fragments {
+		/**
+		 * Parameters of each 8-bit foreground color, e.g., 38;5;144.
+		 */
+		static final byte[][] _8_BIT_FOREGROUNDS_ = build8Bit( _8_BIT_FOREGROUND_ );
+		/**
+		 * Parameters of each 8-bit background color, e.g., 48;5;16.
+		 */
+		static final byte[][] _8_BIT_BACKGROUNDS_ = build8Bit( _8_BIT_BACKGROUND_ );
+		/**
+		 * Start of an escape sequence with each single digit display
+		 * attribute, e.g., ESC [ 1 for bold.
+		 */
+		static final byte[][] _ATTRIBUTE_PREFIXES_ = buildAttributePrefixes();
+		
+		/**
+		 * Builds the parameters of every 8-bit color.
+		 * 
+		 * @param selector Foreground or background selector, e.g., 38;5;.
+		 * @return Parameters of each palette value.
+		 */
+		private static byte[][] build8Bit( byte[] selector ) {
+			byte[][] fragments = new byte[256][];
+			byte[] bytes = new byte[selector.length + 3];
+			
+			for ( int i = 0; i < 256; i++ ) {
+				int length = encodeDecimal( bytes, encodeBytes( bytes, 0, selector ), i );
+				
+				fragments[i] = Arrays.copyOf( bytes, length );
+			}
+			
+			return fragments;
+		}
+		
+		/**
+		 * Builds the start of an escape sequence with each digit.
+		 * 
+		 * @return Prefix and digit of each digit.
+		 */
+		private static byte[][] buildAttributePrefixes() {
+			byte[][] fragments = new byte[10][];
+			
+			for ( int i = 0; i < 10; i++ ) {
+				fragments[i] = ascii( ANSI._PREFIX_ + i );
+			}
+			
+			return fragments;
+		}
+	}
+	
+	/**
+	 * Gets the calling thread's scratch buffer of {@link #_SCRATCH_SIZE_}
+	 * bytes. Its contents are only valid until the thread next uses it.
+	 * A virtual thread gets a new buffer on every call.
+	 * 
+	 * @return Scratch buffer of the calling thread.
+	 */
+	public static byte[] getScratch() {
+		if ( isVirtualThread() ) {
+			return new byte[_SCRATCH_SIZE_];
+		}
+		
+		return _scratch.get();
+	}
+	
+	/**
+	 * Checks whether the calling thread is a virtual thread, which should
+	 * not keep per-thread buffers.
+	 * 
+	 * @return False on Java versions without virtual threads.
+	 */
+	protected static boolean isVirtualThread() {
+		if ( _IS_VIRTUAL_ == null ) {
+			return false;
+		}
+		
+		try {
+			return (boolean) _IS_VIRTUAL_.invokeExact( Thread.currentThread() );
+		} catch ( Throwable e ) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Looks up Thread.isVirtual(), which only exists from Java 21 on.
+	 * 
+	 * @return Method handle, or null if there is no such method.
+	 */
+	private static MethodHandle findIsVirtual() {
+		try {
+			return MethodHandles.publicLookup().findVirtual( Thread.class, "isVirtual", MethodType.methodType( boolean.class ) );
+		} catch ( ReflectiveOperationException e ) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Gets the most bytes {@link #encodePrefix(byte[], int, String[], BlumeColor, BlumeColor)}
+	 * can write for a set of display attributes.
+	 * 
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @return Upper bound of the prefix length in bytes.
+	 */
+	public static int getMaxPrefixLength( String[] attrs ) {
+		int length = _MAX_COLOR_PREFIX_LENGTH_;
+		
+		if ( attrs != null ) {
+			for ( String attr : attrs ) {
+				length += attr.length() + 1;
+			}
+		}
+		
+		return length;
+	}
+	
+	/**
+	 * Encodes a complete escape sequence for display attributes and
+	 * foreground and background colors. Nothing is written if there are
+	 * no attributes and no colors.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @param fg Foreground color, or null for none.
+	 * @param bg Background color, or null for none.
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodePrefix( byte[] dst, int offset, String[] attrs, BlumeColor fg, BlumeColor bg ) {
+		return encodePrefix( dst, offset, attrs, ( fg != null ) ? fg.getPacked() : 0, ( bg != null ) ? bg.getPacked() : 0 );
+	}
+	
+	/**
+	 * Encodes a complete escape sequence for display attributes and
+	 * packed foreground and background colors. Nothing is written if there
+	 * are no attributes and no colors.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @param fg Packed foreground color, or 0 for none.
+	 * @param bg Packed background color, or 0 for none.
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodePrefix( byte[] dst, int offset, String[] attrs, int fg, int bg ) {
+		return encodePrefix( dst, offset, attrs, fg, bg, BlumeText.getColorDepth() );
+	}
+	
+	/**
+	 * Encodes a complete escape sequence for display attributes and
+	 * packed foreground and background colors reduced to a given color
+	 * depth rather than the current one.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @param fg Packed foreground color, or 0 for none.
+	 * @param bg Packed background color, or 0 for none.
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodePrefix( byte[] dst, int offset, String[] attrs, int fg, int bg, int depth ) {
+		int start = offset;
+		int first = 0;
+		
+		if ( attrs != null && attrs.length > 0 && isDigit( attrs[0] ) ) {
+			// The prefix and a display attribute such as bold in one copy
+			offset = encodeBytes( dst, offset, Fragments._ATTRIBUTE_PREFIXES_[attrs[0].charAt( 0 ) - '0'] );
+			first = 1;
+		} else {
+			offset = encodeBytes( dst, offset, _PREFIX_ );
+		}
+		
+		int body = start + _PREFIX_.length;
+		
+		if ( attrs != null ) {
+			for ( int i = first; i < attrs.length; i++ ) {
+				if ( offset != body ) {
+					dst[offset++] = ANSI._DELIM_;
+				}
+				
+				offset = encodeASCII( dst, offset, attrs[i] );
+			}
+		}
+		
+		if ( fg != 0 ) {
+			if ( offset != body ) {
+				dst[offset++] = ANSI._DELIM_;
+			}
+			
+			offset = encodeColor( dst, offset, fg, false, depth );
+		}
+		
+		if ( bg != 0 ) {
+			if ( offset != body ) {
+				dst[offset++] = ANSI._DELIM_;
+			}
+			
+			offset = encodeColor( dst, offset, bg, true, depth );
+		}
+		
+		if ( offset == body ) { // Nothing to apply
+			return start;
+		}
+		
+		dst[offset++] = ANSI._TERMINATOR_;
+		
+		return offset;
+	}
+	
+	/**
+	 * Encodes the parameters of an 8- or 24-bit color, e.g., 38;5;144
+	 * or 48;2;255;0;0, without the surrounding prefix and terminator.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param color
+	 * @param isBackground
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeColor( byte[] dst, int offset, BlumeColor color, boolean isBackground ) {
+		return encodeColor( dst, offset, color.getPacked(), isBackground );
+	}
+	
+	/**
+	 * Encodes the parameters of a packed 8- or 24-bit (or basic) color,
+	 * first reduced to the current color depth.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param packed
+	 * @param isBackground
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeColor( byte[] dst, int offset, int packed, boolean isBackground ) {
+		return encodeColor( dst, offset, packed, isBackground, BlumeText.getColorDepth() );
+	}
+	
+	/**
+	 * Encodes the parameters of a packed 8- or 24-bit (or basic) color,
+	 * first reduced to a given color depth rather than the current one.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param packed
+	 * @param isBackground
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeColor( byte[] dst, int offset, int packed, boolean isBackground, int depth ) {
+		packed = BlumeQuantizer.quantize( packed, depth );
+		
+		if ( BlumeColor.isPacked8Bit( packed ) ) { // 8-bit color
+			byte[][] fragments = isBackground ? Fragments._8_BIT_BACKGROUNDS_ : Fragments._8_BIT_FOREGROUNDS_;
+			
+			offset = encodeBytes( dst, offset, fragments[BlumeColor.unpackColorValue( packed )] );
+		} else if ( BlumeColor.isPacked24Bit( packed ) ) { // 24-bit color
+			offset = encodeBytes( dst, offset, isBackground ? _24_BIT_BACKGROUND_ : _24_BIT_FOREGROUND_ );
+			offset = encodeDecimal( dst, offset, BlumeColor.unpackRed( packed ) );
+			dst[offset++] = ANSI._DELIM_;
+			offset = encodeDecimal( dst, offset, BlumeColor.unpackGreen( packed ) );
+			dst[offset++] = ANSI._DELIM_;
+			offset = encodeDecimal( dst, offset, BlumeColor.unpackBlue( packed ) );
+		} else if ( BlumeColor.isPackedBasic( packed ) ) { // Basic color
+			int index = BlumeColor.unpackColorValue( packed );
+			int code = ( index < 8 ) ? 30 + index : 90 + index - 8;
+			
+			offset = encodeDecimal( dst, offset, isBackground ? code + 10 : code );
+		}
+		
+		return offset;
+	}
+	
+	/**
+	 * Encodes the escape sequence which resets text color and effects.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeReset( byte[] dst, int offset ) {
+		return encodeBytes( dst, offset, _RESET_ );
+	}
+	
+	/**
+	 * Encodes an integer as ASCII decimal digits. Values from 0 to 255 are
+	 * copied from the precomputed table.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param value
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeDecimal( byte[] dst, int offset, int value ) {
+		if ( ( value & ~0xFF ) == 0 ) {
+			int base = value << 2;
+			int length = _DIGITS_[base];
+			
+			dst[offset] = _DIGITS_[base + 1];
+			
+			if ( length > 1 ) {
+				dst[offset + 1] = _DIGITS_[base + 2];
+				
+				if ( length > 2 ) {
+					dst[offset + 2] = _DIGITS_[base + 3];
+				}
+			}
+			
+			return offset + length;
+		}
+		
+		// Out of the color range, so format the value the long way
+		long number = value;
+		
+		if ( number < 0 ) {
+			dst[offset++] = '-';
+			number = -number;
+		}
+		
+		int digits = 1;
+		for ( long i = number; i >= 10; i /= 10 ) {
+			digits++;
+		}
+		
+		for ( int i = offset + digits - 1; i >= offset; i-- ) {
+			dst[i] = (byte) ( '0' + number % 10 );
+			number /= 10;
+		}
+		
+		return offset + digits;
+	}
+	
+	/**
+	 * Encodes a string known to contain only ASCII characters.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param ascii
+	 * @return Offset just past the encoded bytes.
+	 */
+	public static int encodeASCII( byte[] dst, int offset, String ascii ) {
+		int length = ascii.length();
+		
+		for ( int i = 0; i < length; i++ ) {
+			dst[offset++] = (byte) ascii.charAt( i );
+		}
+		
+		return offset;
+	}
+	
+	/**
+	 * Copies already encoded bytes.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param bytes
+	 * @return Offset just past the copied bytes.
+	 */
+	public static int encodeBytes( byte[] dst, int offset, byte[] bytes ) {
+		System.arraycopy( bytes, 0, dst, offset, bytes.length );
+		
+		return offset + bytes.length;
+	}
+	
+	/**
+	 * Checks whether a display attribute is a single digit.
+	 * 
+	 * @param attr
+	 * @return True if the attribute is one digit.
+	 */
+	private static boolean isDigit( String attr ) {
+		return attr.length() == 1 && attr.charAt( 0 ) >= '0' && attr.charAt( 0 ) <= '9';
+	}
+	
+	/**
+	 * Converts a string known to contain only ASCII characters to bytes.
+	 * 
+	 * @param ascii
+	 * @return ASCII bytes.
+	 */
+	protected static byte[] ascii( String ascii ) {
+		byte[] bytes = new byte[ascii.length()];
+		
+		encodeASCII( bytes, 0, ascii );
+		
+		return bytes;
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeGradient.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Color gradient calculations for Blume's gradient printing.
+ * 
+ * A gradient is a list of red, green and blue color stops (0xRRGGBB) spaced
+ * evenly from the first position to the last. Colors between two stops are
+ * interpolated linearly per channel and returned as packed 24-bit colors
+ * (see {@link blume.BlumeColor#pack24Bit(int)}).
+ */
+public final class BlumeGradient {
+	/**
+	 * Static methods only.
+	 */
+	private BlumeGradient() {
+	}
+	
+	/**
+	 * Gets the color stops of a gradient which runs from one color to
+	 * another and then on through any further stops in order. 8-bit colors
+	 * are converted with the standard xterm palette.
+	 * 
+	 * @param from
+	 * @param to
+	 * @param stops
+	 * @return Color stops as 0xRRGGBB.
+	 */
+	public static int[] getStops( BlumeColor from, BlumeColor to, BlumeColor... stops ) {
+		int[] rgbs = new int[2 + stops.length];
+		
+		rgbs[0] = from.toRGB();
+		rgbs[1] = to.toRGB();
+		
+		for ( int i = 0; i < stops.length; i++ ) {
+			rgbs[2 + i] = stops[i].toRGB();
+		}
+		
+		return rgbs;
+	}
+	
+	/**
+	 * Gets the color at one of a number of evenly spaced positions along
+	 * a gradient.
+	 * 
+	 * @param rgbs Color stops as 0xRRGGBB.
+	 * @param index Position from 0 to count - 1.
+	 * @param count Number of positions.
+	 * @return Packed 24-bit color.
+	 */
+	public static int colorAt( int[] rgbs, int index, int count ) {
+		int segments = rgbs.length - 1;
+		
+		if ( count <= 1 || segments == 0 ) {
+			return BlumeColor.pack24Bit( rgbs[0] );
+		}
+		
+		// Position along the gradient in units of 1 / ( count - 1 ) of a segment
+		int last = count - 1;
+		long position = (long) index * segments;
+		int segment = (int) ( position / last );
+		
+		if ( segment >= segments ) {
+			return BlumeColor.pack24Bit( rgbs[segments] );
+		}
+		
+		int fraction = (int) ( position % last );
+		int a = rgbs[segment];
+		int b = rgbs[segment + 1];
+		
+		return BlumeColor.pack24Bit( mix( a >> 16, b >> 16, fraction, last ),
+				mix( a >> 8, b >> 8, fraction, last ),
+				mix( a, b, fraction, last ) );
+	}
+	
+	/**
+	 * Fills an array with the packed colors of a gradient spread over its
+	 * whole length.
+	 * 
+	 * @param packed
+	 * @param offset
+	 * @param length
+	 * @param rgbs Color stops as 0xRRGGBB.
+	 */
+	public static void fill( int[] packed, int offset, int length, int[] rgbs ) {
+		for ( int i = 0; i < length; i++ ) {
+			packed[offset + i] = colorAt( rgbs, i, length );
+		}
+	}
+	
+	/**
+	 * Interpolates one 8-bit channel with rounding.
+	 * 
+	 * @param a Channel of the first color in the low 8 bits.
+	 * @param b Channel of the second color in the low 8 bits.
+	 * @param fraction
+	 * @param whole
+	 * @return Interpolated channel.
+	 */
+	private static int mix( int a, int b, int fraction, int whole ) {
+		a &= 0xFF;
+		b &= 0xFF;
+		
+		// In long, since ( b - a ) * fraction * 2 overflows an int once fraction passes about 4 million
+		return a + (int) ( ( ( b - a ) * 2L * fraction + ( b >= a ? whole : -whole ) ) / ( 2L * whole ) );
+	}
+}
@@ -0,0 +1,442 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeImage.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders images in the terminal with two pixels per character cell: the
+ * upper half block glyph in the top pixel's foreground color over the
+ * bottom pixel's background color.
+ * 
+ * The image is resampled to the requested number of columns by averaging
+ * the pixels under each cell, keeping its proportions. Rows of cells are
+ * split into bands which are resampled and encoded in parallel on the
+ * common fork/join pool, then written in order in one write. Within a row
+ * a color's escape code is only written when it changes, and a cell whose
+ * two pixels match is written as a space in its background color.
+ * 
+ * Colors are reduced to the current color depth
+ * ({@link blume.BlumeText#getColorDepth()}), e.g., to the 256-color palette,
+ * each to its nearest palette color or dithered by the method set with
+ * {@link #setDither(BlumeDither.Method)}. Dithering resamples the whole
+ * image first, so the error of one band carries into the next.
+ * 
+ * Example:
+ * <pre>
+ * BlumeImage.print( new File( "chart.png" ), 80 );
+ * </pre>
+ */
+public final class BlumeImage {
+	/**
+	 * Number of rows of cells encoded by one task.
+	 */
+	protected static final int _BAND_ROWS_ = 8;
+	/**
+	 * UTF-8 bytes of the upper half block glyph (U+2580).
+	 */
+	protected static final byte[] _UPPER_HALF_ = { (byte) 0xE2, (byte) 0x96, (byte) 0x80 };
+	/**
+	 * Longest possible encoding of one cell: a foreground and background
+	 * color change and the glyph.
+	 */
+	protected static final int _MAX_CELL_LENGTH_ = BlumeEncoder._MAX_COLOR_PREFIX_LENGTH_ + 3;
+	
+	/**
+	 * Method colors are dithered by when reduced to a palette.
+	 */
+	protected static volatile BlumeDither.Method _dither = BlumeDither.Method.None;
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeImage() {
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * Sets the method colors are dithered by when images are reduced to
+	 * the 256-color palette or the basic colors.
+	 * 
+	 * @param dither
+	 */
+	public static void setDither( BlumeDither.Method dither ) {
+		if ( dither == null ) {
+			throw new NullPointerException( "Blume requires a dithering method." );
+		}
+		
+		_dither = dither;
+	}
+	/**
+	 * @return Method colors are dithered by when reduced to a palette.
+	 */
+	public static BlumeDither.Method getDither() {
+		return _dither;
+	}
+	
+	/**
+	 * Reads an image file with ImageIO and prints it.
+	 * 
+	 * @param file PNG, JPEG or any other format ImageIO reads.
+	 * @param columns Width in character cells.
+	 * @throws IOException If the file cannot be read or decoded.
+	 */
+	public static void print( File file, int columns ) throws IOException {
+		BufferedImage image = ImageIO.read( file );
+		
+		if ( image == null ) {
+			throw new IOException( "Unsupported image format: " + file );
+		}
+		
+		print( image, columns );
+	}
+	
+	/**
+	 * Prints an image, ending with a new line. Nothing is printed when the
+	 * terminal does not take color.
+	 * 
+	 * Note: This method is only compatible with consoles which support
+	 * ANSI escape sequence coloring.
+	 * 
+	 * @param image
+	 * @param columns Width in character cells.
+	 */
+	public static void print( BufferedImage image, int columns ) {
+		if ( !BlumeText.getIsColor() ) {
+			return;
+		}
+		
+		if ( BlumeText.getIsWin32() ) {
+			try {
+				throw new OSIncompatibilityException();
+			} catch ( OSIncompatibilityException e ) {
+				e.printStackTrace( "BlumeColor is not compatible with Win32 consoles." );
+				
+				return;
+			}
+		}
+		
+		byte[] bytes = encode( image, columns, BlumeText.getColorDepth() );
+		PrintStream out = Blume.getOut();
+		
+		out.write( bytes, 0, bytes.length );
+		out.flush();
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordWrite( bytes, 0, bytes.length );
+			BlumeMetrics.recordFlush();
+		}
+	}
+	
+	/**
+	 * Encodes an image as rows of half block cells, each row ending with a
+	 * reset and a new line, dithered by the method set with
+	 * {@link #setDither(BlumeDither.Method)}.
+	 * 
+	 * @param image
+	 * @param columns Width in character cells.
+	 * @param depth Color depth the colors are reduced to.
+	 * @return Encoded image.
+	 */
+	public static byte[] encode( BufferedImage image, int columns, int depth ) {
+		return encode( image, columns, depth, _dither );
+	}
+	
+	/**
+	 * Encodes an image as rows of half block cells, each row ending with a
+	 * reset and a new line.
+	 * 
+	 * @param image
+	 * @param columns Width in character cells.
+	 * @param depth Color depth the colors are reduced to.
+	 * @param dither Method the colors are dithered by.
+	 * @return Encoded image.
+	 */
+	public static byte[] encode( BufferedImage image, int columns, int depth, BlumeDither.Method dither ) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		
+		if ( columns <= 0 || width == 0 || height == 0 ) {
+			return new byte[0];
+		}
+		
+		// Half blocks make each pixel about square, so keep the proportions in pixels
+		int pixelRows = Math.max( 1, (int) Math.round( (double) height * columns / width ) );
+		int rows = ( pixelRows + 1 ) / 2;
+		int[] source = image.getRGB( 0, 0, width, height, null, 0, width );
+		int[] pixels = null;
+		
+		if ( dither != BlumeDither.Method.None && depth < BlumeText._DEPTH_24_BIT_ ) {
+			// Resample every band in full color, then dither the whole image
+			List<Band> resamples = new ArrayList<Band>();
+			
+			pixels = new int[pixelRows * columns];
+			
+			for ( int row = 0; row < rows; row += _BAND_ROWS_ ) {
+				resamples.add( new Band( source, width, height, columns, pixelRows, row, Math.min( row + _BAND_ROWS_, rows ),
+						BlumeText._DEPTH_24_BIT_, pixels, true ) );
+			}
+			
+			ForkJoinTask.invokeAll( resamples );
+			BlumeDither.dither( pixels, columns, pixelRows, depth, dither );
+		}
+		
+		List<Band> bands = new ArrayList<Band>();
+		
+		for ( int row = 0; row < rows; row += _BAND_ROWS_ ) {
+			bands.add( new Band( source, width, height, columns, pixelRows, row, Math.min( row + _BAND_ROWS_, rows ), depth,
+					pixels, false ) );
+		}
+		
+		if ( bands.size() == 1 ) {
+			return bands.get( 0 ).compute();
+		}
+		
+		ForkJoinTask.invokeAll( bands );
+		
+		int length = 0;
+		
+		for ( Band band : bands ) {
+			length += band.join().length;
+		}
+		
+		byte[] bytes = new byte[length];
+		int offset = 0;
+		
+		for ( Band band : bands ) {
+			byte[] chunk = band.join();
+			
+			System.arraycopy( chunk, 0, bytes, offset, chunk.length );
+			
+			offset += chunk.length;
+		}
+		
+		return bytes;
+	}
+	
+	/**
+	 * Task which resamples and encodes a band of rows of cells, or only
+	 * resamples it into a buffer of pixels.
+	 */
+	private static final class Band extends RecursiveTask<byte[]> {
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] source;
+		private final int width;
+		private final int height;
+		private final int columns;
+		private final int pixelRows;
+		private final int firstRow;
+		private final int endRow;
+		private final int depth;
+		/**
+		 * Resampled pixels of the whole image, row after row, or null to
+		 * resample while encoding.
+		 */
+		private final int[] pixels;
+		/**
+		 * Flag set when the band only resamples into the pixels.
+		 */
+		private final boolean isResampleOnly;
+		
+		Band( int[] source, int width, int height, int columns, int pixelRows, int firstRow, int endRow, int depth, int[] pixels,
+				boolean isResampleOnly ) {
+			this.source = source;
+			this.width = width;
+			this.height = height;
+			this.columns = columns;
+			this.pixelRows = pixelRows;
+			this.firstRow = firstRow;
+			this.endRow = endRow;
+			this.depth = depth;
+			this.pixels = pixels;
+			this.isResampleOnly = isResampleOnly;
+		}
+		
+		@Override
+		protected byte[] compute() {
+			if ( this.isResampleOnly ) {
+				int endPixelRow = Math.min( 2 * this.endRow, this.pixelRows );
+				
+				for ( int pixelRow = 2 * this.firstRow; pixelRow < endPixelRow; pixelRow++ ) {
+					resample( pixelRow, this.pixels, pixelRow * this.columns );
+				}
+				
+				return null;
+			}
+			
+			String newline = System.lineSeparator();
+			int rows = this.endRow - this.firstRow;
+			byte[] bytes = new byte[rows * ( this.columns * _MAX_CELL_LENGTH_ + BlumeEncoder._RESET_.length + newline.length() )];
+			int[] top = new int[this.columns];
+			int[] bottom = new int[this.columns];
+			int offset = 0;
+			
+			for ( int row = this.firstRow; row < this.endRow; row++ ) {
+				row( 2 * row, top );
+				
+				if ( 2 * row + 1 < this.pixelRows ) {
+					row( 2 * row + 1, bottom );
+				} else { // Odd number of pixel rows
+					Arrays.fill( bottom, 0 );
+				}
+				
+				offset = encodeRow( bytes, offset, top, bottom );
+				offset = BlumeEncoder.encodeReset( bytes, offset );
+				offset = BlumeEncoder.encodeASCII( bytes, offset, newline );
+			}
+			
+			return Arrays.copyOf( bytes, offset );
+		}
+		
+		/**
+		 * Gets one row of the resampled image, from the pixels if the image
+		 * was resampled and dithered ahead.
+		 * 
+		 * @param pixelRow
+		 * @param colors Packed colors of the row, reduced to the color depth.
+		 */
+		private void row( int pixelRow, int[] colors ) {
+			if ( this.pixels != null ) {
+				System.arraycopy( this.pixels, pixelRow * this.columns, colors, 0, this.columns );
+			} else {
+				resample( pixelRow, colors, 0 );
+			}
+		}
+		
+		/**
+		 * Averages the source pixels under each pixel of one row of the
+		 * resampled image.
+		 * 
+		 * @param pixelRow
+		 * @param colors Packed colors, reduced to the color depth.
+		 * @param offset Index of the row's first pixel in colors.
+		 */
+		private void resample( int pixelRow, int[] colors, int offset ) {
+			int y0 = (int) ( (long) pixelRow * this.height / this.pixelRows );
+			int y1 = Math.max( y0 + 1, (int) ( (long) ( pixelRow + 1 ) * this.height / this.pixelRows ) );
+			
+			for ( int column = 0; column < this.columns; column++ ) {
+				int x0 = (int) ( (long) column * this.width / this.columns );
+				int x1 = Math.max( x0 + 1, (int) ( (long) ( column + 1 ) * this.width / this.columns ) );
+				long r = 0;
+				long g = 0;
+				long b = 0;
+				
+				for ( int y = y0; y < y1; y++ ) {
+					int line = y * this.width;
+					
+					for ( int x = x0; x < x1; x++ ) {
+						int argb = this.source[line + x];
+						int alpha = argb >>> 24;
+						
+						// Blend transparent pixels over black
+						r += ( ( argb >> 16 ) & 0xFF ) * alpha;
+						g += ( ( argb >> 8 ) & 0xFF ) * alpha;
+						b += ( argb & 0xFF ) * alpha;
+					}
+				}
+				
+				long count = (long) ( y1 - y0 ) * ( x1 - x0 ) * 255;
+				int rgb = (int) ( ( r + count / 2 ) / count ) << 16 | (int) ( ( g + count / 2 ) / count ) << 8
+						| (int) ( ( b + count / 2 ) / count );
+				
+				colors[offset + column] = BlumeQuantizer.quantize( BlumeColor.pack24Bit( rgb ), this.depth );
+			}
+		}
+		
+		/**
+		 * Encodes one row of cells, writing color codes only where they
+		 * change.
+		 * 
+		 * @param dst
+		 * @param offset
+		 * @param top Colors of the top pixels.
+		 * @param bottom Colors of the bottom pixels, or 0 for the default background.
+		 * @return Offset just past the encoded bytes.
+		 */
+		private int encodeRow( byte[] dst, int offset, int[] top, int[] bottom ) {
+			int fg = 0;
+			int bg = 0;
+			
+			for ( int column = 0; column < this.columns; column++ ) {
+				// A cell whose pixels match needs only its background
+				boolean isSolid = top[column] == bottom[column];
+				boolean isFgChanged = !isSolid && top[column] != fg;
+				boolean isBgChanged = bottom[column] != bg;
+				
+				if ( isFgChanged || isBgChanged ) {
+					offset = BlumeEncoder.encodeBytes( dst, offset, BlumeEncoder._PREFIX_ );
+					
+					if ( isFgChanged ) {
+						offset = BlumeEncoder.encodeColor( dst, offset, top[column], false, this.depth );
+						fg = top[column];
+					}
+					
+					if ( isBgChanged ) {
+						if ( isFgChanged ) {
+							dst[offset++] = ANSI._DELIM_;
+						}
+						
+						offset = ( bottom[column] != 0 ) ? BlumeEncoder.encodeColor( dst, offset, bottom[column], true, this.depth )
+								: BlumeEncoder.encodeDecimal( dst, offset, 49 );
+						bg = bottom[column];
+					}
+					
+					dst[offset++] = ANSI._TERMINATOR_;
+				}
+				
+				if ( isSolid ) {
+					dst[offset++] = ' ';
+				} else {
+					offset = BlumeEncoder.encodeBytes( dst, offset, _UPPER_HALF_ );
+				}
+			}
+			
+			return offset;
+		}
+	}
+}
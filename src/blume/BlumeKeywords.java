@@ -0,0 +1,284 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeKeywords.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Aho-Corasick automaton which finds any number of literal keywords in a
+ * single pass over UTF-8 bytes.
+ * 
+ * The automaton is compiled into a dense table of 256 transitions per
+ * state, so each input byte costs one table lookup however many keywords
+ * there are. After each byte {@link #getMatch(int)} gives the longest
+ * keyword ending there, if any.
+ * 
+ * Example:
+ * <pre>
+ * BlumeKeywords keywords = BlumeKeywords.compile( false, "ERROR", "WARN" );
+ * int state = 0;
+ * 
+ * for ( int i = 0; i &lt; length; i++ ) {
+ *     state = keywords.next( state, bytes[i] );
+ * 
+ *     if ( keywords.getMatch( state ) &gt;= 0 ) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * 
+ * A compiled automaton is immutable and safe to share between threads.
+ */
+public final class BlumeKeywords {
+	/**
+	 * Transitions, 256 per state. State 0 is the root.
+	 */
+	protected final int[] transitions;
+	/**
+	 * Index of the longest keyword ending in each state, or -1.
+	 */
+	protected final int[] matches;
+	/**
+	 * Whether each byte begins any keyword. From the root every other
+	 * byte leads back to the root, so runs of them can be skipped.
+	 */
+	protected final boolean[] starts;
+	/**
+	 * Length in bytes of each keyword.
+	 */
+	protected final int[] lengths;
+	/**
+	 * Keywords in the order they were given.
+	 */
+	private final String[] keywords;
+	/**
+	 * Whether ASCII letters match either case.
+	 */
+	private final boolean isIgnoreCase;
+	
+	/**
+	 * Constructor for a compiled automaton.
+	 * 
+	 * @param transitions
+	 * @param matches
+	 * @param starts
+	 * @param lengths
+	 * @param keywords
+	 * @param isIgnoreCase
+	 */
+	private BlumeKeywords( int[] transitions, int[] matches, boolean[] starts, int[] lengths, String[] keywords, boolean isIgnoreCase ) {
+		this.transitions = transitions;
+		this.matches = matches;
+		this.starts = starts;
+		this.lengths = lengths;
+		this.keywords = keywords;
+		this.isIgnoreCase = isIgnoreCase;
+	}
+	
+	/**
+	 * Compiles an automaton for a set of keywords.
+	 * 
+	 * @param isIgnoreCase Whether ASCII letters match either case.
+	 * @param keywords Keywords, none of them empty.
+	 * @return Compiled automaton.
+	 */
+	public static BlumeKeywords compile( boolean isIgnoreCase, String... keywords ) {
+		byte[][] encoded = new byte[keywords.length][];
+		int[] lengths = new int[keywords.length];
+		int capacity = 1;
+		
+		for ( int k = 0; k < keywords.length; k++ ) {
+			if ( keywords[k].isEmpty() ) {
+				throw new IllegalArgumentException( "Keywords may not be empty." );
+			}
+			
+			encoded[k] = keywords[k].getBytes( StandardCharsets.UTF_8 );
+			lengths[k] = encoded[k].length;
+			capacity += lengths[k];
+		}
+		
+		// Build the trie, with 0 for missing transitions
+		int[] transitions = new int[capacity << 8];
+		int[] matches = new int[capacity];
+		int states = 1;
+		
+		Arrays.fill( matches, -1 );
+		
+		for ( int k = 0; k < encoded.length; k++ ) {
+			int state = 0;
+			
+			for ( byte b : encoded[k] ) {
+				int index = ( state << 8 ) | fold( b & 0xFF, isIgnoreCase );
+				
+				if ( transitions[index] == 0 ) {
+					transitions[index] = states++;
+				}
+				
+				state = transitions[index];
+			}
+			
+			// Of duplicate keywords the first one wins
+			if ( matches[state] < 0 ) {
+				matches[state] = k;
+			}
+		}
+		
+		// Fill in failure transitions breadth first, so each state's failure
+		// state is complete before the state itself
+		int[] failures = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+		
+		for ( int b = 0; b < 256; b++ ) {
+			if ( transitions[b] != 0 ) {
+				queue[tail++] = transitions[b];
+			}
+		}
+		
+		while ( head < tail ) {
+			int state = queue[head++];
+			int failure = failures[state];
+			
+			if ( matches[state] < 0 ) {
+				matches[state] = matches[failure];
+			}
+			
+			for ( int b = 0; b < 256; b++ ) {
+				int index = ( state << 8 ) | b;
+				int target = transitions[index];
+				
+				if ( target != 0 ) {
+					failures[target] = transitions[( failure << 8 ) | b];
+					queue[tail++] = target;
+				} else {
+					transitions[index] = transitions[( failure << 8 ) | b];
+				}
+			}
+		}
+		
+		if ( isIgnoreCase ) {
+			for ( int state = 0; state < states; state++ ) {
+				for ( int b = 'a'; b <= 'z'; b++ ) {
+					transitions[( state << 8 ) | b] = transitions[( state << 8 ) | ( b - 'a' + 'A' )];
+				}
+			}
+		}
+		
+		boolean[] starts = new boolean[256];
+		
+		for ( int b = 0; b < 256; b++ ) {
+			starts[b] = transitions[b] != 0;
+		}
+		
+		return new BlumeKeywords( Arrays.copyOf( transitions, states << 8 ), Arrays.copyOf( matches, states ),
+				starts, lengths, keywords.clone(), isIgnoreCase );
+	}
+	
+	/**
+	 * Folds lowercase ASCII letters to uppercase when case is ignored.
+	 * 
+	 * @param b
+	 * @param isIgnoreCase
+	 * @return Folded byte.
+	 */
+	private static int fold( int b, boolean isIgnoreCase ) {
+		return ( isIgnoreCase && b >= 'a' && b <= 'z' ) ? b - 'a' + 'A' : b;
+	}
+	
+	/**
+	 * Moves the automaton over one byte of input.
+	 * 
+	 * @param state Current state, 0 at the start of the input.
+	 * @param b
+	 * @return Next state.
+	 */
+	public int next( int state, byte b ) {
+		return this.transitions[( state << 8 ) | ( b & 0xFF )];
+	}
+	
+	/**
+	 * @param b
+	 * @return True if a byte begins any keyword.
+	 */
+	public boolean getIsStart( byte b ) {
+		return this.starts[b & 0xFF];
+	}
+	
+	/**
+	 * @param state
+	 * @return Index of the longest keyword which ends at the last byte
+	 * read to reach a state, or -1 if none does.
+	 */
+	public int getMatch( int state ) {
+		return this.matches[state];
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @param index
+	 * @return Length in UTF-8 bytes of a keyword.
+	 */
+	public int getLength( int index ) {
+		return this.lengths[index];
+	}
+	/**
+	 * @param index
+	 * @return A keyword.
+	 */
+	public String getKeyword( int index ) {
+		return this.keywords[index];
+	}
+	/**
+	 * @return Number of keywords.
+	 */
+	public int getKeywordCount() {
+		return this.keywords.length;
+	}
+	/**
+	 * @return Number of states of the automaton.
+	 */
+	public int getStateCount() {
+		return this.matches.length;
+	}
+	/**
+	 * @return True if ASCII letters match either case.
+	 */
+	public boolean getIsIgnoreCase() {
+		return this.isIgnoreCase;
+	}
+}
@@ -0,0 +1,575 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeMetrics.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Runtime counters of what Blume output costs: print calls per overload,
+ * bytes of text versus escape sequences, writes, flushes, dropped events
+ * and the time print calls take to encode and write.
+ * 
+ * Metrics are off unless Blume is started with -Dblume.metrics=true. Every
+ * place which records them tests {@link #_IS_ENABLED_} first, a static
+ * final flag the JIT compiler folds away, so disabled metrics cost
+ * nothing. Enabled, the counters are {@link LongAdder}s, which threads
+ * add to without contending, and the counters are published as the
+ * {@link blume.BlumeMetricsMBean} "blume:type=BlumeMetrics".
+ * 
+ * Call times are kept in a histogram of logarithmic buckets, each split
+ * into {@link #_SUB_BUCKETS_} linear ones, as HDR histograms do, so any
+ * percentile is known to within about 3%.
+ * 
+ * Example:
+ * <pre>
+ * BlumeMetrics.Snapshot snapshot = BlumeMetrics.snapshot();
+ * 
+ * System.err.println( snapshot.getEscapeBytes() + " escape bytes, p99 "
+ *         + snapshot.getLatencyPercentile( 99 ) + " ns" );
+ * </pre>
+ */
+public final class BlumeMetrics implements BlumeMetricsMBean {
+	/**
+	 * Print calls which are counted, one per overload of {@link blume.Blume}.
+	 */
+	public enum Call {
+		Print,
+		PrintColor,
+		PrintColors,
+		PrintColorAttributes,
+		PrintColorsAttributes,
+		PrintStyle,
+		PrintFromHex,
+		Println,
+		PrintlnColor,
+		PrintlnColors,
+		PrintlnColorAttributes,
+		PrintlnColorsAttributes,
+		PrintlnStyle,
+		PrintGradient,
+		PrintGradientLines,
+		PrintMarkup,
+		PrintlnMarkup,
+		PrintStyledText,
+		PrintlnStyledText,
+		PrintTable
+	}
+	
+	/**
+	 * Whether metrics are recorded, set by the blume.metrics system property.
+	 */
+	public static final boolean _IS_ENABLED_ = Boolean.getBoolean( "blume.metrics" );
+	/**
+	 * Name the MBean is registered under.
+	 */
+	public static final String _OBJECT_NAME_ = "blume:type=BlumeMetrics";
+	/**
+	 * Number of bits of a time kept exactly within its power of two.
+	 */
+	protected static final int _SUB_BITS_ = 5;
+	/**
+	 * Number of linear buckets each power of two is split into.
+	 */
+	protected static final int _SUB_BUCKETS_ = 1 << _SUB_BITS_;
+	/**
+	 * Number of buckets, enough for any positive long.
+	 */
+	protected static final int _BUCKETS_ = ( 63 - _SUB_BITS_ + 1 ) << _SUB_BITS_;
+	/**
+	 * Escape character.
+	 */
+	protected static final int _ESC_ = 27;
+	
+	private static final Call[] _CALLS_ = Call.values();
+	private static final LongAdder[] _calls = adders( _CALLS_.length );
+	private static final LongAdder _textBytes = new LongAdder();
+	private static final LongAdder _escapeBytes = new LongAdder();
+	private static final LongAdder _writes = new LongAdder();
+	private static final LongAdder _flushes = new LongAdder();
+	private static final LongAdder _dropped = new LongAdder();
+	private static final LongAdder[] _latencies = adders( _BUCKETS_ );
+	private static final LongAccumulator _maxLatency = new LongAccumulator( Math::max, 0 );
+	
+	static {
+		if ( _IS_ENABLED_ ) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean( new BlumeMetrics(), new ObjectName( _OBJECT_NAME_ ) );
+			} catch ( JMException e ) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Constructor for the MBean, which reads the shared counters.
+	 */
+	private BlumeMetrics() {
+	}
+	
+	/**
+	 * Creates an array of counters.
+	 * 
+	 * @param count
+	 * @return Counters, all zero.
+	 */
+	private static LongAdder[] adders( int count ) {
+		LongAdder[] adders = new LongAdder[count];
+		
+		for ( int i = 0; i < count; i++ ) {
+			adders[i] = new LongAdder();
+		}
+		
+		return adders;
+	}
+	
+	/**
+	 * Records a finished print call.
+	 * 
+	 * @param call
+	 * @param start Time the call started from {@link System#nanoTime()}.
+	 */
+	public static void recordCall( Call call, long start ) {
+		long latency = Math.max( 0, System.nanoTime() - start );
+		
+		_calls[call.ordinal()].increment();
+		_latencies[getBucket( latency )].increment();
+		_maxLatency.accumulate( latency );
+	}
+	
+	/**
+	 * Records one write of encoded bytes, splitting them into text and
+	 * escape sequences.
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 */
+	public static void recordWrite( byte[] bytes, int offset, int length ) {
+		int end = offset + length;
+		int escape = 0;
+		
+		for ( int i = offset; i < end; i++ ) {
+			if ( bytes[i] == _ESC_ ) {
+				int next = skipEscape( bytes, i, end );
+				
+				escape += next - i;
+				i = next - 1;
+			}
+		}
+		
+		_textBytes.add( length - escape );
+		_escapeBytes.add( escape );
+		_writes.increment();
+	}
+	
+	/**
+	 * Records one write of text with escape sequences, counting the text's
+	 * length once encoded as UTF-8.
+	 * 
+	 * @param text
+	 */
+	public static void recordWrite( CharSequence text ) {
+		int length = text.length();
+		long bytes = 0;
+		int escape = 0;
+		
+		for ( int i = 0; i < length; i++ ) {
+			char c = text.charAt( i );
+			
+			if ( c == _ESC_ ) {
+				int next = skipEscape( text, i, length );
+				
+				escape += next - i;
+				i = next - 1;
+			} else if ( c < 0x80 ) {
+				bytes += 1;
+			} else if ( c < 0x800 || Character.isSurrogate( c ) ) { // Each half of a pair is 2 of its 4 bytes
+				bytes += 2;
+			} else {
+				bytes += 3;
+			}
+		}
+		
+		_textBytes.add( bytes );
+		_escapeBytes.add( escape );
+		_writes.increment();
+	}
+	
+	/**
+	 * Records one flush of an output stream.
+	 */
+	public static void recordFlush() {
+		_flushes.increment();
+	}
+	
+	/**
+	 * Records one dropped event.
+	 */
+	public static void recordDrop() {
+		_dropped.increment();
+	}
+	
+	/**
+	 * Finds the end of an escape sequence: a CSI sequence up to its final
+	 * byte, an OSC sequence up to its terminator, or ESC and one byte.
+	 * 
+	 * @param bytes
+	 * @param start Index of the ESC byte.
+	 * @param end
+	 * @return Index just past the sequence, no further than end.
+	 */
+	protected static int skipEscape( byte[] bytes, int start, int end ) {
+		int i = start + 1;
+		
+		if ( i < end && bytes[i] == '[' ) {
+			for ( i++; i < end && ( bytes[i] < 0x40 || bytes[i] > 0x7E ); i++ ) {
+			}
+		} else if ( i < end && bytes[i] == ']' ) {
+			for ( i++; i < end && bytes[i] != 7 && !( bytes[i] == '\\' && bytes[i - 1] == _ESC_ ); i++ ) {
+			}
+		}
+		
+		return Math.min( i + 1, end );
+	}
+	
+	/**
+	 * Finds the end of an escape sequence in characters.
+	 * 
+	 * @param text
+	 * @param start Index of the ESC character.
+	 * @param end
+	 * @return Index just past the sequence, no further than end.
+	 */
+	protected static int skipEscape( CharSequence text, int start, int end ) {
+		int i = start + 1;
+		
+		if ( i < end && text.charAt( i ) == '[' ) {
+			for ( i++; i < end && ( text.charAt( i ) < 0x40 || text.charAt( i ) > 0x7E ); i++ ) {
+			}
+		} else if ( i < end && text.charAt( i ) == ']' ) {
+			for ( i++; i < end && text.charAt( i ) != 7 && !( text.charAt( i ) == '\\' && text.charAt( i - 1 ) == _ESC_ ); i++ ) {
+			}
+		}
+		
+		return Math.min( i + 1, end );
+	}
+	
+	/**
+	 * Finds the histogram bucket of a time: times below
+	 * {@link #_SUB_BUCKETS_} have their own bucket, and larger ones share
+	 * one with the times which have the same highest {@link #_SUB_BITS_} bits.
+	 * 
+	 * @param value Time in nanoseconds, not negative.
+	 * @return Index of the bucket.
+	 */
+	protected static int getBucket( long value ) {
+		if ( value < _SUB_BUCKETS_ ) {
+			return (int) value;
+		}
+		
+		int exponent = 63 - Long.numberOfLeadingZeros( value );
+		
+		return ( ( exponent - _SUB_BITS_ + 1 ) << _SUB_BITS_ ) + (int) ( ( value >>> ( exponent - _SUB_BITS_ ) ) & ( _SUB_BUCKETS_ - 1 ) );
+	}
+	
+	/**
+	 * @param bucket
+	 * @return Largest time which falls into a histogram bucket.
+	 */
+	protected static long getBucketMax( int bucket ) {
+		if ( bucket < _SUB_BUCKETS_ ) {
+			return bucket;
+		}
+		
+		int shift = ( bucket >> _SUB_BITS_ ) - 1;
+		long lowest = (long) ( _SUB_BUCKETS_ + ( bucket & ( _SUB_BUCKETS_ - 1 ) ) ) << shift;
+		
+		return lowest + ( 1L << shift ) - 1;
+	}
+	
+	/**
+	 * Takes a snapshot of every counter. Counters updated while the
+	 * snapshot is taken may or may not be included.
+	 * 
+	 * @return Snapshot of the metrics.
+	 */
+	public static Snapshot snapshot() {
+		long[] calls = new long[_calls.length];
+		long[] latencies = new long[_latencies.length];
+		
+		for ( int i = 0; i < calls.length; i++ ) {
+			calls[i] = _calls[i].sum();
+		}
+		
+		for ( int i = 0; i < latencies.length; i++ ) {
+			latencies[i] = _latencies[i].sum();
+		}
+		
+		return new Snapshot( calls, _textBytes.sum(), _escapeBytes.sum(), _writes.sum(), _flushes.sum(),
+				_dropped.sum(), latencies, _maxLatency.get() );
+	}
+	
+	/**
+	 * Sets every counter back to zero. Counters updated at the same time
+	 * may keep part of their updates.
+	 */
+	public static void resetAll() {
+		for ( LongAdder adder : _calls ) {
+			adder.reset();
+		}
+		
+		for ( LongAdder adder : _latencies ) {
+			adder.reset();
+		}
+		
+		_textBytes.reset();
+		_escapeBytes.reset();
+		_writes.reset();
+		_flushes.reset();
+		_dropped.reset();
+		_maxLatency.reset();
+	}
+	
+	/*
+	 * MBean attributes, read from a fresh snapshot each.
+	 */
+	@Override
+	public long getCallCount() {
+		return snapshot().getCallCount();
+	}
+	
+	@Override
+	public long[] getCallCounts() {
+		return snapshot().calls;
+	}
+	
+	@Override
+	public String[] getCallNames() {
+		String[] names = new String[_CALLS_.length];
+		
+		for ( int i = 0; i < names.length; i++ ) {
+			names[i] = _CALLS_[i].name();
+		}
+		
+		return names;
+	}
+	
+	@Override
+	public long getTextBytes() {
+		return _textBytes.sum();
+	}
+	
+	@Override
+	public long getEscapeBytes() {
+		return _escapeBytes.sum();
+	}
+	
+	@Override
+	public long getWriteCount() {
+		return _writes.sum();
+	}
+	
+	@Override
+	public long getFlushCount() {
+		return _flushes.sum();
+	}
+	
+	@Override
+	public long getDroppedCount() {
+		return _dropped.sum();
+	}
+	
+	@Override
+	public long getLatencyP50Nanos() {
+		return snapshot().getLatencyPercentile( 50 );
+	}
+	
+	@Override
+	public long getLatencyP99Nanos() {
+		return snapshot().getLatencyPercentile( 99 );
+	}
+	
+	@Override
+	public long getLatencyP999Nanos() {
+		return snapshot().getLatencyPercentile( 99.9 );
+	}
+	
+	@Override
+	public long getMaxLatencyNanos() {
+		return _maxLatency.get();
+	}
+	
+	@Override
+	public void reset() {
+		resetAll();
+	}
+	
+	/**
+	 * Metrics at one point in time.
+	 */
+	public static final class Snapshot {
+		private final long[] calls;
+		private final long textBytes;
+		private final long escapeBytes;
+		private final long writes;
+		private final long flushes;
+		private final long dropped;
+		private final long[] latencies;
+		private final long maxLatency;
+		
+		Snapshot( long[] calls, long textBytes, long escapeBytes, long writes, long flushes, long dropped,
+				long[] latencies, long maxLatency ) {
+			this.calls = calls;
+			this.textBytes = textBytes;
+			this.escapeBytes = escapeBytes;
+			this.writes = writes;
+			this.flushes = flushes;
+			this.dropped = dropped;
+			this.latencies = latencies;
+			this.maxLatency = maxLatency;
+		}
+		
+		/**
+		 * Returns the time in nanoseconds which a percentage of print calls
+		 * took no longer than, to within the width of its bucket.
+		 * 
+		 * @param percentile From 0 to 100.
+		 * @return Time in nanoseconds, or 0 if no calls were recorded.
+		 */
+		public long getLatencyPercentile( double percentile ) {
+			long count = getLatencyCount();
+			
+			if ( count == 0 ) {
+				return 0;
+			}
+			
+			long rank = Math.max( 1, (long) Math.ceil( count * Math.min( Math.max( percentile, 0 ), 100 ) / 100 ) );
+			long seen = 0;
+			
+			for ( int i = 0; i < this.latencies.length; i++ ) {
+				seen += this.latencies[i];
+				
+				if ( seen >= rank ) {
+					return Math.min( getBucketMax( i ), this.maxLatency );
+				}
+			}
+			
+			return this.maxLatency;
+		}
+		
+		/*
+		 * Accessors.
+		 */
+		/**
+		 * @param call
+		 * @return Number of calls of an overload.
+		 */
+		public long getCallCount( Call call ) {
+			return this.calls[call.ordinal()];
+		}
+		/**
+		 * @return Number of calls of every overload.
+		 */
+		public long getCallCount() {
+			long count = 0;
+			
+			for ( long calls : this.calls ) {
+				count += calls;
+			}
+			
+			return count;
+		}
+		/**
+		 * @return Bytes of text written, as UTF-8.
+		 */
+		public long getTextBytes() {
+			return this.textBytes;
+		}
+		/**
+		 * @return Bytes of escape sequences written.
+		 */
+		public long getEscapeBytes() {
+			return this.escapeBytes;
+		}
+		/**
+		 * @return Number of writes to an output stream or channel.
+		 */
+		public long getWriteCount() {
+			return this.writes;
+		}
+		/**
+		 * @return Number of flushes of an output stream.
+		 */
+		public long getFlushCount() {
+			return this.flushes;
+		}
+		/**
+		 * @return Number of events dropped by asynchronous writers.
+		 */
+		public long getDroppedCount() {
+			return this.dropped;
+		}
+		/**
+		 * @return Number of call times in the histogram.
+		 */
+		public long getLatencyCount() {
+			long count = 0;
+			
+			for ( long latencies : this.latencies ) {
+				count += latencies;
+			}
+			
+			return count;
+		}
+		/**
+		 * @return Longest time in nanoseconds a print call took.
+		 */
+		public long getMaxLatency() {
+			return this.maxLatency;
+		}
+		
+		@Override
+		public String toString() {
+			return "BlumeMetrics[calls=" + getCallCount() + ", textBytes=" + this.textBytes
+					+ ", escapeBytes=" + this.escapeBytes + ", writes=" + this.writes + ", flushes=" + this.flushes
+					+ ", dropped=" + this.dropped + ", p50=" + getLatencyPercentile( 50 ) + "ns, p99="
+					+ getLatencyPercentile( 99 ) + "ns, max=" + this.maxLatency + "ns]";
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeMetricsMBean.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Management interface of {@link blume.BlumeMetrics}, registered as
+ * "blume:type=BlumeMetrics" when Blume is started with -Dblume.metrics=true.
+ */
+public interface BlumeMetricsMBean {
+	/**
+	 * @return Number of Blume print calls of every overload.
+	 */
+	public long getCallCount();
+	
+	/**
+	 * @return Number of calls of each overload, in the order of {@link #getCallNames()}.
+	 */
+	public long[] getCallCounts();
+	
+	/**
+	 * @return Names of the overloads, e.g., "PrintlnStyle".
+	 */
+	public String[] getCallNames();
+	
+	/**
+	 * @return Bytes of text written, as UTF-8.
+	 */
+	public long getTextBytes();
+	
+	/**
+	 * @return Bytes of escape sequences written.
+	 */
+	public long getEscapeBytes();
+	
+	/**
+	 * @return Number of writes to an output stream or channel.
+	 */
+	public long getWriteCount();
+	
+	/**
+	 * @return Number of flushes of an output stream.
+	 */
+	public long getFlushCount();
+	
+	/**
+	 * @return Number of events dropped by asynchronous writers.
+	 */
+	public long getDroppedCount();
+	
+	/**
+	 * @return Median time in nanoseconds a print call took to encode and write.
+	 */
+	public long getLatencyP50Nanos();
+	
+	/**
+	 * @return 99th percentile of the time in nanoseconds a print call took.
+	 */
+	public long getLatencyP99Nanos();
+	
+	/**
+	 * @return 99.9th percentile of the time in nanoseconds a print call took.
+	 */
+	public long getLatencyP999Nanos();
+	
+	/**
+	 * @return Longest time in nanoseconds a print call took.
+	 */
+	public long getMaxLatencyNanos();
+	
+	/**
+	 * Sets every counter back to zero.
+	 */
+	public void reset();
+}
@@ -0,0 +1,718 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeParser.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads ANSI escape sequences back out of colored text, to strip them,
+ * measure the text without them or turn them back into Blume styles.
+ * 
+ * A parser is a state machine which is fed text in as many pieces as
+ * needed, from a CharSequence, a char[] or a ByteBuffer of UTF-8 bytes,
+ * without copying it. Select Graphic Rendition (SGR) sequences update the
+ * current style: display attributes and their resets, basic and bright
+ * colors (30-37, 90-97, 40-47, 100-107), 8-bit colors (38;5;n and 48;5;n),
+ * 24-bit colors (38;2;r;g;b and 48;2;r;g;b), the defaults (39 and 49) and
+ * reset (0). Colors may also be written with colons as in ITU T.416, e.g.,
+ * 38:5:n, 38:2::r:g:b or 38:2:r:g:b, where the color space of a 24-bit
+ * color is skipped. Every other control sequence and operating system
+ * command (e.g., hyperlinks) is skipped.
+ * 
+ * Each run of text between escape sequences is passed to a
+ * {@link blume.BlumeParser.Visitor} as its range in the input, with the
+ * style in effect as a packed foreground and background color (see
+ * {@link blume.BlumeColor#getPacked()}, 0 for the default) and a bitmask
+ * of display attributes with bit n set for SGR code n.
+ * 
+ * Example:
+ * <pre>
+ * BlumeParser parser = new BlumeParser();
+ * 
+ * parser.parse( captured, ( start, end, fg, bg, attributes ) -&gt; {
+ *     ...
+ * } );
+ * </pre>
+ * 
+ * The static strip methods only skip escape sequences, without decoding
+ * them, and are the fastest way to remove colors.
+ * {@link #getDisplayWidth(CharSequence)} measures text as a terminal
+ * shows it, without its escape sequences.
+ * 
+ * As with a StringBuilder, a BlumeParser is not safe for use by multiple
+ * threads at once.
+ */
+public class BlumeParser {
+	/**
+	 * Receives the runs of text found by a parser.
+	 */
+	public interface Visitor {
+		/**
+		 * Visits a run of text.
+		 * 
+		 * @param start Index of the run's first character or byte in the input.
+		 * @param end Index just past the run's last character or byte.
+		 * @param fg Packed foreground color, or 0 for the default.
+		 * @param bg Packed background color, or 0 for the default.
+		 * @param attributes Display attributes, with bit n set for SGR code n.
+		 */
+		void visit( int start, int end, int fg, int bg, int attributes );
+	}
+	
+	/*
+	 * Parser states.
+	 */
+	protected static final int _TEXT_ = 0;
+	protected static final int _ESCAPE_ = 1;
+	protected static final int _CSI_ = 2;
+	protected static final int _OSC_ = 3;
+	protected static final int _OSC_ESCAPE_ = 4;
+	/**
+	 * Escape character which begins every sequence.
+	 */
+	protected static final char _ESC_ = 27;
+	/**
+	 * Most parameters kept from one sequence. Any more are ignored.
+	 */
+	protected static final int _MAX_PARAMS_ = 32;
+	/**
+	 * Largest parameter value kept, so long digit runs cannot overflow.
+	 */
+	protected static final int _MAX_PARAM_ = 65535;
+	/**
+	 * First and last code points of each range of East Asian wide and
+	 * fullwidth characters, in order.
+	 */
+	protected static final int[] _WIDE_ = {
+		0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC, 0x23F0, 0x23F0, 0x23F3, 0x23F3,
+		0x25FD, 0x25FE, 0x2614, 0x2615, 0x2648, 0x2653, 0x267F, 0x267F, 0x2693, 0x2693, 0x26A1, 0x26A1,
+		0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE, 0x26D4, 0x26D4, 0x26EA, 0x26EA,
+		0x26F2, 0x26F3, 0x26F5, 0x26F5, 0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B,
+		0x2728, 0x2728, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757, 0x2795, 0x2797,
+		0x27B0, 0x27B0, 0x27BF, 0x27BF, 0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55, 0x2E80, 0x303E,
+		0x3041, 0x33FF, 0x3400, 0x4DBF, 0x4E00, 0x9FFF, 0xA000, 0xA4CF, 0xA960, 0xA97F, 0xAC00, 0xD7A3,
+		0xF900, 0xFAFF, 0xFE10, 0xFE19, 0xFE30, 0xFE6F, 0xFF00, 0xFF60, 0xFFE0, 0xFFE6, 0x16FE0, 0x16FE4,
+		0x17000, 0x18CFF, 0x1B000, 0x1B2FF, 0x1F004, 0x1F004, 0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E,
+		0x1F191, 0x1F19A, 0x1F200, 0x1F251, 0x1F300, 0x1F64F, 0x1F680, 0x1F6FF, 0x1F7E0, 0x1F7EB,
+		0x1F90C, 0x1F9FF, 0x1FA70, 0x1FAFF, 0x20000, 0x2FFFD, 0x30000, 0x3FFFD
+	};
+	
+	private int state = _TEXT_;
+	private final int[] params = new int[_MAX_PARAMS_];
+	/**
+	 * Whether each parameter followed a colon, making it a sub-parameter of
+	 * the one before.
+	 */
+	private final boolean[] isSubParams = new boolean[_MAX_PARAMS_];
+	private int paramCount;
+	/**
+	 * Value of the parameter being read, or -1 before its first digit.
+	 */
+	private int value = -1;
+	/**
+	 * Whether the parameter being read followed a colon.
+	 */
+	private boolean isSubParam;
+	/**
+	 * Whether the sequence being read has a private marker (e.g., ?), and
+	 * so is not SGR.
+	 */
+	private boolean isPrivate;
+	
+	private int fg;
+	private int bg;
+	private int attributes;
+	
+	/**
+	 * Constructor for a parser with the default style.
+	 */
+	public BlumeParser() {
+	}
+	
+	/**
+	 * Parses text.
+	 * 
+	 * @param text
+	 * @param visitor
+	 */
+	public void parse( CharSequence text, Visitor visitor ) {
+		parse( text, 0, text.length(), visitor );
+	}
+	
+	/**
+	 * Parses a range of text.
+	 * 
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param visitor
+	 */
+	public void parse( CharSequence text, int start, int end, Visitor visitor ) {
+		for ( int i = start; i < end; i++ ) {
+			if ( this.state == _TEXT_ ) {
+				int run = i;
+				
+				while ( i < end && text.charAt( i ) != _ESC_ ) {
+					i++;
+				}
+				
+				if ( i > run ) {
+					visitor.visit( run, i, this.fg, this.bg, this.attributes );
+				}
+				
+				if ( i == end ) {
+					break;
+				}
+			}
+			
+			step( text.charAt( i ) );
+		}
+	}
+	
+	/**
+	 * Parses a range of characters.
+	 * 
+	 * @param chars
+	 * @param offset
+	 * @param length
+	 * @param visitor
+	 */
+	public void parse( char[] chars, int offset, int length, Visitor visitor ) {
+		int end = offset + length;
+		
+		for ( int i = offset; i < end; i++ ) {
+			if ( this.state == _TEXT_ ) {
+				int run = i;
+				
+				while ( i < end && chars[i] != _ESC_ ) {
+					i++;
+				}
+				
+				if ( i > run ) {
+					visitor.visit( run, i, this.fg, this.bg, this.attributes );
+				}
+				
+				if ( i == end ) {
+					break;
+				}
+			}
+			
+			step( chars[i] );
+		}
+	}
+	
+	/**
+	 * Parses the UTF-8 bytes between a buffer's position and limit, with
+	 * runs given as indices into the buffer. The buffer's position is not
+	 * changed.
+	 * 
+	 * @param bytes
+	 * @param visitor
+	 */
+	public void parse( ByteBuffer bytes, Visitor visitor ) {
+		int end = bytes.limit();
+		
+		for ( int i = bytes.position(); i < end; i++ ) {
+			if ( this.state == _TEXT_ ) {
+				int run = i;
+				
+				while ( i < end && bytes.get( i ) != _ESC_ ) {
+					i++;
+				}
+				
+				if ( i > run ) {
+					visitor.visit( run, i, this.fg, this.bg, this.attributes );
+				}
+				
+				if ( i == end ) {
+					break;
+				}
+			}
+			
+			step( bytes.get( i ) & 0xFF );
+		}
+	}
+	
+	/**
+	 * Returns to the default style, dropping any sequence cut off at the
+	 * end of the last input.
+	 */
+	public void reset() {
+		this.state = _TEXT_;
+		this.fg = 0;
+		this.bg = 0;
+		this.attributes = 0;
+	}
+	
+	/**
+	 * Moves the state machine over one character of an escape sequence,
+	 * collecting parameters and applying them when an SGR sequence ends.
+	 * 
+	 * @param c
+	 */
+	private void step( int c ) {
+		int next = next( this.state, c );
+		
+		if ( this.state == _ESCAPE_ && next == _CSI_ ) { // New control sequence
+			this.paramCount = 0;
+			this.value = -1;
+			this.isSubParam = false;
+			this.isPrivate = false;
+		} else if ( this.state == _CSI_ ) {
+			if ( c >= '0' && c <= '9' ) {
+				this.value = Math.min( ( ( this.value < 0 ) ? 0 : this.value * 10 ) + c - '0', _MAX_PARAM_ );
+			} else if ( c == ANSI._DELIM_ || c == ':' ) {
+				addParam();
+				
+				this.isSubParam = ( c == ':' );
+			} else if ( next == _CSI_ ) { // Private marker or intermediate byte
+				this.isPrivate = true;
+			} else if ( c == ANSI._TERMINATOR_ && !this.isPrivate ) {
+				addParam();
+				apply();
+			}
+		}
+		
+		this.state = next;
+	}
+	
+	/**
+	 * Ends the parameter being read, an empty one counting as 0.
+	 */
+	private void addParam() {
+		if ( this.paramCount < _MAX_PARAMS_ ) {
+			this.isSubParams[this.paramCount] = this.isSubParam;
+			this.params[this.paramCount++] = ( this.value < 0 ) ? 0 : this.value;
+		}
+		
+		this.value = -1;
+	}
+	
+	/**
+	 * Applies the parameters of an SGR sequence to the current style.
+	 */
+	private void apply() {
+		int[] params = this.params;
+		int count = this.paramCount;
+		
+		for ( int i = 0; i < count; i++ ) {
+			int code = params[i];
+			
+			if ( code == 0 ) { // Reset
+				this.fg = 0;
+				this.bg = 0;
+				this.attributes = 0;
+			} else if ( code >= 1 && code <= 9 ) { // Display attribute on
+				this.attributes |= 1 << code;
+			} else if ( code == 21 ) { // Doubly underlined, which most terminals read as bold off
+				this.attributes &= ~BlumeStyle.getAttributesOff( 22 );
+			} else if ( code >= 22 && code <= 29 ) { // Display attribute off
+				this.attributes &= ~BlumeStyle.getAttributesOff( code );
+			} else if ( code >= 30 && code <= 37 ) {
+				this.fg = BlumeColor.packBasic( code - 30 );
+			} else if ( code >= 90 && code <= 97 ) {
+				this.fg = BlumeColor.packBasic( code - 90 + 8 );
+			} else if ( code >= 40 && code <= 47 ) {
+				this.bg = BlumeColor.packBasic( code - 40 );
+			} else if ( code >= 100 && code <= 107 ) {
+				this.bg = BlumeColor.packBasic( code - 100 + 8 );
+			} else if ( code == 39 ) {
+				this.fg = 0;
+			} else if ( code == 49 ) {
+				this.bg = 0;
+			} else if ( ( code == 38 || code == 48 ) && i + 1 < count && this.isSubParams[i + 1] ) {
+				int length = 1;
+				
+				while ( i + length < count && this.isSubParams[i + length] ) {
+					length++;
+				}
+				
+				int color = getSubParamColor( i, length );
+				
+				// Skip the color's sub-parameters whether or not they made sense
+				i += length - 1;
+				
+				if ( color != 0 ) {
+					if ( code == 38 ) {
+						this.fg = color;
+					} else {
+						this.bg = color;
+					}
+				}
+			} else if ( code == 38 || code == 48 ) {
+				int color;
+				
+				if ( i + 2 < count && params[i + 1] == 5 ) { // 8-bit color
+					color = BlumeColor.pack8Bit( params[i + 2] & 0xFF );
+					i += 2;
+				} else if ( i + 4 < count && params[i + 1] == 2 ) { // 24-bit color
+					color = BlumeColor.pack24Bit( params[i + 2] & 0xFF, params[i + 3] & 0xFF, params[i + 4] & 0xFF );
+					i += 4;
+				} else { // Malformed, so the rest cannot be trusted
+					return;
+				}
+				
+				if ( code == 38 ) {
+					this.fg = color;
+				} else {
+					this.bg = color;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Decodes a color written with colons, e.g., 38:5:n, 38:2::r:g:b or
+	 * 38:2:r:g:b. A 24-bit color with four sub-parameters after the 2 has
+	 * a color space first, which is skipped.
+	 * 
+	 * @param index Index of the 38 or 48 parameter.
+	 * @param length Number of parameters in the color, from the 38 or 48 on.
+	 * @return Packed color, or 0 if it is malformed.
+	 */
+	private int getSubParamColor( int index, int length ) {
+		int[] params = this.params;
+		
+		if ( params[index + 1] == 5 && length >= 3 ) { // 8-bit color
+			return BlumeColor.pack8Bit( params[index + 2] & 0xFF );
+		} else if ( params[index + 1] == 2 && length >= 5 ) { // 24-bit color
+			int first = ( length >= 6 ) ? index + 3 : index + 2;
+			
+			return BlumeColor.pack24Bit( params[first] & 0xFF, params[first + 1] & 0xFF, params[first + 2] & 0xFF );
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Works out the next state of the state machine, without decoding
+	 * any parameters.
+	 * 
+	 * @param state
+	 * @param c
+	 * @return Next state.
+	 */
+	protected static int next( int state, int c ) {
+		switch ( state ) {
+			case _TEXT_:
+				return ( c == _ESC_ ) ? _ESCAPE_ : _TEXT_;
+			case _ESCAPE_:
+				return ( c == '[' ) ? _CSI_ : ( c == ']' ) ? _OSC_ : _TEXT_;
+			case _CSI_:
+				// Parameter and intermediate bytes continue it; anything else ends it
+				return ( c >= 0x20 && c <= 0x3F ) ? _CSI_ : _TEXT_;
+			case _OSC_:
+				// Ends with BEL or with the string terminator ESC \
+				return ( c == 7 ) ? _TEXT_ : ( c == _ESC_ ) ? _OSC_ESCAPE_ : _OSC_;
+			default:
+				return _TEXT_;
+		}
+	}
+	
+	/**
+	 * Removes every escape sequence from text.
+	 * 
+	 * @param text
+	 * @return Text without escape sequences, which is the text itself if
+	 * it is a String without any.
+	 */
+	public static String strip( CharSequence text ) {
+		int length = text.length();
+		int i = 0;
+		
+		while ( i < length && text.charAt( i ) != _ESC_ ) {
+			i++;
+		}
+		
+		if ( i == length ) {
+			return text.toString();
+		}
+		
+		StringBuilder string = new StringBuilder( length );
+		int state = _ESCAPE_;
+		
+		string.append( text, 0, i++ );
+		
+		for ( ; i < length; i++ ) {
+			if ( state == _TEXT_ ) { // Copy the whole run at once
+				int run = i;
+				
+				while ( i < length && text.charAt( i ) != _ESC_ ) {
+					i++;
+				}
+				
+				string.append( text, run, i );
+				
+				if ( i == length ) {
+					break;
+				}
+			}
+			
+			state = next( state, text.charAt( i ) );
+		}
+		
+		return string.toString();
+	}
+	
+	/**
+	 * Removes every escape sequence from a range of characters. The
+	 * destination may be the source array, to strip it in place.
+	 * 
+	 * @param src
+	 * @param offset
+	 * @param length
+	 * @param dst
+	 * @param dstOffset
+	 * @return Number of characters written.
+	 */
+	public static int strip( char[] src, int offset, int length, char[] dst, int dstOffset ) {
+		int end = offset + length;
+		int position = dstOffset;
+		int state = _TEXT_;
+		
+		for ( int i = offset; i < end; i++ ) {
+			char c = src[i];
+			
+			if ( state == _TEXT_ && c != _ESC_ ) {
+				dst[position++] = c;
+			} else {
+				state = next( state, c );
+			}
+		}
+		
+		return position - dstOffset;
+	}
+	
+	/**
+	 * Removes every escape sequence from the UTF-8 bytes between a
+	 * buffer's position and limit, putting what is left into another
+	 * buffer. Both buffers' positions are advanced.
+	 * 
+	 * @param src
+	 * @param dst Buffer with at least as many bytes remaining as src.
+	 * @return Number of bytes written.
+	 */
+	public static int strip( ByteBuffer src, ByteBuffer dst ) {
+		int end = src.limit();
+		int start = dst.position();
+		int state = _TEXT_;
+		
+		for ( int i = src.position(); i < end; i++ ) {
+			byte b = src.get( i );
+			
+			if ( state == _TEXT_ && b != _ESC_ ) {
+				dst.put( b );
+			} else {
+				state = next( state, b & 0xFF );
+			}
+		}
+		
+		src.position( end );
+		
+		return dst.position() - start;
+	}
+	
+	/**
+	 * @param text
+	 * @return Number of characters in text which are not part of an escape
+	 * sequence.
+	 */
+	public static int getVisibleLength( CharSequence text ) {
+		int length = text.length();
+		int count = 0;
+		int state = _TEXT_;
+		
+		for ( int i = 0; i < length; i++ ) {
+			char c = text.charAt( i );
+			
+			if ( state == _TEXT_ && c != _ESC_ ) {
+				count++;
+			} else {
+				state = next( state, c );
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Measures the number of terminal columns text takes up. Escape
+	 * sequences, control characters, combining marks and other zero-width
+	 * characters take none, East Asian wide and fullwidth characters take
+	 * two and everything else takes one.
+	 * 
+	 * @param text
+	 * @return Display width in columns.
+	 */
+	public static int getDisplayWidth( CharSequence text ) {
+		return getDisplayWidth( text, 0, text.length() );
+	}
+	
+	/**
+	 * Measures the number of terminal columns a range of text takes up.
+	 * 
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return Display width in columns.
+	 */
+	public static int getDisplayWidth( CharSequence text, int start, int end ) {
+		int width = 0;
+		int state = _TEXT_;
+		
+		for ( int i = start; i < end; i++ ) {
+			char c = text.charAt( i );
+			
+			if ( state != _TEXT_ || c == _ESC_ ) {
+				state = next( state, c );
+			} else if ( c >= 0x20 && c < 0x7F ) { // Printable ASCII
+				width++;
+			} else if ( Character.isHighSurrogate( c ) && i + 1 < end && Character.isLowSurrogate( text.charAt( i + 1 ) ) ) {
+				width += getWidth( Character.toCodePoint( c, text.charAt( ++i ) ) );
+			} else {
+				width += getWidth( c );
+			}
+		}
+		
+		return width;
+	}
+	
+	/**
+	 * @param codePoint
+	 * @return Number of terminal columns a character takes up: 0, 1 or 2.
+	 */
+	public static int getWidth( int codePoint ) {
+		if ( codePoint >= 0x20 && codePoint < 0x7F ) {
+			return 1;
+		}
+		
+		if ( codePoint < 0x20 || ( codePoint >= 0x7F && codePoint < 0xA0 ) ) { // Control characters
+			return 0;
+		}
+		
+		int type = Character.getType( codePoint );
+		
+		if ( type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.FORMAT ) {
+			return 0;
+		}
+		
+		// Binary search for the range of wide characters holding the code point
+		int low = 0;
+		int high = _WIDE_.length / 2 - 1;
+		
+		while ( low <= high ) {
+			int middle = ( low + high ) >>> 1;
+			
+			if ( codePoint < _WIDE_[2 * middle] ) {
+				high = middle - 1;
+			} else if ( codePoint > _WIDE_[2 * middle + 1] ) {
+				low = middle + 1;
+			} else {
+				return 2;
+			}
+		}
+		
+		return 1;
+	}
+	
+	/**
+	 * Converts colored text into a StyledText, with a Blume style for each
+	 * run.
+	 * 
+	 * @param text
+	 * @return Styled text without escape sequences.
+	 */
+	public static StyledText toStyledText( final CharSequence text ) {
+		final StyledText styled = new StyledText();
+		
+		new BlumeParser().parse( text, new Visitor() {
+			@Override
+			public void visit( int start, int end, int fg, int bg, int attributes ) {
+				styled.append( text.subSequence( start, end ), toStyle( fg, bg, attributes ) );
+			}
+		} );
+		
+		return styled;
+	}
+	
+	/**
+	 * Gets the Blume style for a decoded style.
+	 * 
+	 * @param fg Packed foreground color, or 0 for the default.
+	 * @param bg Packed background color, or 0 for the default.
+	 * @param attributes Display attributes, with bit n set for SGR code n.
+	 * @return Shared style instance.
+	 */
+	public static BlumeStyle toStyle( int fg, int bg, int attributes ) {
+		String[] attrs = new String[Integer.bitCount( attributes & 0x3FE )];
+		int count = 0;
+		
+		for ( int code = 1; code <= 9; code++ ) {
+			if ( ( attributes & ( 1 << code ) ) != 0 ) {
+				attrs[count++] = String.valueOf( code );
+			}
+		}
+		
+		return BlumeStyle.of( ( fg != 0 ) ? BlumeColor.fromPacked( fg ) : null,
+				( bg != 0 ) ? BlumeColor.fromPacked( bg ) : null, attrs );
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return Packed foreground color in effect, or 0 for the default.
+	 */
+	public int getFg() {
+		return this.fg;
+	}
+	/**
+	 * @return Packed background color in effect, or 0 for the default.
+	 */
+	public int getBg() {
+		return this.bg;
+	}
+	/**
+	 * @return Display attributes in effect, with bit n set for SGR code n.
+	 */
+	public int getAttributes() {
+		return this.attributes;
+	}
+	/**
+	 * @return The Blume style in effect.
+	 */
+	public BlumeStyle getStyle() {
+		return toStyle( this.fg, this.bg, this.attributes );
+	}
+}
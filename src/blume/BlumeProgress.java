@@ -0,0 +1,792 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeProgress.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Live progress bars and spinners for many concurrent tasks.
+ * 
+ * A task reports progress by adding to its own atomic counter, which
+ * takes no locks and does no I/O, so reporting costs the same however
+ * many tasks there are. A single render thread redraws every task at a
+ * fixed frame rate: it moves the cursor back up over the previous frame,
+ * erases and rewrites each line, and hands the whole frame to the output
+ * in one write. Frames in which nothing changed are skipped.
+ * 
+ * A task with a total is drawn as a bar filled in its color, with an
+ * eighth block for the partly filled cell, and a task without one as a
+ * spinner. Lines printed with {@link #println(Object, BlumeStyle)} appear
+ * above the bars instead of being torn by them.
+ * 
+ * Example:
+ * <pre>
+ * BlumeProgress progress = new BlumeProgress();
+ * BlumeProgress.Task download = progress.addTask( "download", bytes );
+ * 
+ * download.add( read );  // From any thread
+ * ...
+ * download.done();
+ * progress.stop();
+ * </pre>
+ * 
+ * Without ANSI support nothing is redrawn: each task is printed as a
+ * plain line once, when it is done or when the progress is stopped.
+ */
+public class BlumeProgress {
+	/**
+	 * Default number of frames drawn per second.
+	 */
+	public static final int _DEFAULT_FPS_ = 10;
+	/**
+	 * Default width in columns of a bar.
+	 */
+	public static final int _DEFAULT_BAR_WIDTH_ = 30;
+	/**
+	 * Width in columns lines are cut to when the COLUMNS environment
+	 * variable does not give the terminal's width. A line which wraps
+	 * would throw off moving back up over the frame.
+	 */
+	public static final int _DEFAULT_COLUMNS_ = 80;
+	/**
+	 * Default size in bytes of the render thread's output buffer, which
+	 * holds a whole frame of a few hundred bars.
+	 */
+	protected static final int _WRITER_CAPACITY_ = 256 * 1024;
+	/**
+	 * Time in nanoseconds each spinner glyph is shown, whatever the frame rate.
+	 */
+	protected static final long _SPINNER_NANOS_ = TimeUnit.MILLISECONDS.toNanos( 100 );
+	/**
+	 * Spinner glyphs, shown in turn (braille patterns).
+	 */
+	protected static final int[] _SPINNER_ = { '\u280B', '\u2819', '\u2839', '\u2838', '\u283C', '\u2834', '\u2826', '\u2827', '\u2807', '\u280F' };
+	/**
+	 * Glyphs of a cell filled by 0 to 7 eighths from the left (left eighth
+	 * blocks).
+	 */
+	protected static final int[] _EIGHTHS_ = { ' ', '\u258F', '\u258E', '\u258D', '\u258C', '\u258B', '\u258A', '\u2589' };
+	/**
+	 * Glyph of a filled cell.
+	 */
+	protected static final int _FULL_ = '\u2588'; // Full block
+	/**
+	 * Glyph shown in place of a spinner when its task is done.
+	 */
+	protected static final int _CHECK_ = '\u2713'; // Check mark
+	/**
+	 * Default packed color bars and spinners are filled in.
+	 */
+	protected static final int _DEFAULT_COLOR_ = BlumeColor.pack24Bit( 0x4C, 0xAF, 0x50 );
+	/**
+	 * Packed background color of the unfilled part of a bar.
+	 */
+	protected static final int _TRACK_ = BlumeColor.pack8Bit( 237 );
+	/**
+	 * Escape sequence which erases the whole line the cursor is on.
+	 */
+	protected static final byte[] _ERASE_LINE_ = BlumeEncoder.ascii( ANSI._PREFIX_ + "2K" );
+	
+	/**
+	 * Writer frames are encoded into, used only by the render thread while
+	 * it runs.
+	 */
+	protected final BlumeWriter writer;
+	/**
+	 * Renderer which tracks the terminal's colors within a frame.
+	 */
+	protected final BlumeRenderer renderer;
+	/**
+	 * Tasks in the order they were added, which is the order they are drawn in.
+	 */
+	protected final List<Task> tasks = new CopyOnWriteArrayList<Task>();
+	/**
+	 * Lines waiting to be printed above the bars.
+	 */
+	protected final Queue<Line> lines = new ConcurrentLinkedQueue<Line>();
+	/**
+	 * Time in nanoseconds between two frames.
+	 */
+	protected final long frameNanos;
+	/**
+	 * Widest label of any task, in columns.
+	 */
+	protected volatile int labelWidth;
+	/**
+	 * Width in columns of a bar.
+	 */
+	protected volatile int barWidth = _DEFAULT_BAR_WIDTH_;
+	/**
+	 * Width in columns lines are cut to.
+	 */
+	protected volatile int columns;
+	/**
+	 * Number of lines of bars the last frame drew. Only used by the render thread.
+	 */
+	protected int drawnLines;
+	/**
+	 * Flag cleared when the progress is stopped.
+	 */
+	protected volatile boolean isRunning = true;
+	/**
+	 * Background thread which draws the frames.
+	 */
+	protected final Thread render;
+	
+	/**
+	 * Default constructor which draws to {@link blume.Blume#getOut()} at the
+	 * default frame rate.
+	 */
+	public BlumeProgress() {
+		this( new BlumeWriter( new Blume.OutStream(), _WRITER_CAPACITY_, false ), _DEFAULT_FPS_ );
+	}
+	
+	/**
+	 * Constructor for progress drawn through any writer.
+	 * 
+	 * @param writer Writer used only by the render thread from now on. It
+	 * should not flush on new lines, so that each frame is one write.
+	 * @param fps Number of frames drawn per second.
+	 */
+	public BlumeProgress( BlumeWriter writer, int fps ) {
+		if ( fps <= 0 ) {
+			throw new IllegalArgumentException( "Frame rate must be positive: " + fps );
+		}
+		
+		this.writer = writer;
+		this.renderer = new BlumeRenderer( writer );
+		this.frameNanos = TimeUnit.SECONDS.toNanos( 1 ) / fps;
+		this.columns = getDefaultColumns();
+		
+		this.render = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				renderLoop();
+			}
+		}, "blume-progress" );
+		this.render.setDaemon( true );
+		this.render.start();
+	}
+	
+	/**
+	 * Adds a task drawn in the default color.
+	 * 
+	 * @param label Name the task is drawn with.
+	 * @param total Amount of work the task has to do, or 0 for a spinner.
+	 * @return The task, which progress is reported to.
+	 */
+	public Task addTask( String label, long total ) {
+		return addTask( label, total, null );
+	}
+	
+	/**
+	 * Adds a task.
+	 * 
+	 * @param label Name the task is drawn with.
+	 * @param total Amount of work the task has to do, or 0 for a spinner.
+	 * @param color Color the bar or spinner is filled in, or null for the default.
+	 * @return The task, which progress is reported to.
+	 */
+	public synchronized Task addTask( String label, long total, BlumeColor color ) {
+		Task task = new Task( label, total, ( color != null ) ? color.getPacked() : _DEFAULT_COLOR_ );
+		
+		this.labelWidth = Math.max( this.labelWidth, BlumeParser.getDisplayWidth( label ) );
+		this.tasks.add( task );
+		
+		return task;
+	}
+	
+	/**
+	 * Prints a line above the bars with the next frame.
+	 * 
+	 * @param text Text of a single line.
+	 * @param style
+	 */
+	public <T> void println( T text, BlumeStyle style ) {
+		this.lines.add( new Line( text, ( style != null ) ? style : BlumeStyle.of() ) );
+	}
+	
+	/**
+	 * Prints a line above the bars with the next frame, with various
+	 * modifiers for text color and display attributes.
+	 * 
+	 * @param text Text of a single line.
+	 * @param mods
+	 */
+	public <T> void println( T text, String... mods ) {
+		println( text, BlumeStyle.of( mods ) );
+	}
+	
+	/**
+	 * Stops the render thread, draws a last frame showing every task as it
+	 * is now and flushes the writer. Progress reported afterwards is not
+	 * drawn.
+	 */
+	public void stop() {
+		this.isRunning = false;
+		
+		LockSupport.unpark( this.render );
+		
+		boolean isInterrupted = false;
+		while ( this.render.isAlive() ) {
+			try {
+				this.render.join();
+			} catch ( InterruptedException e ) {
+				isInterrupted = true;
+			}
+		}
+		
+		// The render thread is gone, so the writer is this thread's now
+		render( true );
+		
+		if ( isInterrupted ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Body of the render thread.
+	 */
+	protected void renderLoop() {
+		long next = System.nanoTime();
+		
+		while ( this.isRunning ) {
+			render( false );
+			
+			next += this.frameNanos;
+			
+			long delay;
+			while ( this.isRunning && ( delay = next - System.nanoTime() ) > 0 ) {
+				LockSupport.parkNanos( this, delay );
+			}
+			
+			// Skip the frames missed while falling behind rather than drawing them back to back
+			if ( next - System.nanoTime() < -this.frameNanos ) {
+				next = System.nanoTime();
+			}
+		}
+	}
+	
+	/**
+	 * Draws a frame if anything changed since the last one.
+	 * 
+	 * @param isFinal Whether this is the last frame.
+	 */
+	protected void render( boolean isFinal ) {
+		if ( !BlumeText.getIsANSIColor() ) {
+			renderPlain( isFinal );
+			
+			return;
+		}
+		
+		// The list only grows, so the first count tasks stay the same during the frame
+		int count = this.tasks.size();
+		long now = System.nanoTime();
+		boolean isChanged = isFinal || count != this.drawnLines || !this.lines.isEmpty();
+		
+		for ( int i = 0; i < count && !isChanged; i++ ) {
+			isChanged = this.tasks.get( i ).getIsChanged( now );
+		}
+		
+		if ( !isChanged ) {
+			return;
+		}
+		
+		// Move back up to the first line of the last frame
+		if ( this.drawnLines > 0 ) {
+			this.writer.ensure( BlumeWriter._MIN_CAPACITY_ );
+			
+			int offset = BlumeEncoder.encodeBytes( this.writer.buffer, this.writer.position, BlumeEncoder._PREFIX_ );
+			
+			offset = BlumeEncoder.encodeDecimal( this.writer.buffer, offset, this.drawnLines );
+			this.writer.buffer[offset++] = 'A';
+			this.writer.position = offset;
+		}
+		
+		Line line;
+		while ( ( line = this.lines.poll() ) != null ) {
+			this.writer.writeBytes( _ERASE_LINE_ );
+			this.renderer.print( line.text, line.style );
+			this.renderer.reset();
+			this.writer.writeNewline();
+		}
+		
+		for ( int i = 0; i < count; i++ ) {
+			this.writer.writeBytes( _ERASE_LINE_ );
+			
+			drawTask( this.tasks.get( i ), now );
+			
+			this.renderer.reset();
+			this.writer.writeNewline();
+		}
+		
+		this.drawnLines = count;
+		this.writer.flush();
+	}
+	
+	/**
+	 * Prints each task which is done, or every task on the last frame, as
+	 * a plain line once, along with any waiting lines.
+	 * 
+	 * @param isFinal Whether this is the last frame.
+	 */
+	protected void renderPlain( boolean isFinal ) {
+		boolean isWritten = false;
+		
+		Line line;
+		while ( ( line = this.lines.poll() ) != null ) {
+			this.writer.writeText( line.text );
+			this.writer.writeNewline();
+			
+			isWritten = true;
+		}
+		
+		int count = this.tasks.size();
+		
+		for ( int i = 0; i < count; i++ ) {
+			Task task = this.tasks.get( i );
+			
+			if ( !task.isPrinted && ( isFinal || task.isDone ) ) {
+				task.isPrinted = true;
+				
+				writePadded( task.label );
+				writeCounts( task, task.count.get(), task.total );
+				writeMessage( task.message, this.labelWidth + 1 );
+				this.writer.writeNewline();
+				
+				isWritten = true;
+			}
+		}
+		
+		if ( isWritten ) {
+			this.writer.flush();
+		}
+	}
+	
+	/**
+	 * Draws one task's line.
+	 * 
+	 * @param task
+	 * @param now Time of the frame from {@link System#nanoTime()}.
+	 */
+	protected void drawTask( Task task, long now ) {
+		long count = task.count.get();
+		long total = task.total;
+		String message = task.message;
+		boolean isDone = task.isDone;
+		int depth = BlumeText.getColorDepth();
+		int color = BlumeQuantizer.quantize( task.color, depth );
+		int width = this.labelWidth + 1;
+		
+		writePadded( task.label );
+		
+		if ( total > 0 ) {
+			int barWidth = this.barWidth;
+			long done = Math.min( Math.max( count, 0 ), total );
+			// In floating point, since done * barWidth * 8 overflows for large totals
+			long eighths = ( done == total ) ? barWidth * 8 : (long) ( (double) done / total * barWidth * 8 );
+			int full = (int) ( eighths >> 3 );
+			
+			// One escape sequence covers the whole bar: the fill over the track
+			this.renderer.change( color, BlumeQuantizer.quantize( _TRACK_, depth ), 0 );
+			
+			for ( int i = 0; i < full; i++ ) {
+				this.writer.writeCodePoint( _FULL_ );
+			}
+			
+			if ( full < barWidth ) {
+				this.writer.writeCodePoint( _EIGHTHS_[(int) eighths & 7] );
+			}
+			
+			for ( int i = full + 1; i < barWidth; i++ ) {
+				this.writer.writeByte( ' ' );
+			}
+			
+			this.renderer.reset();
+			this.writer.writeByte( ' ' );
+			
+			width += barWidth + 1;
+		} else {
+			this.renderer.change( color, 0, 0 );
+			this.writer.writeCodePoint( isDone ? _CHECK_ : _SPINNER_[getSpinnerIndex( now )] );
+			this.renderer.reset();
+			this.writer.writeByte( ' ' );
+			
+			width += 2;
+		}
+		
+		width += writeCounts( task, count, total );
+		
+		writeMessage( message, width );
+		
+		task.drawnCount = count;
+		task.drawnTotal = total;
+		task.drawnMessage = message;
+		task.drawnIsDone = isDone;
+		task.drawnSpinner = getSpinnerIndex( now );
+	}
+	
+	/**
+	 * Writes a label padded to the widest label and one space.
+	 * 
+	 * @param label
+	 */
+	protected void writePadded( String label ) {
+		this.writer.writeText( label );
+		
+		for ( int i = BlumeParser.getDisplayWidth( label ); i <= this.labelWidth; i++ ) {
+			this.writer.writeByte( ' ' );
+		}
+	}
+	
+	/**
+	 * Writes how far a task has come: the percentage and count out of the
+	 * total, or the count alone.
+	 * 
+	 * @param task
+	 * @param count
+	 * @param total
+	 * @return Width in columns of what was written.
+	 */
+	protected int writeCounts( Task task, long count, long total ) {
+		String counts;
+		
+		if ( total > 0 ) {
+			long done = Math.min( Math.max( count, 0 ), total );
+			// In floating point, since done * 100 overflows for large totals
+			long percent = ( done == total ) ? 100 : (long) ( (double) done / total * 100 );
+			
+			counts = ( ( percent < 10 ) ? "  " : ( percent < 100 ) ? " " : "" ) + percent + "% " + count + "/" + total;
+		} else {
+			counts = Long.toString( count );
+		}
+		
+		this.writer.writeASCII( counts );
+		
+		return counts.length();
+	}
+	
+	/**
+	 * Writes a task's message after two spaces, cut off where the line
+	 * would wrap.
+	 * 
+	 * @param message Message, or null for none.
+	 * @param width Width in columns of the line so far.
+	 */
+	protected void writeMessage( String message, int width ) {
+		if ( message == null || message.isEmpty() ) {
+			return;
+		}
+		
+		int columns = this.columns - width - 2;
+		
+		if ( columns <= 0 ) {
+			return;
+		}
+		
+		this.writer.writeASCII( "  " );
+		
+		for ( int i = 0; i < message.length(); ) {
+			int codePoint = message.codePointAt( i );
+			int codePointWidth = BlumeParser.getWidth( codePoint );
+			
+			if ( codePointWidth > columns ) {
+				break;
+			}
+			
+			// Control characters would break the line
+			if ( codePoint >= ' ' ) {
+				this.writer.writeCodePoint( codePoint );
+			}
+			
+			columns -= codePointWidth;
+			i += Character.charCount( codePoint );
+		}
+	}
+	
+	/**
+	 * @param now Time from {@link System#nanoTime()}.
+	 * @return Index of the spinner glyph shown at a time.
+	 */
+	protected static int getSpinnerIndex( long now ) {
+		return (int) ( ( now / _SPINNER_NANOS_ ) % _SPINNER_.length );
+	}
+	
+	/**
+	 * @return Width of the terminal from the COLUMNS environment variable,
+	 * or {@link #_DEFAULT_COLUMNS_}.
+	 */
+	protected static int getDefaultColumns() {
+		String columns = System.getenv( "COLUMNS" );
+		
+		if ( columns != null ) {
+			try {
+				int value = Integer.parseInt( columns.trim() );
+				
+				if ( value > 0 ) {
+					return value;
+				}
+			} catch ( NumberFormatException e ) {
+				// Fall back to the default width
+			}
+		}
+		
+		return _DEFAULT_COLUMNS_;
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return Number of tasks added.
+	 */
+	public int getTaskCount() {
+		return this.tasks.size();
+	}
+	/**
+	 * @return Number of frames drawn per second at most.
+	 */
+	public int getFps() {
+		return (int) ( TimeUnit.SECONDS.toNanos( 1 ) / this.frameNanos );
+	}
+	/**
+	 * @return Width in columns of a bar.
+	 */
+	public int getBarWidth() {
+		return this.barWidth;
+	}
+	/**
+	 * @return Width in columns lines are cut to.
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+	/**
+	 * Sets the width in columns of a bar.
+	 * 
+	 * @param _barWidth
+	 */
+	public void setBarWidth( int _barWidth ) {
+		if ( _barWidth <= 0 ) {
+			throw new IllegalArgumentException( "Bar width must be positive: " + _barWidth );
+		}
+		
+		this.barWidth = _barWidth;
+	}
+	/**
+	 * Sets the width in columns lines are cut to, i.e., the terminal's width.
+	 * 
+	 * @param _columns
+	 */
+	public void setColumns( int _columns ) {
+		if ( _columns <= 0 ) {
+			throw new IllegalArgumentException( "Columns must be positive: " + _columns );
+		}
+		
+		this.columns = _columns;
+	}
+	
+	/**
+	 * One task's progress. Every method may be called from any thread;
+	 * reporting progress only updates an atomic counter.
+	 */
+	public static class Task {
+		/**
+		 * Name the task is drawn with.
+		 */
+		protected final String label;
+		/**
+		 * Packed color the bar or spinner is filled in.
+		 */
+		protected final int color;
+		/**
+		 * Amount of work done so far.
+		 */
+		protected final AtomicLong count = new AtomicLong();
+		/**
+		 * Amount of work to do, or 0 for a spinner.
+		 */
+		protected volatile long total;
+		/**
+		 * Message drawn after the counts, or null.
+		 */
+		protected volatile String message;
+		/**
+		 * Flag set when the task is done.
+		 */
+		protected volatile boolean isDone;
+		
+		/*
+		 * What the last frame drew, only used by the render thread.
+		 */
+		protected long drawnCount = -1;
+		protected long drawnTotal;
+		protected String drawnMessage;
+		protected boolean drawnIsDone;
+		protected int drawnSpinner = -1;
+		protected boolean isPrinted;
+		
+		/**
+		 * Constructor for a task.
+		 * 
+		 * @param label
+		 * @param total
+		 * @param color
+		 */
+		protected Task( String label, long total, int color ) {
+			this.label = label;
+			this.total = total;
+			this.color = color;
+		}
+		
+		/**
+		 * Adds to the amount of work done.
+		 * 
+		 * @param amount
+		 */
+		public void add( long amount ) {
+			this.count.addAndGet( amount );
+		}
+		
+		/**
+		 * Adds one to the amount of work done.
+		 */
+		public void increment() {
+			this.count.incrementAndGet();
+		}
+		
+		/**
+		 * Marks the task as done, filling its bar.
+		 */
+		public void done() {
+			long total = this.total;
+			
+			if ( total > 0 ) {
+				this.count.set( total );
+			}
+			
+			this.isDone = true;
+		}
+		
+		/**
+		 * Returns whether anything the task is drawn with changed since the
+		 * last frame.
+		 * 
+		 * @param now Time of the frame from {@link System#nanoTime()}.
+		 * @return True if the task has to be drawn again.
+		 */
+		protected boolean getIsChanged( long now ) {
+			return this.count.get() != this.drawnCount || this.total != this.drawnTotal
+					|| this.message != this.drawnMessage || this.isDone != this.drawnIsDone
+					|| ( this.total <= 0 && !this.isDone && getSpinnerIndex( now ) != this.drawnSpinner );
+		}
+		
+		/*
+		 * Accessors.
+		 */
+		/**
+		 * @return Name the task is drawn with.
+		 */
+		public String getLabel() {
+			return this.label;
+		}
+		/**
+		 * @return Amount of work done so far.
+		 */
+		public long getCount() {
+			return this.count.get();
+		}
+		/**
+		 * @return Amount of work to do, or 0 for a spinner.
+		 */
+		public long getTotal() {
+			return this.total;
+		}
+		/**
+		 * @return Message drawn after the counts, or null.
+		 */
+		public String getMessage() {
+			return this.message;
+		}
+		/**
+		 * @return True if the task is done.
+		 */
+		public boolean getIsDone() {
+			return this.isDone;
+		}
+		/**
+		 * Sets the amount of work done.
+		 * 
+		 * @param _count
+		 */
+		public void setCount( long _count ) {
+			this.count.set( _count );
+		}
+		/**
+		 * Sets the amount of work to do, or 0 to draw the task as a spinner.
+		 * 
+		 * @param _total
+		 */
+		public void setTotal( long _total ) {
+			this.total = _total;
+		}
+		/**
+		 * Sets the message drawn after the counts.
+		 * 
+		 * @param _message Message, or null for none.
+		 */
+		public void setMessage( String _message ) {
+			this.message = _message;
+		}
+	}
+	
+	/**
+	 * Line waiting to be printed above the bars.
+	 */
+	private static final class Line {
+		private final Object text;
+		private final BlumeStyle style;
+		
+		Line( Object text, BlumeStyle style ) {
+			this.text = text;
+			this.style = style;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeQuantizer.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Reduces colors to what a terminal can display: the xterm 256-color
+ * palette's color cube and gray ramp, or the 16 basic colors.
+ * 
+ * Each conversion is a single lookup into a precomputed table of 32x32x32
+ * cells, which holds the nearest palette color to the center of each cell
+ * by the "redmean" weighted distance. The tables are built the first time
+ * they are needed. {@link #nearest256(int)} and {@link #nearest16(int)}
+ * search every palette color instead, for callers which need the exact
+ * nearest color.
+ * 
+ * Blume quantizes colors to the color depth set with
+ * {@link blume.BlumeText#setColorDepth(int)} as they are encoded.
+ */
+public final class BlumeQuantizer {
+	/**
+	 * Bits of each color channel used to index the lookup tables.
+	 */
+	public static final int _LUT_BITS_ = 5;
+	/**
+	 * Mask of a channel's bits once shifted down to the table's resolution.
+	 */
+	private static final int _LUT_MASK_ = ( 1 << _LUT_BITS_ ) - 1;
+	/**
+	 * First palette value of the 256-color palette's color cube and gray
+	 * ramp. The 16 basic colors below it are left out because terminals
+	 * theme them freely.
+	 */
+	protected static final int _FIRST_256_ = 16;
+	
+	/**
+	 * Nearest basic color to each of the 256 palette colors.
+	 */
+	private static final byte[] _8_BIT_TO_BASIC_ = new byte[256];
+	
+	static {
+		for ( int i = 0; i < 256; i++ ) {
+			_8_BIT_TO_BASIC_[i] = (byte) ( ( i < 16 ) ? i : nearest16( BlumeColor._PALETTE_RGB_[i] ) );
+		}
+	}
+	
+	/**
+	 * Static methods only.
+	 */
+	private BlumeQuantizer() {
+	}
+	
+	/**
+	 * Lookup table into the 256-color palette, built on first use.
+	 */
+	private static final class Palette256 {
+		static final byte[] _LUT_ = build( _FIRST_256_, 256 );
+	}
+	
+	/**
+	 * Lookup table into the 16 basic colors, built on first use.
+	 */
+	private static final class Palette16 {
+		static final byte[] _LUT_ = build( 0, 16 );
+	}
+	
+	/**
+	 * Reduces a packed color to a color depth. Colors the depth can
+	 * already display are returned unchanged.
+	 * 
+	 * @param packed Packed color, or 0 for none.
+	 * @param depth One of the BlumeText._DEPTH_ constants.
+	 * @return Packed 8-bit or basic color, or the color itself.
+	 */
+	public static int quantize( int packed, int depth ) {
+		if ( depth >= BlumeText._DEPTH_24_BIT_ || packed == 0 ) {
+			return packed;
+		}
+		
+		if ( BlumeColor.isPacked24Bit( packed ) ) {
+			int rgb = BlumeColor.unpackRGB( packed );
+			
+			return ( depth >= BlumeText._DEPTH_8_BIT_ ) ? BlumeColor.pack8Bit( toPalette256( rgb ) )
+					: BlumeColor.packBasic( toPalette16( rgb ) );
+		}
+		
+		if ( BlumeColor.isPacked8Bit( packed ) && depth < BlumeText._DEPTH_8_BIT_ ) {
+			return BlumeColor.packBasic( _8_BIT_TO_BASIC_[BlumeColor.unpackColorValue( packed )] );
+		}
+		
+		return packed;
+	}
+	
+	/**
+	 * Reduces a color to the current color depth.
+	 * 
+	 * @param color
+	 * @return A shared palette color, a packed basic color or the color itself.
+	 */
+	public static BlumeColor quantize( BlumeColor color ) {
+		int packed = quantize( color.getPacked(), BlumeText.getColorDepth() );
+		
+		return ( packed == color.getPacked() ) ? color : BlumeColor.fromPacked( packed );
+	}
+	
+	/**
+	 * Gets the 256-color palette value nearest to a color by table lookup.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @return Palette value from 16 to 255.
+	 */
+	public static int toPalette256( int rgb ) {
+		return Palette256._LUT_[index( rgb )] & 0xFF;
+	}
+	
+	/**
+	 * Gets the basic color nearest to a color by table lookup.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @return Basic color from 0 to 15.
+	 */
+	public static int toPalette16( int rgb ) {
+		return Palette16._LUT_[index( rgb )];
+	}
+	
+	/**
+	 * Searches the 256-color palette's color cube and gray ramp for the
+	 * color nearest to a color.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @return Palette value from 16 to 255.
+	 */
+	public static int nearest256( int rgb ) {
+		return nearest( rgb, _FIRST_256_, 256 );
+	}
+	
+	/**
+	 * Searches the 16 basic colors for the color nearest to a color.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @return Basic color from 0 to 15.
+	 */
+	public static int nearest16( int rgb ) {
+		return nearest( rgb, 0, 16 );
+	}
+	
+	/**
+	 * Gets the perceptual distance between two colors, by the "redmean"
+	 * approximation: a Euclidean distance whose red and blue weights follow
+	 * the mean red of the two colors.
+	 * 
+	 * @param a Color as 0xRRGGBB.
+	 * @param b Color as 0xRRGGBB.
+	 * @return Squared distance.
+	 */
+	public static int distance( int a, int b ) {
+		int ra = ( a >> 16 ) & 0xFF;
+		int rb = ( b >> 16 ) & 0xFF;
+		int mean = ( ra + rb ) >> 1;
+		int dr = ra - rb;
+		int dg = ( ( a >> 8 ) & 0xFF ) - ( ( b >> 8 ) & 0xFF );
+		int db = ( a & 0xFF ) - ( b & 0xFF );
+		
+		return ( ( ( 512 + mean ) * dr * dr ) >> 8 ) + 4 * dg * dg + ( ( ( 767 - mean ) * db * db ) >> 8 );
+	}
+	
+	/**
+	 * Gets the lookup table index of a color's cell.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @return Table index.
+	 */
+	private static int index( int rgb ) {
+		int shift = 8 - _LUT_BITS_;
+		
+		return ( ( ( rgb >> ( 16 + shift ) ) & _LUT_MASK_ ) << ( 2 * _LUT_BITS_ ) )
+				| ( ( ( rgb >> ( 8 + shift ) ) & _LUT_MASK_ ) << _LUT_BITS_ )
+				| ( ( rgb >> shift ) & _LUT_MASK_ );
+	}
+	
+	/**
+	 * Builds a lookup table of the nearest palette color to the center of
+	 * each cell.
+	 * 
+	 * @param first First palette value searched.
+	 * @param end Palette value just past the last searched.
+	 * @return Lookup table.
+	 */
+	private static byte[] build( int first, int end ) {
+		int cells = 1 << _LUT_BITS_;
+		int shift = 8 - _LUT_BITS_;
+		int half = 1 << ( shift - 1 );
+		byte[] lut = new byte[cells * cells * cells];
+		
+		for ( int i = 0; i < lut.length; i++ ) {
+			int r = ( ( i >> ( 2 * _LUT_BITS_ ) ) << shift ) + half;
+			int g = ( ( ( i >> _LUT_BITS_ ) & _LUT_MASK_ ) << shift ) + half;
+			int b = ( ( i & _LUT_MASK_ ) << shift ) + half;
+			
+			lut[i] = (byte) nearest( ( r << 16 ) | ( g << 8 ) | b, first, end );
+		}
+		
+		return lut;
+	}
+	
+	/**
+	 * Searches a range of the palette for the color nearest to a color.
+	 * 
+	 * @param rgb Color as 0xRRGGBB.
+	 * @param first First palette value searched.
+	 * @param end Palette value just past the last searched.
+	 * @return Palette value.
+	 */
+	private static int nearest( int rgb, int first, int end ) {
+		int best = first;
+		int bestDistance = Integer.MAX_VALUE;
+		
+		for ( int i = first; i < end; i++ ) {
+			int distance = distance( rgb, BlumeColor._PALETTE_RGB_[i] );
+			
+			if ( distance < bestDistance ) {
+				best = i;
+				bestDistance = distance;
+			}
+		}
+		
+		return best;
+	}
+}
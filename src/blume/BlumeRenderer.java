@@ -0,0 +1,445 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeRenderer.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Renderer which tracks the terminal's current colors and display
+ * attributes and only writes the escape codes which change between one
+ * styled span and the next.
+ * 
+ * Where {@link blume.Blume} and {@link blume.BlumeWriter} wrap every span in
+ * a complete escape sequence and a reset, a renderer writes, e.g., only a new
+ * background color, or 22 to turn bold off, and resets the terminal only at
+ * the end of a line or when flushed. A line with many colored tokens then
+ * costs a fraction of the bytes.
+ * 
+ * The renderer counts the escape bytes it writes along with the escape bytes
+ * the same spans would have taken with a full sequence and reset each, so the
+ * saving can be measured with {@link #getEscapeBytes()} and
+ * {@link #getBaselineEscapeBytes()}.
+ * 
+ * Example:
+ * <pre>
+ * BlumeRenderer renderer = new BlumeRenderer( new BlumeWriter() );
+ * 
+ * renderer.print( "GET ", method );
+ * renderer.print( "/index.html ", path );
+ * renderer.println( "200", ok );
+ * renderer.flush();
+ * </pre>
+ */
+public class BlumeRenderer {
+	/**
+	 * Writer the renderer's output is encoded into.
+	 */
+	protected final BlumeWriter writer;
+	/**
+	 * Buffer escape sequences are encoded in before they are written, kept
+	 * by the renderer so that rendering on a virtual thread does not
+	 * allocate one for every change.
+	 */
+	protected final byte[] scratch = new byte[BlumeEncoder._SCRATCH_SIZE_];
+	/**
+	 * Packed foreground color the terminal is currently in, or 0 for the default.
+	 */
+	protected int fg;
+	/**
+	 * Packed background color the terminal is currently in, or 0 for the default.
+	 */
+	protected int bg;
+	/**
+	 * Display attributes the terminal is currently in.
+	 */
+	protected int attributes;
+	/**
+	 * Flag set when the terminal is in a state the renderer cannot describe,
+	 * so the next span has to start from a reset.
+	 */
+	protected boolean isUnknown;
+	/**
+	 * Escape bytes written so far.
+	 */
+	protected long escapeBytes;
+	/**
+	 * Escape bytes the same spans would have taken with a full escape
+	 * sequence and reset each.
+	 */
+	protected long baselineEscapeBytes;
+	
+	/**
+	 * Constructor for a renderer which writes through a BlumeWriter.
+	 * 
+	 * @param writer
+	 */
+	public BlumeRenderer( BlumeWriter writer ) {
+		this.writer = writer;
+	}
+	
+	/**
+	 * Prints a string in a style, changing only what differs from the
+	 * previous span.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void print( T text, BlumeStyle style ) {
+		if ( BlumeText.getIsANSIColor() ) {
+			change( style );
+		}
+		
+		this.writer.writeText( text );
+		this.writer.endCall();
+	}
+	
+	/**
+	 * Prints a range of characters in a style, changing only what differs
+	 * from the previous span.
+	 * 
+	 * @param chars
+	 * @param start Index of the first character.
+	 * @param end Index just past the last character.
+	 * @param style
+	 */
+	protected void print( CharSequence chars, int start, int end, BlumeStyle style ) {
+		if ( BlumeText.getIsANSIColor() ) {
+			change( style );
+		}
+		
+		this.writer.writeText( chars, start, end );
+		this.writer.endCall();
+	}
+	
+	/**
+	 * Prints a string in a style, changing only what differs from the
+	 * previous span, then resets the terminal and ends the line.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void println( T text, BlumeStyle style ) {
+		if ( BlumeText.getIsANSIColor() ) {
+			change( style );
+		}
+		
+		this.writer.writeText( text );
+		
+		println();
+	}
+	
+	/**
+	 * Resets the terminal if needed and ends the line.
+	 */
+	public void println() {
+		reset();
+		
+		this.writer.writeNewline();
+		this.writer.endCall();
+	}
+	
+	/**
+	 * Resets the terminal if it is not already in its default state.
+	 */
+	public void reset() {
+		if ( this.fg != 0 || this.bg != 0 || this.attributes != 0 || this.isUnknown ) {
+			this.writer.writeBytes( BlumeEncoder._RESET_ );
+			this.escapeBytes += BlumeEncoder._RESET_.length;
+			
+			this.fg = 0;
+			this.bg = 0;
+			this.attributes = 0;
+			this.isUnknown = false;
+		}
+	}
+	
+	/**
+	 * Resets the terminal and flushes the writer.
+	 */
+	public void flush() {
+		reset();
+		
+		this.writer.flush();
+	}
+	
+	/**
+	 * @return The number of escape bytes written so far.
+	 */
+	public long getEscapeBytes() {
+		return this.escapeBytes;
+	}
+	
+	/**
+	 * @return The number of escape bytes the same output would have taken
+	 * with a complete escape sequence and reset around every span, as
+	 * {@link blume.BlumeWriter} writes it.
+	 */
+	public long getBaselineEscapeBytes() {
+		return this.baselineEscapeBytes;
+	}
+	
+	/**
+	 * Writes the shortest escape sequence which takes the terminal from its
+	 * current state to a style's state.
+	 * 
+	 * @param style
+	 */
+	protected void change( BlumeStyle style ) {
+		this.baselineEscapeBytes += style.getPrefixBytes().length + style.getResetBytes().length;
+		
+		if ( !style.getIsDiffable() || this.isUnknown
+				|| style.getPrefixBytes().length + 2 > BlumeEncoder._SCRATCH_SIZE_ ) {
+			// Start over from a clean terminal with the style's own sequence
+			reset();
+			
+			this.writer.writeBytes( style.getPrefixBytes() );
+			this.escapeBytes += style.getPrefixBytes().length;
+			
+			this.isUnknown = !style.getIsDiffable();
+			this.fg = style.getFg();
+			this.bg = style.getBg();
+			this.attributes = style.getAttributes();
+			
+			return;
+		}
+		
+		if ( style.getFg() == this.fg && style.getBg() == this.bg && style.getAttributes() == this.attributes ) {
+			return;
+		}
+		
+		byte[] delta = this.scratch;
+		int length = encodeDelta( delta, style.getFg(), style.getBg(), style.getAttributes() );
+		
+		// A reset followed by the style's own codes is sometimes shorter
+		int full = style.getIsPlain() ? BlumeEncoder._RESET_.length : style.getPrefixBytes().length + 2;
+		
+		if ( full < length ) {
+			length = encodeReset( delta, style );
+		}
+		
+		this.writer.writeBytes( delta, length );
+		this.escapeBytes += length;
+		
+		this.fg = style.getFg();
+		this.bg = style.getBg();
+		this.attributes = style.getAttributes();
+	}
+	
+	/**
+	 * Writes the shortest escape sequence which takes the terminal from its
+	 * current state to packed foreground and background colors and display
+	 * attributes, e.g., those of a screen cell.
+	 * 
+	 * @param fg Packed foreground color, or 0 for the default color.
+	 * @param bg Packed background color, or 0 for the default color.
+	 * @param attributes Display attributes with bit n set for SGR code n.
+	 */
+	protected void change( int fg, int bg, int attributes ) {
+		if ( this.isUnknown ) {
+			reset();
+		}
+		
+		if ( fg == this.fg && bg == this.bg && attributes == this.attributes ) {
+			return;
+		}
+		
+		byte[] scratch = this.scratch;
+		int half = BlumeEncoder._SCRATCH_SIZE_ / 2;
+		int length = encodeDelta( scratch, fg, bg, attributes );
+		
+		// A reset followed by the new state's codes is sometimes shorter
+		int full = encodeFull( scratch, half, fg, bg, attributes ) - half;
+		
+		if ( full < length ) {
+			this.writer.writeBytes( scratch, half, full );
+			this.escapeBytes += full;
+		} else {
+			this.writer.writeBytes( scratch, 0, length );
+			this.escapeBytes += length;
+		}
+		
+		this.fg = fg;
+		this.bg = bg;
+		this.attributes = attributes;
+	}
+	
+	/**
+	 * Encodes the codes which change only what differs between the current
+	 * state and a new one.
+	 * 
+	 * @param dst
+	 * @param fg
+	 * @param bg
+	 * @param attributes
+	 * @return Length of the escape sequence.
+	 */
+	protected int encodeDelta( byte[] dst, int fg, int bg, int attributes ) {
+		int offset = BlumeEncoder.encodeBytes( dst, 0, BlumeEncoder._PREFIX_ );
+		int body = offset;
+		
+		int removed = this.attributes & ~attributes;
+		int added = attributes & ~this.attributes;
+		
+		for ( int code = 22; code <= 29; code++ ) {
+			int off = BlumeStyle.getAttributesOff( code );
+			
+			if ( ( removed & off ) != 0 ) {
+				// 22 turns off both bold and faint and 25 both blinks, so turn back on whichever stays
+				offset = appendCode( dst, offset, body, code );
+				added |= attributes & off;
+				removed &= ~off;
+			}
+		}
+		
+		for ( int code = 1; code <= 9; code++ ) {
+			if ( ( added & ( 1 << code ) ) != 0 ) {
+				offset = appendCode( dst, offset, body, code );
+			}
+		}
+		
+		if ( fg != this.fg ) {
+			offset = appendColor( dst, offset, body, fg, false );
+		}
+		
+		if ( bg != this.bg ) {
+			offset = appendColor( dst, offset, body, bg, true );
+		}
+		
+		dst[offset++] = ANSI._TERMINATOR_;
+		
+		return offset;
+	}
+	
+	/**
+	 * Encodes a reset followed by the codes of a new state in one sequence.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param fg
+	 * @param bg
+	 * @param attributes
+	 * @return Offset just past the encoded bytes.
+	 */
+	protected static int encodeFull( byte[] dst, int offset, int fg, int bg, int attributes ) {
+		offset = BlumeEncoder.encodeBytes( dst, offset, BlumeEncoder._PREFIX_ );
+		
+		int body = offset;
+		
+		dst[offset++] = '0';
+		
+		for ( int code = 1; code <= 9; code++ ) {
+			if ( ( attributes & ( 1 << code ) ) != 0 ) {
+				offset = appendCode( dst, offset, body, code );
+			}
+		}
+		
+		if ( fg != 0 ) {
+			offset = appendColor( dst, offset, body, fg, false );
+		}
+		
+		if ( bg != 0 ) {
+			offset = appendColor( dst, offset, body, bg, true );
+		}
+		
+		dst[offset++] = ANSI._TERMINATOR_;
+		
+		return offset;
+	}
+	
+	/**
+	 * Encodes a reset followed by a style's own codes in one sequence.
+	 * 
+	 * @param dst
+	 * @param style
+	 * @return Length of the escape sequence.
+	 */
+	protected int encodeReset( byte[] dst, BlumeStyle style ) {
+		if ( style.getIsPlain() ) {
+			return BlumeEncoder.encodeReset( dst, 0 );
+		}
+		
+		byte[] prefix = style.getPrefixBytes();
+		int offset = BlumeEncoder.encodeBytes( dst, 0, BlumeEncoder._PREFIX_ );
+		
+		dst[offset++] = '0';
+		dst[offset++] = ANSI._DELIM_;
+		
+		// Copy the style's codes and terminator without its own prefix
+		int codes = BlumeEncoder._PREFIX_.length;
+		System.arraycopy( prefix, codes, dst, offset, prefix.length - codes );
+		
+		return offset + prefix.length - codes;
+	}
+	
+	/**
+	 * Encodes one SGR code, preceded by a delimiter unless it is the first.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param body Offset of the first code.
+	 * @param code
+	 * @return Offset just past the encoded bytes.
+	 */
+	private static int appendCode( byte[] dst, int offset, int body, int code ) {
+		if ( offset != body ) {
+			dst[offset++] = ANSI._DELIM_;
+		}
+		
+		return BlumeEncoder.encodeDecimal( dst, offset, code );
+	}
+	
+	/**
+	 * Encodes a color change, preceded by a delimiter unless it is the first.
+	 * 
+	 * @param dst
+	 * @param offset
+	 * @param body Offset of the first code.
+	 * @param packed Packed color, or 0 for the default color.
+	 * @param isBackground
+	 * @return Offset just past the encoded bytes.
+	 */
+	private static int appendColor( byte[] dst, int offset, int body, int packed, boolean isBackground ) {
+		if ( offset != body ) {
+			dst[offset++] = ANSI._DELIM_;
+		}
+		
+		if ( packed == 0 ) {
+			return BlumeEncoder.encodeDecimal( dst, offset, isBackground ? 49 : 39 );
+		}
+		
+		return BlumeEncoder.encodeColor( dst, offset, packed, isBackground );
+	}
+}
@@ -0,0 +1,511 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeScreen.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.Arrays;
+
+/**
+ * Double-buffered grid of terminal cells for full-screen output such as
+ * live dashboards.
+ * 
+ * Drawing goes to a back buffer. {@link #present()} compares it with the
+ * front buffer, which holds what the terminal was last sent, and writes
+ * only the cells which changed: the cursor is moved to the start of each
+ * run of changed cells, and the run is written with only the escape codes
+ * which change from one cell to the next. A screen which changes little
+ * from one frame to the next costs few bytes however large it is.
+ * 
+ * Each buffer keeps a cell's code point, packed foreground and background
+ * colors and display attributes in parallel int arrays. Every cell is one
+ * column wide.
+ * 
+ * Example:
+ * <pre>
+ * BlumeScreen screen = new BlumeScreen( new BlumeWriter( System.out, 1 &lt;&lt; 16, false ), 80, 24 );
+ * 
+ * screen.print( 0, 0, "CPU", BlumeStyle.of( BlumeText.Attribute.Bold ) );
+ * screen.print( 5, 0, load, BlumeStyle.of( BlumeColor.valueOf( 46 ) ) );
+ * screen.present();
+ * </pre>
+ * 
+ * Without ANSI support, each row which changed is printed as a plain line.
+ */
+public class BlumeScreen {
+	/**
+	 * Number of unchanged cells between two changed cells which are
+	 * rewritten rather than skipped with a cursor movement.
+	 */
+	protected static final int _GAP_ = 4;
+	/**
+	 * Code point of front buffer cells whose contents are unknown, which
+	 * never equals a drawn cell.
+	 */
+	protected static final int _UNKNOWN_ = -1;
+	
+	/**
+	 * Writer the screen's output is encoded into.
+	 */
+	protected final BlumeWriter writer;
+	/**
+	 * Renderer which tracks the terminal's colors and display attributes.
+	 */
+	protected final BlumeRenderer renderer;
+	/**
+	 * Width in columns.
+	 */
+	protected int width;
+	/**
+	 * Height in rows.
+	 */
+	protected int height;
+	/**
+	 * Code points of the cells as last sent to the terminal.
+	 */
+	protected int[] frontChars;
+	/**
+	 * Packed foreground colors of the cells as last sent to the terminal.
+	 */
+	protected int[] frontFg;
+	/**
+	 * Packed background colors of the cells as last sent to the terminal.
+	 */
+	protected int[] frontBg;
+	/**
+	 * Display attributes of the cells as last sent to the terminal.
+	 */
+	protected int[] frontAttributes;
+	/**
+	 * Code points of the cells being drawn.
+	 */
+	protected int[] backChars;
+	/**
+	 * Packed foreground colors of the cells being drawn.
+	 */
+	protected int[] backFg;
+	/**
+	 * Packed background colors of the cells being drawn.
+	 */
+	protected int[] backBg;
+	/**
+	 * Display attributes of the cells being drawn.
+	 */
+	protected int[] backAttributes;
+	/**
+	 * Column the terminal's cursor is at, or -1 if unknown.
+	 */
+	protected int cursorX = -1;
+	/**
+	 * Row the terminal's cursor is at, or -1 if unknown.
+	 */
+	protected int cursorY = -1;
+	
+	/**
+	 * Constructor for a screen of a size which writes through a BlumeWriter.
+	 * 
+	 * @param writer
+	 * @param width
+	 * @param height
+	 */
+	public BlumeScreen( BlumeWriter writer, int width, int height ) {
+		this.writer = writer;
+		this.renderer = new BlumeRenderer( writer );
+		
+		resize( width, height );
+	}
+	
+	/**
+	 * Changes the size of the screen. Both buffers are cleared, so the
+	 * next {@link #present()} redraws every cell.
+	 * 
+	 * @param width
+	 * @param height
+	 */
+	public void resize( int width, int height ) {
+		if ( width < 0 || height < 0 ) {
+			throw new IllegalArgumentException( "Screen size cannot be negative: " + width + "x" + height );
+		}
+		
+		int cells = width * height;
+		
+		this.width = width;
+		this.height = height;
+		this.frontChars = new int[cells];
+		this.frontFg = new int[cells];
+		this.frontBg = new int[cells];
+		this.frontAttributes = new int[cells];
+		this.backChars = new int[cells];
+		this.backFg = new int[cells];
+		this.backBg = new int[cells];
+		this.backAttributes = new int[cells];
+		
+		clear();
+		invalidate();
+	}
+	
+	/**
+	 * Marks every cell as unknown to the terminal, e.g., after something
+	 * else has written to it, so the next {@link #present()} redraws every
+	 * cell.
+	 */
+	public void invalidate() {
+		Arrays.fill( this.frontChars, _UNKNOWN_ );
+		
+		this.cursorX = -1;
+		this.cursorY = -1;
+	}
+	
+	/**
+	 * Clears the back buffer to blank cells in the default colors.
+	 */
+	public void clear() {
+		Arrays.fill( this.backChars, ' ' );
+		Arrays.fill( this.backFg, 0 );
+		Arrays.fill( this.backBg, 0 );
+		Arrays.fill( this.backAttributes, 0 );
+	}
+	
+	/**
+	 * Sets a cell of the back buffer. Cells outside the screen are ignored.
+	 * 
+	 * @param x Column.
+	 * @param y Row.
+	 * @param codePoint
+	 * @param fg Packed foreground color, or 0 for the default color.
+	 * @param bg Packed background color, or 0 for the default color.
+	 * @param attributes Display attributes with bit n set for SGR code n.
+	 */
+	public void set( int x, int y, int codePoint, int fg, int bg, int attributes ) {
+		if ( x < 0 || y < 0 || x >= this.width || y >= this.height ) {
+			return;
+		}
+		
+		int i = y * this.width + x;
+		
+		this.backChars[i] = codePoint;
+		this.backFg[i] = fg;
+		this.backBg[i] = bg;
+		this.backAttributes[i] = attributes;
+	}
+	
+	/**
+	 * Sets a cell of the back buffer in a style. Cells outside the screen
+	 * are ignored, as are modifiers of the style which are not SGR codes.
+	 * 
+	 * @param x Column.
+	 * @param y Row.
+	 * @param codePoint
+	 * @param style
+	 */
+	public void set( int x, int y, int codePoint, BlumeStyle style ) {
+		set( x, y, codePoint, style.getFg(), style.getBg(), style.getAttributes() );
+	}
+	
+	/**
+	 * Writes text into a row of the back buffer, one code point per cell,
+	 * cut off at the edge of the screen.
+	 * 
+	 * @param x Column of the first character.
+	 * @param y Row.
+	 * @param text
+	 * @param style
+	 * @return Column just past the last character.
+	 */
+	public int print( int x, int y, CharSequence text, BlumeStyle style ) {
+		int length = text.length();
+		
+		for ( int i = 0; i < length && x < this.width; x++ ) {
+			int codePoint = Character.codePointAt( text, i );
+			
+			set( x, y, codePoint, style );
+			
+			i += Character.charCount( codePoint );
+		}
+		
+		return x;
+	}
+	
+	/**
+	 * Fills a rectangle of the back buffer with one character in a style.
+	 * 
+	 * @param x Column of the left edge.
+	 * @param y Row of the top edge.
+	 * @param width
+	 * @param height
+	 * @param codePoint
+	 * @param style
+	 */
+	public void fill( int x, int y, int width, int height, int codePoint, BlumeStyle style ) {
+		for ( int row = Math.max( y, 0 ); row < Math.min( y + height, this.height ); row++ ) {
+			for ( int column = Math.max( x, 0 ); column < Math.min( x + width, this.width ); column++ ) {
+				set( column, row, codePoint, style );
+			}
+		}
+	}
+	
+	/**
+	 * Sends the cells which changed since the last call to the terminal,
+	 * then flushes the writer. The back buffer is left as it is, so the
+	 * next frame can be drawn over it or cleared first.
+	 * 
+	 * @return The number of changed cells.
+	 */
+	public int present() {
+		int changed = 0;
+		
+		if ( !BlumeText.getIsANSIColor() ) {
+			for ( int y = 0; y < this.height; y++ ) {
+				changed += presentPlainRow( y );
+			}
+			
+			this.writer.flush();
+			
+			return changed;
+		}
+		
+		for ( int y = 0; y < this.height; y++ ) {
+			int row = y * this.width;
+			int x = 0;
+			
+			while ( x < this.width ) {
+				if ( isSame( row + x ) ) {
+					x++;
+					
+					continue;
+				}
+				
+				// Extend the run over short gaps of unchanged cells which need no style change
+				int last = x;
+				
+				for ( int j = x + 1; j < this.width && j - last <= _GAP_ + 1; j++ ) {
+					if ( !isSame( row + j ) ) {
+						last = j;
+					} else if ( !isSameStyle( row + j, row + j - 1 ) ) {
+						break;
+					}
+				}
+				
+				moveTo( x, y );
+				
+				for ( int j = x; j <= last; j++ ) {
+					if ( !isSame( row + j ) ) {
+						changed++;
+					}
+					
+					drawCell( row + j );
+				}
+				
+				x = last + 1;
+				
+				// The cursor's position after the last column depends on the terminal
+				this.cursorX = ( x < this.width ) ? x : -1;
+			}
+		}
+		
+		this.renderer.reset();
+		this.writer.flush();
+		
+		return changed;
+	}
+	
+	/**
+	 * Prints a whole row as a plain line if any of its cells changed.
+	 * 
+	 * @param y
+	 * @return The number of changed cells.
+	 */
+	protected int presentPlainRow( int y ) {
+		int row = y * this.width;
+		int changed = 0;
+		
+		for ( int i = row; i < row + this.width; i++ ) {
+			if ( !isSame( i ) ) {
+				changed++;
+			}
+		}
+		
+		if ( changed > 0 ) {
+			for ( int i = row; i < row + this.width; i++ ) {
+				copyCell( i );
+				
+				this.writer.writeCodePoint( this.backChars[i] );
+			}
+			
+			this.writer.writeNewline();
+		}
+		
+		return changed;
+	}
+	
+	/**
+	 * Writes one cell from the back buffer and records it in the front
+	 * buffer.
+	 * 
+	 * @param i
+	 */
+	protected void drawCell( int i ) {
+		this.renderer.change( this.backFg[i], this.backBg[i], this.backAttributes[i] );
+		this.writer.writeCodePoint( this.backChars[i] );
+		
+		copyCell( i );
+	}
+	
+	/**
+	 * Moves the terminal's cursor to a cell unless it is already there,
+	 * using the shortest escape sequence.
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	protected void moveTo( int x, int y ) {
+		if ( x == this.cursorX && y == this.cursorY ) {
+			return;
+		}
+		
+		this.writer.ensure( BlumeWriter._MIN_CAPACITY_ );
+		
+		byte[] buffer = this.writer.buffer;
+		int offset = BlumeEncoder.encodeBytes( buffer, this.writer.position, BlumeEncoder._PREFIX_ );
+		
+		if ( y == this.cursorY && x > this.cursorX && this.cursorX >= 0 ) { // Forward along the row
+			offset = BlumeEncoder.encodeDecimal( buffer, offset, x - this.cursorX );
+			buffer[offset++] = 'C';
+		} else { // Row and column, counted from 1
+			offset = BlumeEncoder.encodeDecimal( buffer, offset, y + 1 );
+			buffer[offset++] = ANSI._DELIM_;
+			offset = BlumeEncoder.encodeDecimal( buffer, offset, x + 1 );
+			buffer[offset++] = 'H';
+		}
+		
+		this.writer.position = offset;
+		this.cursorX = x;
+		this.cursorY = y;
+	}
+	
+	/**
+	 * Returns whether a cell is the same in both buffers.
+	 * 
+	 * @param i
+	 * @return True if the cell did not change.
+	 */
+	protected boolean isSame( int i ) {
+		return this.frontChars[i] == this.backChars[i] && this.frontFg[i] == this.backFg[i]
+				&& this.frontBg[i] == this.backBg[i] && this.frontAttributes[i] == this.backAttributes[i];
+	}
+	
+	/**
+	 * Returns whether two cells of the back buffer have the same colors and
+	 * display attributes.
+	 * 
+	 * @param i
+	 * @param j
+	 * @return True if the cells' styles are the same.
+	 */
+	protected boolean isSameStyle( int i, int j ) {
+		return this.backFg[i] == this.backFg[j] && this.backBg[i] == this.backBg[j]
+				&& this.backAttributes[i] == this.backAttributes[j];
+	}
+	
+	/**
+	 * Copies a cell from the back buffer to the front buffer.
+	 * 
+	 * @param i
+	 */
+	protected void copyCell( int i ) {
+		this.frontChars[i] = this.backChars[i];
+		this.frontFg[i] = this.backFg[i];
+		this.frontBg[i] = this.backBg[i];
+		this.frontAttributes[i] = this.backAttributes[i];
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return The width of the screen in columns.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+	
+	/**
+	 * @return The height of the screen in rows.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @return The code point of a cell of the back buffer.
+	 */
+	public int getCodePoint( int x, int y ) {
+		return this.backChars[y * this.width + x];
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @return The packed foreground color of a cell of the back buffer.
+	 */
+	public int getFg( int x, int y ) {
+		return this.backFg[y * this.width + x];
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @return The packed background color of a cell of the back buffer.
+	 */
+	public int getBg( int x, int y ) {
+		return this.backBg[y * this.width + x];
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @return The display attributes of a cell of the back buffer.
+	 */
+	public int getAttributes( int x, int y ) {
+		return this.backAttributes[y * this.width + x];
+	}
+	
+	/**
+	 * @return The number of escape bytes written for colors and display
+	 * attributes so far.
+	 */
+	public long getEscapeBytes() {
+		return this.renderer.getEscapeBytes();
+	}
+}
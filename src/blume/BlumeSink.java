@@ -0,0 +1,398 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeSink.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Print stream which serializes writes with a {@link ReentrantLock}
+ * instead of the monitors {@link PrintStream} synchronizes on.
+ * 
+ * A virtual thread which blocks inside a synchronized block, e.g., while
+ * {@link System#out} waits on a slow terminal or a full pipe, stays
+ * pinned to its carrier thread. Threads waiting for this sink's lock park
+ * instead, freeing their carrier, and no method enters a monitor.
+ * 
+ * Writes are combined: a thread which finds the lock free writes its
+ * bytes straight through, while one which finds it taken queues a copy
+ * and waits. Whichever thread holds the lock next writes everything
+ * queued in one write, so under contention the number of writes to the
+ * underlying stream falls rather than the number of threads waiting.
+ * Every write has been handed to the underlying stream by the time the
+ * call returns, and a thread's writes keep their order.
+ * 
+ * Text is encoded as UTF-8, like {@link blume.BlumeWriter} output.
+ * 
+ * Memory held per thread is bounded: Blume's static print methods keep an
+ * 8 KB writer and a 1 KB scratch buffer for each platform thread, but a
+ * virtual thread keeps neither. It borrows a writer from a pool of one per
+ * processor for each call, and a new one is made only while every pooled
+ * writer is in use, so 100,000 virtual threads printing through this sink
+ * hold a few writers rather than about 900 MB of buffers.
+ * 
+ * Example:
+ * <pre>
+ * Blume.setOut( new BlumeSink() );
+ * </pre>
+ */
+public class BlumeSink extends PrintStream {
+	/**
+	 * Size in bytes of the buffer queued writes are combined in.
+	 */
+	protected static final int _BATCH_SIZE_ = 64 * 1024;
+	
+	/**
+	 * Stream the bytes are written to, only while holding the lock.
+	 */
+	protected final OutputStream target;
+	/**
+	 * Lock which serializes writes to the target.
+	 */
+	protected final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * Copies of writes waiting for the lock.
+	 */
+	protected final Queue<byte[]> pending = new ConcurrentLinkedQueue<byte[]>();
+	/**
+	 * Buffer queued writes are combined in, only used while holding the lock.
+	 */
+	protected final byte[] batch = new byte[_BATCH_SIZE_];
+	/**
+	 * Flag set when a write to the target fails.
+	 */
+	protected volatile boolean hasError;
+	
+	/**
+	 * Default constructor which writes to the standard output file
+	 * descriptor without any buffering of its own. Output printed through
+	 * {@link System#out} at the same time may come out of order.
+	 */
+	public BlumeSink() {
+		this( new FileOutputStream( FileDescriptor.out ) );
+	}
+	
+	/**
+	 * Constructor for a sink which writes to any stream.
+	 * 
+	 * @param target Stream which is only written to while holding the lock.
+	 */
+	public BlumeSink( OutputStream target ) {
+		super( target, false );
+		
+		if ( target == null ) {
+			throw new NullPointerException( "Blume requires an output stream." );
+		}
+		
+		this.target = target;
+	}
+	
+	@Override
+	public void write( int b ) {
+		write( new byte[] { (byte) b }, 0, 1 );
+	}
+	
+	@Override
+	public void write( byte[] b ) {
+		write( b, 0, b.length );
+	}
+	
+	@Override
+	public void write( byte[] b, int off, int len ) {
+		if ( len == 0 ) {
+			return;
+		}
+		
+		if ( this.lock.tryLock() ) {
+			try {
+				// Whatever was queued before this write goes first
+				drainPending();
+				writeTarget( b, off, len );
+			} finally {
+				this.lock.unlock();
+			}
+			
+			return;
+		}
+		
+		// The caller may reuse its buffer as soon as this returns
+		this.pending.add( Arrays.copyOfRange( b, off, off + len ) );
+		
+		this.lock.lock();
+		try {
+			// The previous holder may already have written the copy
+			drainPending();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	@Override
+	public void flush() {
+		this.lock.lock();
+		try {
+			drainPending();
+			
+			this.target.flush();
+		} catch ( IOException e ) {
+			handle( e );
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	@Override
+	public void close() {
+		this.lock.lock();
+		try {
+			drainPending();
+			
+			this.target.flush();
+			this.target.close();
+		} catch ( IOException e ) {
+			handle( e );
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean checkError() {
+		flush();
+		
+		return this.hasError;
+	}
+	
+	@Override
+	protected void setError() {
+		this.hasError = true;
+	}
+	
+	@Override
+	protected void clearError() {
+		this.hasError = false;
+	}
+	
+	/*
+	 * Text is encoded before taking the lock, and a line and its separator
+	 * are written together.
+	 */
+	@Override
+	public void print( boolean b ) {
+		writeString( String.valueOf( b ) );
+	}
+	
+	@Override
+	public void print( char c ) {
+		writeString( String.valueOf( c ) );
+	}
+	
+	@Override
+	public void print( int i ) {
+		writeString( String.valueOf( i ) );
+	}
+	
+	@Override
+	public void print( long l ) {
+		writeString( String.valueOf( l ) );
+	}
+	
+	@Override
+	public void print( float f ) {
+		writeString( String.valueOf( f ) );
+	}
+	
+	@Override
+	public void print( double d ) {
+		writeString( String.valueOf( d ) );
+	}
+	
+	@Override
+	public void print( char[] s ) {
+		writeString( new String( s ) );
+	}
+	
+	@Override
+	public void print( String s ) {
+		writeString( String.valueOf( s ) );
+	}
+	
+	@Override
+	public void print( Object obj ) {
+		writeString( String.valueOf( obj ) );
+	}
+	
+	@Override
+	public void println() {
+		writeString( BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( boolean x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( char x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( int x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( long x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( float x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( double x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( char[] x ) {
+		writeString( new String( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( String x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public void println( Object x ) {
+		writeString( String.valueOf( x ) + BlumeWriter._NEW_LINE_ );
+	}
+	
+	@Override
+	public PrintStream format( String format, Object... args ) {
+		writeString( String.format( format, args ) );
+		
+		return this;
+	}
+	
+	@Override
+	public PrintStream format( Locale l, String format, Object... args ) {
+		writeString( String.format( l, format, args ) );
+		
+		return this;
+	}
+	
+	/**
+	 * Encodes a string as UTF-8 and writes it in one write.
+	 * 
+	 * @param s
+	 */
+	protected void writeString( String s ) {
+		byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+		
+		write( bytes, 0, bytes.length );
+	}
+	
+	/**
+	 * Writes every queued write to the target, combining them into as few
+	 * writes as the batch buffer allows. Only called while holding the lock.
+	 */
+	protected void drainPending() {
+		int length = 0;
+		
+		byte[] bytes;
+		while ( ( bytes = this.pending.poll() ) != null ) {
+			if ( length + bytes.length > this.batch.length ) {
+				writeTarget( this.batch, 0, length );
+				
+				length = 0;
+			}
+			
+			if ( bytes.length >= this.batch.length ) {
+				writeTarget( bytes, 0, bytes.length );
+			} else {
+				System.arraycopy( bytes, 0, this.batch, length, bytes.length );
+				
+				length += bytes.length;
+			}
+		}
+		
+		if ( length > 0 ) {
+			writeTarget( this.batch, 0, length );
+		}
+	}
+	
+	/**
+	 * Writes bytes to the target. Only called while holding the lock.
+	 * 
+	 * @param b
+	 * @param off
+	 * @param len
+	 */
+	protected void writeTarget( byte[] b, int off, int len ) {
+		try {
+			this.target.write( b, off, len );
+		} catch ( IOException e ) {
+			handle( e );
+		}
+	}
+	
+	/**
+	 * Records a failed write like {@link PrintStream} does, keeping the
+	 * interrupt of an interrupted one.
+	 * 
+	 * @param e
+	 */
+	protected void handle( IOException e ) {
+		if ( e instanceof InterruptedIOException ) {
+			Thread.currentThread().interrupt();
+		}
+		
+		this.hasError = true;
+	}
+}
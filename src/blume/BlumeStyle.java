@@ -0,0 +1,533 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeStyle.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, precompiled combination of Blume modifiers, foreground and
+ * background colors, and display attributes.
+ * 
+ * A style builds its escape sequence once when it is created and can then
+ * be printed any number of times without encoding work. Styles are interned,
+ * so identical modifier combinations share a single instance. The values of any
+ * BlumeColor objects are captured when the style is created, so changing a color
+ * afterwards does not affect styles already made from it.
+ * 
+ * Colors are kept at full depth and only reduced to the color depth when the
+ * escape sequence is built. If the depth is changed with
+ * {@link blume.BlumeText#setColorDepth(int)}, the escape sequence is built
+ * again the next time the style is printed.
+ * 
+ * The intern table only holds styles weakly: a style nothing else refers to
+ * any more, e.g., one made for a color read from parsed input, is dropped by
+ * the garbage collector and built again the next time it is asked for. Keep
+ * styles which are printed often in a field.
+ * 
+ * Example:
+ * <pre>
+ * BlumeStyle error = BlumeStyle.of( BlumeText.Red, BlumeText.Attribute.Bold );
+ * 
+ * Blume.println( "Something went wrong.", error );
+ * </pre>
+ */
+public final class BlumeStyle {
+	/**
+	 * Weak references to the styles in use keyed by their modifiers
+	 * and packed colors.
+	 */
+	private static final ConcurrentHashMap<String, StyleReference> _styles = new ConcurrentHashMap<String, StyleReference>();
+	/**
+	 * Queue of references to styles which have been collected, whose
+	 * entries are removed from the table.
+	 */
+	private static final ReferenceQueue<BlumeStyle> _collected = new ReferenceQueue<BlumeStyle>();
+	
+	/**
+	 * Basic color and display attribute modifiers of this style.
+	 */
+	private final String[] mods;
+	/**
+	 * Flag to determine whether this style uses BlumeColor objects, which
+	 * limits it to consoles that support ANSI escape sequences.
+	 */
+	private final boolean isColored;
+	/**
+	 * Packed foreground and background colors this style was made with, at
+	 * full depth, or 0 for none.
+	 */
+	private final int colorFg;
+	private final int colorBg;
+	/**
+	 * Complete escape sequence which begins text printed with this style,
+	 * built for the color depth it was last printed at.
+	 */
+	private volatile Prefix prefix;
+	/**
+	 * Escape sequence which ends text printed with this style.
+	 */
+	private final String reset;
+	/**
+	 * ASCII bytes of {@link #reset}.
+	 */
+	private final byte[] resetBytes;
+	
+	/**
+	 * Packed foreground color this style leaves the terminal in, or 0 for
+	 * the default color.
+	 */
+	private final int fg;
+	/**
+	 * Packed background color this style leaves the terminal in, or 0 for
+	 * the default color.
+	 */
+	private final int bg;
+	/**
+	 * Display attributes this style leaves the terminal in, as a bit mask
+	 * with bit n set for SGR code n (1 - 9).
+	 */
+	private final int attributes;
+	/**
+	 * Flag to determine whether every modifier of this style is a known SGR
+	 * code, so its terminal state is described by {@link #fg}, {@link #bg}
+	 * and {@link #attributes}.
+	 */
+	private final boolean isDiffable;
+	
+	/**
+	 * Constructs a style from its modifiers and packed colors. Styles are
+	 * only created by the static factory methods.
+	 * 
+	 * @param mods
+	 * @param colorFg Packed foreground color, or 0 for none.
+	 * @param colorBg Packed background color, or 0 for none.
+	 */
+	private BlumeStyle( String[] mods, int colorFg, int colorBg ) {
+		this.mods = mods;
+		this.isColored = colorFg != 0;
+		this.colorFg = colorFg;
+		this.colorBg = colorBg;
+		this.prefix = buildPrefix( BlumeText.getColorDepth() );
+		this.reset = this.prefix.string.isEmpty() ? "" : ANSI._RESET_;
+		this.resetBytes = this.reset.getBytes( StandardCharsets.US_ASCII );
+		
+		State state = new State();
+		
+		for ( String mod : mods ) {
+			state.parse( mod );
+		}
+		
+		if ( colorFg != 0 ) {
+			state.fg = colorFg;
+		}
+		
+		if ( colorBg != 0 ) {
+			state.bg = colorBg;
+		}
+		
+		this.fg = state.fg;
+		this.bg = state.bg;
+		this.attributes = state.attributes;
+		this.isDiffable = state.isDiffable;
+	}
+	
+	/**
+	 * Terminal state described by a style's modifiers, worked out while the
+	 * style is constructed.
+	 */
+	private static final class State {
+		int fg;
+		int bg;
+		int attributes;
+		boolean isDiffable = true;
+		
+		/**
+		 * Applies the SGR codes of a modifier. Modifiers which are not SGR
+		 * codes (e.g., Win32 colors) make the style impossible to diff.
+		 * 
+		 * @param mod
+		 */
+		void parse( String mod ) {
+			String[] codes = mod.split( String.valueOf( ANSI._DELIM_ ), -1 );
+			
+			try {
+				for ( int i = 0; i < codes.length; i++ ) {
+					int code = Integer.parseInt( codes[i] );
+					
+					if ( code == 0 ) { // Reset
+						this.fg = 0;
+						this.bg = 0;
+						this.attributes = 0;
+					} else if ( code >= 1 && code <= 9 ) { // Display attribute on
+						this.attributes |= 1 << code;
+					} else if ( code >= 22 && code <= 29 ) { // Display attribute off
+						this.attributes &= ~getAttributesOff( code );
+					} else if ( code >= 30 && code <= 37 ) {
+						this.fg = BlumeColor.packBasic( code - 30 );
+					} else if ( code >= 90 && code <= 97 ) {
+						this.fg = BlumeColor.packBasic( code - 90 + 8 );
+					} else if ( code >= 40 && code <= 47 ) {
+						this.bg = BlumeColor.packBasic( code - 40 );
+					} else if ( code >= 100 && code <= 107 ) {
+						this.bg = BlumeColor.packBasic( code - 100 + 8 );
+					} else if ( code == 39 ) {
+						this.fg = 0;
+					} else if ( code == 49 ) {
+						this.bg = 0;
+					} else if ( ( code == 38 || code == 48 ) && i + 2 < codes.length
+							&& Integer.parseInt( codes[i + 1] ) == 5 ) { // 8-bit color
+						int color = BlumeColor.pack8Bit( Integer.parseInt( codes[i + 2] ) );
+						
+						if ( code == 38 ) {
+							this.fg = color;
+						} else {
+							this.bg = color;
+						}
+						
+						i += 2;
+					} else if ( ( code == 38 || code == 48 ) && i + 4 < codes.length
+							&& Integer.parseInt( codes[i + 1] ) == 2 ) { // 24-bit color
+						int color = BlumeColor.pack24Bit( Integer.parseInt( codes[i + 2] ),
+								Integer.parseInt( codes[i + 3] ), Integer.parseInt( codes[i + 4] ) );
+						
+						if ( code == 38 ) {
+							this.fg = color;
+						} else {
+							this.bg = color;
+						}
+						
+						i += 4;
+					} else {
+						this.isDiffable = false;
+					}
+				}
+			} catch ( NumberFormatException e ) {
+				this.isDiffable = false;
+			}
+		}
+	}
+	
+	/**
+	 * Escape sequence of a style and the color depth it was built for.
+	 */
+	private static final class Prefix {
+		final int depth;
+		final String string;
+		final byte[] bytes;
+		
+		Prefix( int depth, String string ) {
+			this.depth = depth;
+			this.string = string;
+			this.bytes = string.getBytes( StandardCharsets.US_ASCII );
+		}
+	}
+	
+	/**
+	 * Weak reference to an interned style which remembers its key, so its
+	 * entry can be removed once the style is collected.
+	 */
+	private static final class StyleReference extends WeakReference<BlumeStyle> {
+		final String key;
+		
+		StyleReference( String key, BlumeStyle style ) {
+			super( style, _collected );
+			
+			this.key = key;
+		}
+	}
+	
+	/**
+	 * Gets the display attributes an SGR code from 22 to 29 turns off. 22
+	 * turns off both bold and faint and 25 both slow and rapid blink. 26
+	 * selects proportional spacing rather than turning anything off.
+	 * 
+	 * @param code
+	 * @return Display attributes turned off, with bit n set for SGR code n.
+	 */
+	protected static int getAttributesOff( int code ) {
+		if ( code == 22 ) {
+			return ( 1 << 1 ) | ( 1 << 2 );
+		} else if ( code == 25 ) {
+			return ( 1 << 5 ) | ( 1 << 6 );
+		} else if ( code >= 23 && code <= 29 && code != 26 ) {
+			return 1 << ( code - 20 );
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Gets the style for various modifiers for text color and display
+	 * attributes.
+	 * 
+	 * Compatible modifiers can be found in the {@link blume.BlumeText} class.
+	 * 
+	 * @param mods
+	 * @return Shared style instance for these modifiers.
+	 */
+	public static BlumeStyle of( String... mods ) {
+		return intern( mods, null, null );
+	}
+	
+	/**
+	 * Gets the style for a foreground color described by a BlumeColor
+	 * object.
+	 * 
+	 * Note: Styles with BlumeColor objects are only compatible with
+	 * consoles which support ANSI escape sequence coloring.
+	 * 
+	 * @param fg
+	 * @return Shared style instance for this color.
+	 */
+	public static BlumeStyle of( BlumeColor fg ) {
+		return intern( new String[0], fg, null );
+	}
+	
+	/**
+	 * Gets the style for foreground and background colors described by
+	 * BlumeColor objects.
+	 * 
+	 * @param fg
+	 * @param bg
+	 * @return Shared style instance for these colors.
+	 */
+	public static BlumeStyle of( BlumeColor fg, BlumeColor bg ) {
+		return intern( new String[0], fg, bg );
+	}
+	
+	/**
+	 * Gets the style for a foreground color described by a BlumeColor
+	 * object with ANSI display attributes (e.g., bold, italic).
+	 * 
+	 * @param fg
+	 * @param attrs
+	 * @return Shared style instance for this color and these attributes.
+	 */
+	public static BlumeStyle of( BlumeColor fg, String... attrs ) {
+		return intern( attrs, fg, null );
+	}
+	
+	/**
+	 * Gets the style for foreground and background colors described by
+	 * BlumeColor objects with ANSI display attributes (e.g., bold, italic).
+	 * 
+	 * @param fg
+	 * @param bg
+	 * @param attrs
+	 * @return Shared style instance for these colors and attributes.
+	 */
+	public static BlumeStyle of( BlumeColor fg, BlumeColor bg, String... attrs ) {
+		return intern( attrs, fg, bg );
+	}
+	
+	/**
+	 * Returns the shared style for a combination of modifiers and colors,
+	 * creating the style if this is the first time the combination has
+	 * been seen.
+	 * 
+	 * Modifiers keep the order they are given in, since when two of them
+	 * conflict (e.g., two foreground colors) the terminal applies the last
+	 * one; the same modifiers in a different order make a style of their
+	 * own. Colors are told apart at full depth, so two colors which look
+	 * the same at the current color depth still get styles of their own.
+	 * 
+	 * @param mods
+	 * @param fg
+	 * @param bg
+	 * @return Shared style instance.
+	 */
+	private static BlumeStyle intern( String[] mods, BlumeColor fg, BlumeColor bg ) {
+		String[] copy = mods.clone();
+		
+		int colorFg = ( fg != null ) ? fg.getPacked() : 0;
+		int colorBg = ( bg != null ) ? bg.getPacked() : 0;
+		String key = String.join( ",", copy ) + '/' + Integer.toHexString( colorFg ) + '/' + Integer.toHexString( colorBg );
+		
+		expunge();
+		
+		BlumeStyle created = null;
+		
+		for ( ;; ) {
+			StyleReference reference = _styles.get( key );
+			BlumeStyle style = ( reference != null ) ? reference.get() : null;
+			
+			if ( style != null ) {
+				return style;
+			}
+			
+			if ( created == null ) {
+				created = new BlumeStyle( copy, colorFg, colorBg );
+			}
+			
+			StyleReference fresh = new StyleReference( key, created );
+			
+			// Replace a collected style's entry, or add one; another thread may win either
+			if ( ( reference == null ) ? _styles.putIfAbsent( key, fresh ) == null : _styles.replace( key, reference, fresh ) ) {
+				return created;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the entries of collected styles from the intern table.
+	 */
+	private static void expunge() {
+		StyleReference reference;
+		
+		while ( ( reference = (StyleReference) _collected.poll() ) != null ) {
+			_styles.remove( reference.key, reference );
+		}
+	}
+	
+	/**
+	 * Builds the complete ANSI escape sequence for this style's display
+	 * attributes and colors reduced to a color depth.
+	 * 
+	 * @param depth
+	 * @return Escape sequence, which is empty if there is nothing to apply.
+	 */
+	private Prefix buildPrefix( int depth ) {
+		int length = BlumeEncoder.getMaxPrefixLength( this.mods );
+		byte[] bytes = ( length <= BlumeEncoder._SCRATCH_SIZE_ ) ? BlumeEncoder.getScratch() : new byte[length];
+		
+		length = BlumeEncoder.encodePrefix( bytes, 0, this.mods, this.colorFg, this.colorBg, depth );
+		
+		return new Prefix( depth, new String( bytes, 0, length, StandardCharsets.US_ASCII ) );
+	}
+	
+	/**
+	 * Gets the escape sequence for the current color depth, building it
+	 * again if the depth has changed since it was last built.
+	 * 
+	 * @return Escape sequence for the current color depth.
+	 */
+	private Prefix getCurrentPrefix() {
+		Prefix prefix = this.prefix;
+		int depth = BlumeText.getColorDepth();
+		
+		if ( prefix.depth != depth ) {
+			prefix = buildPrefix( depth );
+			this.prefix = prefix;
+		}
+		
+		return prefix;
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return A copy of the basic modifiers of this style.
+	 */
+	public String[] getMods() {
+		return this.mods.clone();
+	}
+	/**
+	 * @return Whether this style uses BlumeColor objects.
+	 */
+	public boolean getIsColored() {
+		return this.isColored;
+	}
+	/**
+	 * @return Whether this style applies no color or display attributes.
+	 */
+	public boolean getIsPlain() {
+		return this.reset.isEmpty();
+	}
+	/**
+	 * @return The escape sequence which begins text printed with this style.
+	 */
+	public String getPrefix() {
+		return getCurrentPrefix().string;
+	}
+	/**
+	 * @return The escape sequence which ends text printed with this style.
+	 */
+	public String getReset() {
+		return this.reset;
+	}
+	/**
+	 * @return The shared ASCII bytes of the prefix. These must not be modified.
+	 */
+	protected byte[] getPrefixBytes() {
+		return getCurrentPrefix().bytes;
+	}
+	/**
+	 * @return The shared ASCII bytes of the reset. These must not be modified.
+	 */
+	protected byte[] getResetBytes() {
+		return this.resetBytes;
+	}
+	/**
+	 * @return The packed foreground color this style leaves the terminal in, or 0 for the default.
+	 */
+	protected int getFg() {
+		return this.fg;
+	}
+	/**
+	 * @return The packed background color this style leaves the terminal in, or 0 for the default.
+	 */
+	protected int getBg() {
+		return this.bg;
+	}
+	/**
+	 * @return The display attributes of this style as a bit mask of SGR codes.
+	 */
+	protected int getAttributes() {
+		return this.attributes;
+	}
+	/**
+	 * @return Whether this style's terminal state is fully known, so it can be diffed.
+	 */
+	protected boolean getIsDiffable() {
+		return this.isDiffable;
+	}
+	/**
+	 * @return The shared modifiers of this style. These must not be modified.
+	 */
+	protected String[] getSharedMods() {
+		return this.mods;
+	}
+	
+	/**
+	 * @return The escape sequence of this style.
+	 */
+	@Override
+	public String toString() {
+		return getCurrentPrefix().string;
+	}
+}
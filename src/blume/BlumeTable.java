@@ -0,0 +1,491 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeTable.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders rows of cells as aligned columns, padding each cell by its
+ * display width rather than its length: escape sequences take no columns
+ * and East Asian wide characters take two
+ * (see {@link blume.BlumeParser#getDisplayWidth(CharSequence)}). Each cell
+ * is measured once, when its row is added, and rendered straight to a
+ * {@link blume.BlumeWriter}.
+ * 
+ * A table made with {@link #BlumeTable()} keeps all of its rows and sizes
+ * each column to its widest cell when it is printed:
+ * <pre>
+ * BlumeTable table = new BlumeTable();
+ * 
+ * table.setHeaders( "Name", "Size" );
+ * table.setAlignment( 1, BlumeTable._RIGHT_ );
+ * table.addRow( "blume.jar", BlumeTable.cell( "42 KB", BlumeStyle.of( BlumeText.Green ) ) );
+ * Blume.print( table );
+ * </pre>
+ * 
+ * A streaming table made with {@link #BlumeTable(BlumeWriter, int)} only
+ * holds rows until it has seen a sample of them, then fixes the column
+ * widths from the sample and prints every later row as it is added, so it
+ * never holds more than the sample. Later cells too wide for their column
+ * are cut short with an ellipsis unless they contain escape sequences.
+ * 
+ * As with a StringBuilder, a BlumeTable is not safe for use by multiple
+ * threads at once.
+ */
+public class BlumeTable {
+	/*
+	 * Column alignments.
+	 */
+	public static final int _LEFT_ = 0;
+	public static final int _RIGHT_ = 1;
+	public static final int _CENTER_ = 2;
+	/**
+	 * Columns of space between cells.
+	 */
+	public static final int _DEFAULT_GAP_ = 2;
+	/**
+	 * Character ending a cell which is cut short.
+	 */
+	protected static final char _ELLIPSIS_ = '\u2026'; // Horizontal ellipsis
+	/**
+	 * Style of the header row.
+	 */
+	protected static final BlumeStyle _HEADER_STYLE_ = BlumeStyle.of( BlumeText.Attribute.Bold );
+	
+	/**
+	 * Text of a cell with its style.
+	 */
+	public static final class Cell {
+		private final CharSequence text;
+		private final BlumeStyle style;
+		private final int width;
+		
+		/**
+		 * Constructor for a cell.
+		 * 
+		 * @param text
+		 * @param style Style of the cell, or null for none.
+		 */
+		private Cell( CharSequence text, BlumeStyle style ) {
+			this.text = text;
+			this.style = style;
+			this.width = BlumeParser.getDisplayWidth( text );
+		}
+	}
+	
+	/**
+	 * Writer rows are printed to as they are added, or null if the table
+	 * keeps all of its rows.
+	 */
+	private final BlumeWriter writer;
+	/**
+	 * Number of rows the column widths are fixed from when streaming.
+	 */
+	private final int sampleRows;
+	/**
+	 * Rows not yet printed, starting with the header row if any.
+	 */
+	private final List<Cell[]> rows = new ArrayList<Cell[]>();
+	private Cell[] headers;
+	private int[] alignments = new int[0];
+	private int[] widths = new int[0];
+	private int gap = _DEFAULT_GAP_;
+	/**
+	 * Whether a streaming table's column widths have been fixed.
+	 */
+	private boolean isFixed;
+	
+	/**
+	 * Constructor for a table which keeps all of its rows until it is
+	 * printed.
+	 */
+	public BlumeTable() {
+		this.writer = null;
+		this.sampleRows = 0;
+	}
+	
+	/**
+	 * Constructor for a streaming table.
+	 * 
+	 * @param writer Writer rows are printed to.
+	 * @param sampleRows Number of rows the column widths are fixed from.
+	 */
+	public BlumeTable( BlumeWriter writer, int sampleRows ) {
+		if ( writer == null ) {
+			throw new NullPointerException( "writer" );
+		}
+		
+		if ( sampleRows < 1 ) {
+			throw new IllegalArgumentException( "The sample must have at least one row." );
+		}
+		
+		this.writer = writer;
+		this.sampleRows = sampleRows;
+	}
+	
+	/**
+	 * Creates a styled cell.
+	 * 
+	 * @param text
+	 * @param style
+	 * @return Cell to pass to {@link #addRow(Object...)}.
+	 */
+	public static Cell cell( Object text, BlumeStyle style ) {
+		return new Cell( toText( text ), style );
+	}
+	
+	/**
+	 * Creates a colored cell.
+	 * 
+	 * Note: BlumeColor objects are only compatible with consoles which
+	 * support ANSI escape sequence coloring.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param attrs
+	 * @return Cell to pass to {@link #addRow(Object...)}.
+	 */
+	public static Cell cell( Object text, BlumeColor fg, String... attrs ) {
+		return cell( text, BlumeStyle.of( fg, attrs ) );
+	}
+	
+	/**
+	 * Sets the header row, printed in bold above the other rows. It must
+	 * be set before any row is added.
+	 * 
+	 * @param headers Header cells, either {@link blume.BlumeTable.Cell} objects
+	 * or any other objects, which are printed in bold.
+	 */
+	public void setHeaders( Object... headers ) {
+		if ( !this.rows.isEmpty() || this.isFixed ) {
+			throw new IllegalStateException( "Headers must be set before any row is added." );
+		}
+		
+		this.headers = toCells( headers, _HEADER_STYLE_ );
+		this.rows.add( this.headers );
+		
+		measure( this.headers );
+	}
+	
+	/**
+	 * Adds a row. A streaming table prints it once the column widths are
+	 * fixed.
+	 * 
+	 * @param cells Cells, either {@link blume.BlumeTable.Cell} objects or any
+	 * other objects, which are printed without a style.
+	 */
+	public void addRow( Object... cells ) {
+		Cell[] row = toCells( cells, null );
+		
+		if ( this.isFixed ) {
+			printRow( this.writer, row );
+			
+			return;
+		}
+		
+		this.rows.add( row );
+		
+		measure( row );
+		
+		if ( this.writer != null && this.rows.size() - ( ( this.headers != null ) ? 1 : 0 ) == this.sampleRows ) {
+			fix();
+		}
+	}
+	
+	/**
+	 * Prints a table which keeps its rows. A streaming table instead
+	 * prints its rows as they are added.
+	 * 
+	 * @param writer
+	 */
+	public void print( BlumeWriter writer ) {
+		if ( this.writer != null ) {
+			throw new IllegalStateException( "A streaming table prints its rows as they are added." );
+		}
+		
+		for ( Cell[] row : this.rows ) {
+			printRow( writer, row );
+		}
+	}
+	
+	/**
+	 * Prints any rows a streaming table is still holding, fixing the
+	 * column widths from them if it has not seen a whole sample, and
+	 * flushes its writer.
+	 */
+	public void flush() {
+		if ( this.writer == null ) {
+			return;
+		}
+		
+		if ( !this.isFixed ) {
+			fix();
+		}
+		
+		this.writer.flush();
+	}
+	
+	/**
+	 * Fixes the column widths of a streaming table and prints the rows it
+	 * is holding.
+	 */
+	private void fix() {
+		this.isFixed = true;
+		
+		for ( Cell[] row : this.rows ) {
+			printRow( this.writer, row );
+		}
+		
+		this.rows.clear();
+	}
+	
+	/**
+	 * Widens the columns to fit a row.
+	 * 
+	 * @param row
+	 */
+	private void measure( Cell[] row ) {
+		if ( row.length > this.widths.length ) {
+			this.widths = Arrays.copyOf( this.widths, row.length );
+		}
+		
+		for ( int i = 0; i < row.length; i++ ) {
+			this.widths[i] = Math.max( this.widths[i], row[i].width );
+		}
+	}
+	
+	/**
+	 * Prints a row, each cell padded to its column's width.
+	 * 
+	 * @param writer
+	 * @param row
+	 */
+	private void printRow( BlumeWriter writer, Cell[] row ) {
+		// Trailing padding of the last cell is left off
+		int last = row.length - 1;
+		
+		for ( int i = 0; i <= last; i++ ) {
+			Cell cell = row[i];
+			int width = ( i < this.widths.length ) ? this.widths[i] : cell.width;
+			int padding = Math.max( 0, width - cell.width );
+			int alignment = ( i < this.alignments.length ) ? this.alignments[i] : _LEFT_;
+			int before = ( alignment == _RIGHT_ ) ? padding : ( alignment == _CENTER_ ) ? padding / 2 : 0;
+			
+			if ( i > 0 ) {
+				writeSpaces( writer, this.gap );
+			}
+			
+			writeSpaces( writer, before );
+			
+			if ( cell.width > width ) {
+				writeTruncated( writer, cell, width );
+			} else {
+				writeCell( writer, cell, cell.text.length() );
+			}
+			
+			if ( i < last ) {
+				writeSpaces( writer, padding - before );
+			}
+		}
+		
+		writer.writeNewline();
+		writer.endCall();
+	}
+	
+	/**
+	 * Writes the start of a cell's text in its style.
+	 * 
+	 * @param writer
+	 * @param cell
+	 * @param end Index just past the last character written.
+	 */
+	private static void writeCell( BlumeWriter writer, Cell cell, int end ) {
+		if ( !BlumeText.getIsANSIColor() ) { // Leave out any escape sequences in the text
+			String plain = BlumeParser.strip( cell.text.subSequence( 0, end ) );
+			
+			writer.writeText( plain, 0, plain.length() );
+			
+			return;
+		}
+		
+		boolean isStyled = cell.style != null && !cell.style.getIsPlain();
+		
+		if ( isStyled ) {
+			writer.writeBytes( cell.style.getPrefixBytes() );
+		}
+		
+		writer.writeText( cell.text, 0, end );
+		
+		if ( isStyled ) {
+			writer.writeBytes( cell.style.getResetBytes() );
+		}
+	}
+	
+	/**
+	 * Writes as much of a cell as fits in a column followed by an
+	 * ellipsis. Escape sequences in the text are copied through without
+	 * counting toward the width, and a reset ends them before the ellipsis.
+	 * 
+	 * @param writer
+	 * @param cell
+	 * @param width Width of the column.
+	 */
+	private static void writeTruncated( BlumeWriter writer, Cell cell, int width ) {
+		CharSequence text = cell.text;
+		int state = BlumeParser._TEXT_;
+		boolean hasEscape = false;
+		int end = 0;
+		int used = 0;
+		
+		while ( end < text.length() ) {
+			char c = text.charAt( end );
+			
+			if ( state != BlumeParser._TEXT_ || c == BlumeParser._ESC_ ) {
+				state = BlumeParser.next( state, c );
+				hasEscape = true;
+				end++;
+				
+				continue;
+			}
+			
+			int codePoint = Character.codePointAt( text, end );
+			int charWidth = BlumeParser.getWidth( codePoint );
+			
+			if ( used + charWidth > width - 1 ) {
+				break;
+			}
+			
+			used += charWidth;
+			end += Character.charCount( codePoint );
+		}
+		
+		writeCell( writer, cell, end );
+		
+		// The cell's own style already ends in a reset
+		if ( hasEscape && BlumeText.getIsANSIColor() && ( cell.style == null || cell.style.getIsPlain() ) ) {
+			writer.writeBytes( BlumeEncoder._RESET_ );
+		}
+		
+		if ( width > 0 ) {
+			writer.writeCodePoint( _ELLIPSIS_ );
+			used++;
+		}
+		
+		writeSpaces( writer, width - used );
+	}
+	
+	/**
+	 * @param writer
+	 * @param count
+	 */
+	private static void writeSpaces( BlumeWriter writer, int count ) {
+		for ( int i = 0; i < count; i++ ) {
+			writer.writeByte( ' ' );
+		}
+	}
+	
+	/**
+	 * @param cells
+	 * @param style Style of cells given as plain objects.
+	 * @return Cells for a row.
+	 */
+	private static Cell[] toCells( Object[] cells, BlumeStyle style ) {
+		Cell[] row = new Cell[cells.length];
+		
+		for ( int i = 0; i < cells.length; i++ ) {
+			row[i] = ( cells[i] instanceof Cell ) ? (Cell) cells[i] : new Cell( toText( cells[i] ), style );
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * @param text
+	 * @return The text itself if it is a CharSequence, or else its string.
+	 */
+	private static CharSequence toText( Object text ) {
+		return ( text instanceof CharSequence ) ? (CharSequence) text : String.valueOf( text );
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @param column
+	 * @return Alignment of a column: {@link #_LEFT_}, {@link #_RIGHT_} or {@link #_CENTER_}.
+	 */
+	public int getAlignment( int column ) {
+		return ( column < this.alignments.length ) ? this.alignments[column] : _LEFT_;
+	}
+	/**
+	 * @param column
+	 * @return Width of a column so far, in terminal columns.
+	 */
+	public int getWidth( int column ) {
+		return ( column < this.widths.length ) ? this.widths[column] : 0;
+	}
+	/**
+	 * @return Columns of space between cells.
+	 */
+	public int getGap() {
+		return this.gap;
+	}
+	/**
+	 * Sets the alignment of a column.
+	 * 
+	 * @param _column
+	 * @param _alignment {@link #_LEFT_}, {@link #_RIGHT_} or {@link #_CENTER_}.
+	 */
+	public void setAlignment( int _column, int _alignment ) {
+		if ( _alignment < _LEFT_ || _alignment > _CENTER_ ) {
+			throw new IllegalArgumentException( "Unknown alignment: " + _alignment );
+		}
+		
+		if ( _column >= this.alignments.length ) {
+			this.alignments = Arrays.copyOf( this.alignments, _column + 1 );
+		}
+		
+		this.alignments[_column] = _alignment;
+	}
+	/**
+	 * Sets the number of columns of space between cells.
+	 * 
+	 * @param _gap
+	 */
+	public void setGap( int _gap ) {
+		this.gap = Math.max( 0, _gap );
+	}
+}
@@ -0,0 +1,519 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeTemplate.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Markup template compiled once into encoded bytes and printed any number
+ * of times with arguments.
+ * 
+ * A tag in square brackets styles the text up to the matching [/] tag.
+ * Tags nest, with an inner tag adding to the style around it. {} is
+ * replaced by the next argument in the style at that point. [[ and {{
+ * stand for [ and {.
+ * 
+ * A tag holds any of, separated by spaces:
+ * <ul>
+ * <li>Display attributes: bold, faint (or dim), italic, underline, blink,
+ * inverse (or reverse), hidden and strikethrough (or strike).</li>
+ * <li>Basic colors: black, red, green, yellow, blue, magenta, cyan and
+ * white, bright_ versions of each, gray and default.</li>
+ * <li>8-bit colors from 0 to 255, and 24-bit colors as #rrggbb or #rgb.</li>
+ * <li>on, making the color after it the background color.</li>
+ * </ul>
+ * 
+ * Example:
+ * <pre>
+ * BlumeTemplate error = BlumeTemplate.of( "[bold red]ERROR[/] user [#f142f4]{}[/]" );
+ * 
+ * error.println( writer, user );
+ * </pre>
+ * 
+ * Compiling splits the template into byte segments around its argument
+ * slots, with the escape sequences already encoded into them, plus the
+ * same segments without escapes. Printing only copies segments and
+ * encodes arguments. Colors are encoded at the color depth current when
+ * the template is compiled, and again the next time it is printed after
+ * the depth has changed.
+ */
+public final class BlumeTemplate {
+	/**
+	 * Largest number of compiled templates kept by {@link #of(String)}.
+	 */
+	public static final int _CACHE_SIZE_ = 256;
+	
+	/**
+	 * Compiled templates by template string.
+	 */
+	private static final ConcurrentHashMap<String, BlumeTemplate> _templates = new ConcurrentHashMap<String, BlumeTemplate>();
+	/**
+	 * Display attribute codes by name.
+	 */
+	private static final Map<String, String> _attributes = new HashMap<String, String>();
+	/**
+	 * Basic color values by name.
+	 */
+	private static final Map<String, Integer> _colors = new HashMap<String, Integer>();
+	
+	static {
+		_attributes.put( "bold", BlumeText.Attribute.Bold );
+		_attributes.put( "faint", BlumeText.Attribute.Faint );
+		_attributes.put( "dim", BlumeText.Attribute.Faint );
+		_attributes.put( "italic", BlumeText.Attribute.Italic );
+		_attributes.put( "underline", BlumeText.Attribute.Underline );
+		_attributes.put( "blink", BlumeText.Attribute.Blink );
+		_attributes.put( "inverse", BlumeText.Attribute.Inverse );
+		_attributes.put( "reverse", BlumeText.Attribute.Inverse );
+		_attributes.put( "hidden", BlumeText.Attribute.Hidden );
+		_attributes.put( "strikethrough", BlumeText.Attribute.Strikethrough );
+		_attributes.put( "strike", BlumeText.Attribute.Strikethrough );
+		
+		String[] names = { "black", "red", "green", "yellow", "blue", "magenta", "cyan", "white" };
+		
+		for ( int i = 0; i < names.length; i++ ) {
+			_colors.put( names[i], i );
+			_colors.put( "bright_" + names[i], 8 + i );
+		}
+		
+		_colors.put( "gray", 8 );
+		_colors.put( "grey", 8 );
+	}
+	
+	/**
+	 * Source template.
+	 */
+	private final String template;
+	/**
+	 * Segments around the argument slots with their escape sequences,
+	 * encoded for the color depth they were last printed at.
+	 */
+	private volatile Segments segments;
+	/**
+	 * Segments around the argument slots without escape sequences.
+	 */
+	private final byte[][] plainSegments;
+	
+	/**
+	 * Constructor for a compiled template.
+	 * 
+	 * @param template
+	 * @param segments
+	 * @param plainSegments
+	 */
+	private BlumeTemplate( String template, Segments segments, byte[][] plainSegments ) {
+		this.template = template;
+		this.segments = segments;
+		this.plainSegments = plainSegments;
+	}
+	
+	/**
+	 * Encoded segments of a template and the color depth they were
+	 * encoded for.
+	 */
+	private static final class Segments {
+		final int depth;
+		final byte[][] bytes;
+		
+		Segments( int depth, byte[][] bytes ) {
+			this.depth = depth;
+			this.bytes = bytes;
+		}
+	}
+	
+	/**
+	 * Gets a compiled template, compiling it only if it is not already
+	 * cached. Once the cache is full an arbitrary template is dropped for
+	 * each one added.
+	 * 
+	 * @param template
+	 * @return Compiled template.
+	 * @throws IllegalArgumentException If the markup is malformed.
+	 */
+	public static BlumeTemplate of( String template ) {
+		BlumeTemplate compiled = _templates.get( template );
+		
+		if ( compiled == null ) {
+			compiled = compile( template );
+			
+			if ( _templates.size() >= _CACHE_SIZE_ ) {
+				Iterator<String> keys = _templates.keySet().iterator();
+				
+				if ( keys.hasNext() ) {
+					keys.next();
+					keys.remove();
+				}
+			}
+			
+			BlumeTemplate existing = _templates.putIfAbsent( template, compiled );
+			
+			if ( existing != null ) {
+				compiled = existing;
+			}
+		}
+		
+		return compiled;
+	}
+	
+	/**
+	 * Compiles a template without caching it. Colors are encoded at the
+	 * current color depth.
+	 * 
+	 * @param template
+	 * @return Compiled template.
+	 * @throws IllegalArgumentException If the markup is malformed.
+	 */
+	public static BlumeTemplate compile( String template ) {
+		return compile( template, BlumeText.getColorDepth() );
+	}
+	
+	/**
+	 * Compiles a template with its colors encoded at a color depth.
+	 * 
+	 * @param template
+	 * @param depth
+	 * @return Compiled template.
+	 * @throws IllegalArgumentException If the markup is malformed.
+	 */
+	private static BlumeTemplate compile( String template, int depth ) {
+		List<byte[]> segments = new ArrayList<byte[]>();
+		List<byte[]> plainSegments = new ArrayList<byte[]>();
+		ByteArrayOutputStream segment = new ByteArrayOutputStream();
+		StringBuilder plain = new StringBuilder();
+		StringBuilder text = new StringBuilder();
+		
+		// Styles in effect, innermost last; each is { fg, bg, attributes }
+		List<int[]> stack = new ArrayList<int[]>();
+		int[] current = new int[3];
+		int length = template.length();
+		
+		for ( int i = 0; i < length; i++ ) {
+			char c = template.charAt( i );
+			char next = ( i + 1 < length ) ? template.charAt( i + 1 ) : 0;
+			
+			if ( ( c == '[' && next == '[' ) || ( c == '{' && next == '{' ) ) { // Escaped bracket
+				text.append( c );
+				i++;
+			} else if ( c == '{' && next == '}' ) { // Argument slot
+				appendText( segment, plain, text );
+				
+				segments.add( segment.toByteArray() );
+				plainSegments.add( plain.toString().getBytes( StandardCharsets.UTF_8 ) );
+				segment.reset();
+				plain.setLength( 0 );
+				i++;
+			} else if ( c == '[' ) { // Tag
+				int end = template.indexOf( ']', i );
+				
+				if ( end < 0 ) {
+					throw new IllegalArgumentException( "Unclosed tag at index " + i + " in template: " + template );
+				}
+				
+				String tag = template.substring( i + 1, end ).trim();
+				int[] style;
+				
+				if ( tag.startsWith( "/" ) ) {
+					if ( stack.isEmpty() ) {
+						throw new IllegalArgumentException( "Unmatched [/] at index " + i + " in template: " + template );
+					}
+					
+					style = stack.remove( stack.size() - 1 );
+				} else {
+					stack.add( current );
+					style = parseTag( tag, current, template );
+				}
+				
+				appendText( segment, plain, text );
+				appendChange( segment, current, style, depth );
+				
+				current = style;
+				i = end;
+			} else {
+				text.append( c );
+			}
+		}
+		
+		appendText( segment, plain, text );
+		appendChange( segment, current, new int[3], depth );
+		
+		segments.add( segment.toByteArray() );
+		plainSegments.add( plain.toString().getBytes( StandardCharsets.UTF_8 ) );
+		
+		return new BlumeTemplate( template, new Segments( depth, segments.toArray( new byte[segments.size()][] ) ),
+				plainSegments.toArray( new byte[plainSegments.size()][] ) );
+	}
+	
+	/**
+	 * Prints the template with arguments in its slots, in order. Slots
+	 * without an argument print as {}.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param writer
+	 * @param args
+	 */
+	public void print( BlumeWriter writer, Object... args ) {
+		write( writer, args );
+		
+		writer.endCall();
+	}
+	
+	/**
+	 * Prints the template with arguments in its slots, in order. Slots
+	 * without an argument print as {}.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param writer
+	 * @param args
+	 */
+	public void println( BlumeWriter writer, Object... args ) {
+		write( writer, args );
+		
+		writer.writeNewline();
+		writer.endCall();
+	}
+	
+	/**
+	 * Encodes the segments and arguments.
+	 * 
+	 * @param writer
+	 * @param args
+	 */
+	private void write( BlumeWriter writer, Object[] args ) {
+		byte[][] segments = BlumeText.getIsANSIColor() ? getSegments() : this.plainSegments;
+		
+		writer.writeBytes( segments[0] );
+		
+		for ( int i = 1; i < segments.length; i++ ) {
+			if ( args != null && i - 1 < args.length ) {
+				writer.writeText( args[i - 1] );
+			} else {
+				writer.writeASCII( "{}" );
+			}
+			
+			writer.writeBytes( segments[i] );
+		}
+	}
+	
+	/**
+	 * Gets the segments encoded for the current color depth, compiling the
+	 * template again if the depth has changed since they were encoded.
+	 * 
+	 * @return Segments with their escape sequences.
+	 */
+	private byte[][] getSegments() {
+		Segments segments = this.segments;
+		int depth = BlumeText.getColorDepth();
+		
+		if ( segments.depth != depth ) {
+			segments = compile( this.template, depth ).segments;
+			this.segments = segments;
+		}
+		
+		return segments.bytes;
+	}
+	
+	/**
+	 * Parses a tag's contents into the style it applies on top of the
+	 * current style.
+	 * 
+	 * @param tag
+	 * @param current
+	 * @param template
+	 * @return New style as { fg, bg, attributes }.
+	 */
+	private static int[] parseTag( String tag, int[] current, String template ) {
+		int[] style = current.clone();
+		boolean isBackground = false;
+		
+		for ( String token : tag.toLowerCase( Locale.ROOT ).split( "\\s+" ) ) {
+			if ( token.isEmpty() ) {
+				continue;
+			}
+			
+			if ( token.equals( "on" ) ) {
+				isBackground = true;
+				
+				continue;
+			}
+			
+			String attribute = _attributes.get( token );
+			
+			if ( attribute != null ) {
+				style[2] |= 1 << Integer.parseInt( attribute );
+				
+				continue;
+			}
+			
+			int color = parseColor( token );
+			
+			if ( color == -1 ) {
+				throw new IllegalArgumentException( "Unknown style \"" + token + "\" in template: " + template );
+			}
+			
+			style[isBackground ? 1 : 0] = color;
+			isBackground = false;
+		}
+		
+		return style;
+	}
+	
+	/**
+	 * Parses a color name, 8-bit color value or #rrggbb or #rgb color.
+	 * 
+	 * @param token
+	 * @return Packed color, 0 for the default color or -1 if the token is
+	 * not a color.
+	 */
+	private static int parseColor( String token ) {
+		if ( token.equals( "default" ) ) {
+			return 0;
+		}
+		
+		Integer basic = _colors.get( token );
+		
+		if ( basic != null ) {
+			return BlumeColor.packBasic( basic );
+		}
+		
+		try {
+			if ( token.startsWith( "#" ) && token.length() == 7 ) {
+				return BlumeColor.pack24Bit( Integer.parseInt( token.substring( 1 ), 16 ) );
+			} else if ( token.startsWith( "#" ) && token.length() == 4 ) {
+				int rgb = Integer.parseInt( token.substring( 1 ), 16 );
+				int r = ( rgb >> 8 ) & 0xF;
+				int g = ( rgb >> 4 ) & 0xF;
+				int b = rgb & 0xF;
+				
+				return BlumeColor.pack24Bit( r * 17, g * 17, b * 17 );
+			} else if ( Character.isDigit( token.charAt( 0 ) ) ) {
+				int value = Integer.parseInt( token );
+				
+				return ( value <= 255 ) ? BlumeColor.pack8Bit( value ) : -1;
+			}
+		} catch ( NumberFormatException e ) {
+			return -1;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Moves pending literal text into the current segments.
+	 * 
+	 * @param segment
+	 * @param plain
+	 * @param text
+	 */
+	private static void appendText( ByteArrayOutputStream segment, StringBuilder plain, StringBuilder text ) {
+		byte[] bytes = text.toString().getBytes( StandardCharsets.UTF_8 );
+		
+		segment.write( bytes, 0, bytes.length );
+		plain.append( text );
+		text.setLength( 0 );
+	}
+	
+	/**
+	 * Encodes the escape sequence which changes one style to another:
+	 * only the added codes when the new style builds on the old one,
+	 * otherwise a reset followed by the new style.
+	 * 
+	 * @param segment
+	 * @param from
+	 * @param to
+	 * @param depth Color depth the colors are reduced to.
+	 */
+	private static void appendChange( ByteArrayOutputStream segment, int[] from, int[] to, int depth ) {
+		if ( from[0] == to[0] && from[1] == to[1] && from[2] == to[2] ) {
+			return;
+		}
+		
+		boolean isAdded = ( from[2] & ~to[2] ) == 0 && ( from[0] == 0 || to[0] != 0 ) && ( from[1] == 0 || to[1] != 0 );
+		boolean isPlain = ( from[0] | from[1] | from[2] ) == 0;
+		
+		if ( !isAdded ) {
+			segment.write( BlumeEncoder._RESET_, 0, BlumeEncoder._RESET_.length );
+			
+			isPlain = true;
+		}
+		
+		int fg = ( isPlain || to[0] != from[0] ) ? to[0] : 0;
+		int bg = ( isPlain || to[1] != from[1] ) ? to[1] : 0;
+		int attributes = isPlain ? to[2] : to[2] & ~from[2];
+		
+		List<String> attrs = new ArrayList<String>();
+		
+		for ( int code = 1; code <= 9; code++ ) {
+			if ( ( attributes & ( 1 << code ) ) != 0 ) {
+				attrs.add( String.valueOf( code ) );
+			}
+		}
+		
+		byte[] prefix = BlumeEncoder.getScratch();
+		int length = BlumeEncoder.encodePrefix( prefix, 0, attrs.toArray( new String[attrs.size()] ), fg, bg, depth );
+		
+		segment.write( prefix, 0, length );
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return The number of argument slots.
+	 */
+	public int getSlotCount() {
+		return this.plainSegments.length - 1;
+	}
+	
+	/**
+	 * @return The source template.
+	 */
+	public String getTemplate() {
+		return this.template;
+	}
+	
+	@Override
+	public String toString() {
+		return this.template;
+	}
+}
@@ -49,6 +49,27 @@ public class BlumeText {
 	 * Identifies whether Win32 code should be used.
 	 */
 	protected static boolean _isWin32;
+	/**
+	 * Color depth which colors are reduced to before they are written.
+	 */
+	protected static volatile int _colorDepth = 24;
+	/**
+	 * What the terminal can display, probed once when Blume starts.
+	 */
+	protected static volatile BlumeCapabilities _capabilities;
+	
+	/**
+	 * Color depth of terminals which display only the 16 basic colors.
+	 */
+	public static final int _DEPTH_BASIC_ = 4;
+	/**
+	 * Color depth of terminals which display the 256-color palette.
+	 */
+	public static final int _DEPTH_8_BIT_ = 8;
+	/**
+	 * Color depth of terminals which display 24-bit colors.
+	 */
+	public static final int _DEPTH_24_BIT_ = 24;
 	
 	/*
 	 * Determine the operating system being used in order to ensure
@@ -59,11 +80,24 @@ public class BlumeText {
 		_OperatingSystem = System.getProperty( "os.name" ).toLowerCase();
 		
 		if ( _OperatingSystem.indexOf( "nux" ) >= 0
-				|| _OperatingSystem.indexOf( "nix" ) >= 0 ) {
+				|| _OperatingSystem.indexOf( "nix" ) >= 0
+				|| _OperatingSystem.indexOf( "mac" ) >= 0 ) {
 			_isANSI = true;
 		} else if ( _OperatingSystem.indexOf( "win" ) >= 0 ) {
 			_isWin32 = true;
 		}
+		
+		setCapabilities( BlumeCapabilities.detect() );
+		
+		// Windows 10 and later consoles take ANSI escape sequences once asked to
+		if ( _isWin32 ) {
+			try {
+				initializeVirtualTerminal( Win32.Kernel32.DLL, System.getenv( "TERM" ) != null
+						|| System.getenv( "COLORTERM" ) != null || System.getenv( "FORCE_COLOR" ) != null );
+			} catch ( LinkageError e ) {
+				// Without JNA the console cannot be reached
+			}
+		}
 	}
 
 	/*
@@ -131,6 +165,14 @@ public class BlumeText {
 	public static String Yellow;
 	
 	static {
+		initializePalette();
+	}
+	
+	/**
+	 * Sets the basic color palette foreground color options for the
+	 * code being used.
+	 */
+	protected static void initializePalette() {
 		if ( getIsANSI() ) {
 			Black = "30";
 			Red = "31";
@@ -157,15 +199,35 @@ public class BlumeText {
 		 * Bold display attribute for text.
 		 */
 		public static final String Bold = "1";
+		/**
+		 * Faint (dim) display attribute for text.
+		 */
+		public static final String Faint = "2";
+		/**
+		 * Italic display attribute for text.
+		 */
+		public static final String Italic = "3";
 		/**
 		 * Underline display attribute for text.
 		 */
 		public static final String Underline = "4";
+		/**
+		 * Blink display attribute for text.
+		 */
+		public static final String Blink = "5";
 		/**
 		 * Inverse display attribute for text
 		 * (switches foreground and background colors).
 		 */
 		public static final String Inverse = "7";
+		/**
+		 * Hidden display attribute for text.
+		 */
+		public static final String Hidden = "8";
+		/**
+		 * Strikethrough display attribute for text.
+		 */
+		public static final String Strikethrough = "9";
 	}
 	
 	/**
@@ -234,6 +296,14 @@ public class BlumeText {
 		public static String Yellow;
 		
 		static { 
+			initializePalette();
+		}
+		
+		/**
+		 * Sets the basic color palette background color options for the
+		 * code being used.
+		 */
+		protected static void initializePalette() {
 			if ( getIsANSI() ) {
 				Black = "40";
 				Blue = "44";
@@ -252,6 +322,45 @@ public class BlumeText {
 		}
 	}
 	
+	/**
+	 * Asks the Win32 console to interpret ANSI escape sequences and, when
+	 * it does, switches Blume from Win32 code to ANSI code, so colored text
+	 * is written as escape sequences in one write instead of through
+	 * console calls. This is tried when Blume starts on Windows; Win32 code
+	 * stays in use if the console refuses.
+	 * 
+	 * @param kernel32 Library the console is reached through, e.g., {@link blume.Win32.Kernel32#DLL}.
+	 * @return True if ANSI code is now being used.
+	 */
+	public static boolean enableVirtualTerminal( Win32.Kernel32 kernel32 ) {
+		if ( !Win32.enableVirtualTerminal( kernel32 ) ) {
+			return false;
+		}
+		
+		_isANSI = true;
+		_isWin32 = false;
+		
+		initializePalette();
+		Background.initializePalette();
+		
+		return true;
+	}
+	
+	/**
+	 * Switches a Win32 console to ANSI code when it takes ANSI escape
+	 * sequences, as Blume does when it starts on Windows.
+	 * 
+	 * @param kernel32 Library the console is reached through.
+	 * @param isColorSet Whether the environment states the color support,
+	 * e.g., through TERM, COLORTERM or FORCE_COLOR.
+	 */
+	protected static void initializeVirtualTerminal( Win32.Kernel32 kernel32, boolean isColorSet ) {
+		if ( enableVirtualTerminal( kernel32 ) && _capabilities.getIsColor() && !isColorSet ) {
+			// Virtual terminal consoles display 24-bit colors but set no variables saying so
+			setColorDepth( _DEPTH_24_BIT_ );
+		}
+	}
+	
 	/**
 	 * Returns whether ANSI code is being used based upon the operating system.
 	 * 
@@ -270,6 +379,55 @@ public class BlumeText {
 		return _isWin32;
 	}
 	
+	/**
+	 * Returns whether colors and display attributes are written at all. When
+	 * they are not, e.g., because output is redirected to a file or pipe,
+	 * text is printed without escape sequences or console changes.
+	 * 
+	 * @return True if color is used.
+	 */
+	public static boolean getIsColor() {
+		return _capabilities.getIsColor();
+	}
+	
+	/**
+	 * Returns whether ANSI escape sequences are written: ANSI code is being
+	 * used and the terminal takes color.
+	 * 
+	 * @return True if ANSI escape sequences are written.
+	 */
+	public static boolean getIsANSIColor() {
+		return _isANSI && _capabilities.getIsColor();
+	}
+	
+	/**
+	 * Gets what the terminal can display.
+	 * 
+	 * @return Capabilities probed when Blume started, unless replaced.
+	 */
+	public static BlumeCapabilities getCapabilities() {
+		return _capabilities;
+	}
+	
+	/**
+	 * Replaces the probed terminal capabilities, e.g., to force color on
+	 * for output which is read by a terminal later. The color depth is set
+	 * to the capabilities' depth when they use color.
+	 * 
+	 * @param capabilities
+	 */
+	public static void setCapabilities( BlumeCapabilities capabilities ) {
+		if ( capabilities == null ) {
+			throw new NullPointerException( "Blume requires terminal capabilities." );
+		}
+		
+		if ( capabilities.getIsColor() ) {
+			setColorDepth( capabilities.getColorDepth() );
+		}
+		
+		_capabilities = capabilities;
+	}
+	
 	/**
 	 * Gets a basic string of what operating system is currently being used.
 	 * 
@@ -278,4 +436,30 @@ public class BlumeText {
 	public static String getOS() {
 		return _OperatingSystem;
 	}
+	
+	/**
+	 * Gets the color depth which colors are reduced to before they are
+	 * written: 24-bit colors become the nearest of the 256-color palette,
+	 * and both become the nearest basic color.
+	 * 
+	 * @return One of {@link #_DEPTH_BASIC_}, {@link #_DEPTH_8_BIT_} or {@link #_DEPTH_24_BIT_}.
+	 */
+	public static int getColorDepth() {
+		return _colorDepth;
+	}
+	
+	/**
+	 * Sets the color depth which colors are reduced to before they are
+	 * written. {@link blume.BlumeStyle} objects already created build their
+	 * escape sequences again the next time they are printed.
+	 * 
+	 * @param depth One of {@link #_DEPTH_BASIC_}, {@link #_DEPTH_8_BIT_} or {@link #_DEPTH_24_BIT_}.
+	 */
+	public static void setColorDepth( int depth ) {
+		if ( depth != _DEPTH_BASIC_ && depth != _DEPTH_8_BIT_ && depth != _DEPTH_24_BIT_ ) {
+			throw new IllegalArgumentException( "Unsupported color depth: " + depth );
+		}
+		
+		_colorDepth = depth;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,868 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	BlumeWriter.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered Blume output sink which encodes escape sequences and text
+ * directly into a reusable byte buffer.
+ * 
+ * Where every {@link blume.Blume} method ends in its own call to
+ * System.out, a BlumeWriter collects any number of colored fragments and
+ * writes them to its output stream or channel in large chunks. The buffer
+ * is written out whenever it fills up and, if the writer was created to do
+ * so, whenever a new line is printed.
+ * 
+ * Text is encoded as UTF-8. Escape sequences are only written when ANSI
+ * is in use and the terminal takes color
+ * ({@link blume.BlumeText#getIsANSIColor()}); otherwise only the text is
+ * written.
+ * 
+ * As with a StringBuilder, a BlumeWriter is not safe for use by multiple
+ * threads at once.
+ */
+public class BlumeWriter implements Flushable, Closeable {
+	/**
+	 * Default size in bytes of the writer's buffer.
+	 */
+	public static final int _DEFAULT_CAPACITY_ = 8192;
+	/**
+	 * Smallest buffer allowed. Large enough to hold any color escape
+	 * sequence or encoded character.
+	 */
+	protected static final int _MIN_CAPACITY_ = BlumeEncoder._MAX_COLOR_PREFIX_LENGTH_;
+	/**
+	 * Line separator written by println().
+	 */
+	protected static final String _NEW_LINE_ = System.lineSeparator();
+	
+	/**
+	 * Stream the buffer is written to, or null if writing to a channel.
+	 */
+	protected final OutputStream out;
+	/**
+	 * Channel the buffer is written to, or null if writing to a stream.
+	 */
+	protected final WritableByteChannel channel;
+	/**
+	 * Reusable buffer of encoded bytes not yet written.
+	 */
+	protected final byte[] buffer;
+	/**
+	 * Channel view of the buffer.
+	 */
+	protected final ByteBuffer view;
+	/**
+	 * Number of bytes currently held in the buffer.
+	 */
+	protected int position;
+	/**
+	 * Flag to determine whether the buffer is written out after every new line.
+	 */
+	protected final boolean flushOnNewline;
+	/**
+	 * Flag set when a new line has been encoded since the last flush.
+	 */
+	protected boolean hasNewline;
+	/**
+	 * Flag set when writing to the stream or channel has failed.
+	 */
+	protected boolean hasError;
+	
+	/**
+	 * Default constructor which writes to standard output and flushes
+	 * after every new line.
+	 * 
+	 * Output is passed to System.out one buffer at a time, so it stays in
+	 * order with anything else printed through System.out.
+	 */
+	public BlumeWriter() {
+		this( System.out, _DEFAULT_CAPACITY_, true );
+	}
+	
+	/**
+	 * Constructor for a writer to any output stream which only flushes
+	 * when its buffer fills up or {@link #flush()} is called.
+	 * 
+	 * @param out
+	 */
+	public BlumeWriter( OutputStream out ) {
+		this( out, _DEFAULT_CAPACITY_, false );
+	}
+	
+	/**
+	 * Constructor for a writer to any output stream.
+	 * 
+	 * @param out
+	 * @param capacity Size of the buffer in bytes.
+	 * @param flushOnNewline Whether to flush after every new line.
+	 */
+	public BlumeWriter( OutputStream out, int capacity, boolean flushOnNewline ) {
+		this( out, null, capacity, flushOnNewline );
+	}
+	
+	/**
+	 * Constructor for a writer to any writable channel which only flushes
+	 * when its buffer fills up or {@link #flush()} is called.
+	 * 
+	 * @param channel
+	 */
+	public BlumeWriter( WritableByteChannel channel ) {
+		this( channel, _DEFAULT_CAPACITY_, false );
+	}
+	
+	/**
+	 * Constructor for a writer to any writable channel.
+	 * 
+	 * @param channel
+	 * @param capacity Size of the buffer in bytes.
+	 * @param flushOnNewline Whether to flush after every new line.
+	 */
+	public BlumeWriter( WritableByteChannel channel, int capacity, boolean flushOnNewline ) {
+		this( null, channel, capacity, flushOnNewline );
+	}
+	
+	/**
+	 * Shared constructor for stream and channel writers.
+	 * 
+	 * @param out
+	 * @param channel
+	 * @param capacity
+	 * @param flushOnNewline
+	 */
+	private BlumeWriter( OutputStream out, WritableByteChannel channel, int capacity, boolean flushOnNewline ) {
+		if ( out == null && channel == null ) {
+			throw new NullPointerException( "BlumeWriter requires an output stream or channel." );
+		}
+		
+		this.out = out;
+		this.channel = channel;
+		this.buffer = new byte[Math.max( capacity, _MIN_CAPACITY_ )];
+		this.view = ByteBuffer.wrap( this.buffer );
+		this.flushOnNewline = flushOnNewline;
+	}
+	
+	/**
+	 * Prints a string with various modifiers for text color and
+	 * display attributes.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param mods
+	 */
+	public <T> void print( T text, String... mods ) {
+		write( text, mods, null, null, false );
+	}
+	
+	/**
+	 * Prints a string with a foreground color described by a
+	 * BlumeColor object for 8- and 24-bit coloring.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param fg
+	 */
+	public <T> void print( T text, BlumeColor fg ) {
+		write( text, null, fg, null, false );
+	}
+	
+	/**
+	 * Prints a string with foreground and background colors described by
+	 * BlumeColor objects for 8- and 24-bit coloring.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param bg
+	 */
+	public <T> void print( T text, BlumeColor fg, BlumeColor bg ) {
+		write( text, null, fg, bg, false );
+	}
+	
+	/**
+	 * Prints a string with a foreground color described by a
+	 * BlumeColor object for 8- and 24-bit coloring. Certain ANSI
+	 * display attributes can also be used (e.g., bold, italic).
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param attrs
+	 */
+	public <T> void print( T text, BlumeColor fg, String... attrs ) {
+		write( text, attrs, fg, null, false );
+	}
+	
+	/**
+	 * Prints a string with a foreground and background color
+	 * described by BlumeColor objects for 8- and 24-bit coloring.
+	 * Certain ANSI display attributes can also be used
+	 * (e.g., bold, italic).
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param bg
+	 * @param attrs
+	 */
+	public <T> void print( T text, BlumeColor fg, BlumeColor bg, String... attrs ) {
+		write( text, attrs, fg, bg, false );
+	}
+	
+	/**
+	 * Prints a string with a precompiled {@link blume.BlumeStyle}.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void print( T text, BlumeStyle style ) {
+		write( text, style, false );
+	}
+	
+	/**
+	 * Prints a new line or LF.
+	 */
+	public void println() {
+		writeNewline();
+		
+		endCall();
+	}
+	
+	/**
+	 * Prints a string with various modifiers for text color and
+	 * display attributes.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param mods
+	 */
+	public <T> void println( T text, String... mods ) {
+		write( text, mods, null, null, true );
+	}
+	
+	/**
+	 * Prints a string with a foreground color described by a
+	 * BlumeColor object for 8- and 24-bit coloring.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param fg
+	 */
+	public <T> void println( T text, BlumeColor fg ) {
+		write( text, null, fg, null, true );
+	}
+	
+	/**
+	 * Prints a string with foreground and background colors described by
+	 * BlumeColor objects for 8- and 24-bit coloring.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param bg
+	 */
+	public <T> void println( T text, BlumeColor fg, BlumeColor bg ) {
+		write( text, null, fg, bg, true );
+	}
+	
+	/**
+	 * Prints a string with a foreground color described by a
+	 * BlumeColor object for 8- and 24-bit coloring. Certain ANSI
+	 * display attributes can also be used (e.g., bold, italic).
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param attrs
+	 */
+	public <T> void println( T text, BlumeColor fg, String... attrs ) {
+		write( text, attrs, fg, null, true );
+	}
+	
+	/**
+	 * Prints a string with a foreground and background color
+	 * described by BlumeColor objects for 8- and 24-bit coloring.
+	 * Certain ANSI display attributes can also be used
+	 * (e.g., bold, italic).
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param fg
+	 * @param bg
+	 * @param attrs
+	 */
+	public <T> void println( T text, BlumeColor fg, BlumeColor bg, String... attrs ) {
+		write( text, attrs, fg, bg, true );
+	}
+	
+	/**
+	 * Prints a string with a precompiled {@link blume.BlumeStyle}.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public <T> void println( T text, BlumeStyle style ) {
+		write( text, style, true );
+	}
+	
+	/**
+	 * Prints a string with its foreground color running through a gradient
+	 * one character at a time, from one color to another and then on
+	 * through any further stops.
+	 * 
+	 * A color's escape sequence is written only where the color changes,
+	 * and never in front of whitespace, so neighboring characters which
+	 * round to the same color share one sequence. Without ANSI support the
+	 * string is printed plainly.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @param stops
+	 */
+	public void printGradient( CharSequence text, BlumeColor from, BlumeColor to, BlumeColor... stops ) {
+		int length = text.length();
+		
+		if ( !BlumeText.getIsANSIColor() || length == 0 ) {
+			writeText( text, 0, length );
+			endCall();
+			
+			return;
+		}
+		
+		int[] rgbs = BlumeGradient.getStops( from, to, stops );
+		int depth = BlumeText.getColorDepth();
+		int count = Character.codePointCount( text, 0, length );
+		int current = 0;
+		int run = 0;
+		int index = 0;
+		
+		for ( int i = 0; i < length; index++ ) {
+			int codePoint = Character.codePointAt( text, i );
+			
+			if ( !Character.isWhitespace( codePoint ) ) {
+				// Compare colors as written so that neighbors reduced to one color share a sequence
+				int color = BlumeQuantizer.quantize( BlumeGradient.colorAt( rgbs, index, count ), depth );
+				
+				if ( color != current ) {
+					writeText( text, run, i );
+					writeColor( color );
+					
+					current = color;
+					run = i;
+				}
+			}
+			
+			i += Character.charCount( codePoint );
+		}
+		
+		writeText( text, run, length );
+		
+		if ( current != 0 ) {
+			writeBytes( BlumeEncoder._RESET_ );
+		}
+		
+		endCall();
+	}
+	
+	/**
+	 * Prints lines of text with each line's foreground color one step along
+	 * a gradient, from one color to another and then on through any
+	 * further stops.
+	 * 
+	 * Lines are separated by LF, which is kept as it is. A color's escape
+	 * sequence is written only where the color changes and not for blank
+	 * lines. Without ANSI support the text is printed plainly.
+	 * 
+	 * No new line or LF is produced beyond those in the text.
+	 * 
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @param stops
+	 */
+	public void printGradientLines( CharSequence text, BlumeColor from, BlumeColor to, BlumeColor... stops ) {
+		int length = text.length();
+		
+		if ( !BlumeText.getIsANSIColor() || length == 0 ) {
+			writeText( text, 0, length );
+			endCall();
+			
+			return;
+		}
+		
+		// A final LF ends the last line rather than starting another
+		int count = 1;
+		
+		for ( int i = 0; i < length - 1; i++ ) {
+			if ( text.charAt( i ) == '\n' ) {
+				count++;
+			}
+		}
+		
+		int[] rgbs = BlumeGradient.getStops( from, to, stops );
+		int depth = BlumeText.getColorDepth();
+		int current = 0;
+		int start = 0;
+		
+		for ( int line = 0; start < length; line++ ) {
+			int end = start;
+			boolean isBlank = true;
+			
+			while ( end < length && text.charAt( end ) != '\n' ) {
+				isBlank &= Character.isWhitespace( text.charAt( end ) );
+				end++;
+			}
+			
+			if ( !isBlank ) {
+				int color = BlumeQuantizer.quantize( BlumeGradient.colorAt( rgbs, line, count ), depth );
+				
+				if ( color != current ) {
+					writeColor( color );
+					
+					current = color;
+				}
+			}
+			
+			end = Math.min( end + 1, length );
+			
+			writeText( text, start, end );
+			
+			start = end;
+		}
+		
+		if ( current != 0 ) {
+			writeBytes( BlumeEncoder._RESET_ );
+		}
+		
+		endCall();
+	}
+	
+	/**
+	 * Writes out any buffered bytes and flushes the underlying stream.
+	 */
+	@Override
+	public void flush() {
+		drain();
+		
+		this.hasNewline = false;
+		
+		if ( this.out != null ) {
+			try {
+				this.out.flush();
+			} catch ( IOException e ) {
+				this.hasError = true;
+			}
+			
+			if ( BlumeMetrics._IS_ENABLED_ ) {
+				BlumeMetrics.recordFlush();
+			}
+		}
+	}
+	
+	/**
+	 * Flushes the writer and closes the underlying stream or channel.
+	 */
+	@Override
+	public void close() {
+		flush();
+		
+		try {
+			if ( this.out != null ) {
+				this.out.close();
+			} else {
+				this.channel.close();
+			}
+		} catch ( IOException e ) {
+			this.hasError = true;
+		}
+	}
+	
+	/**
+	 * Returns whether writing to the underlying stream or channel has
+	 * failed. Like a PrintStream, a BlumeWriter does not throw I/O
+	 * exceptions from its print methods.
+	 * 
+	 * @return True if an I/O error has occurred.
+	 */
+	public boolean checkError() {
+		return this.hasError;
+	}
+	
+	/**
+	 * Encodes text wrapped in the escape sequence for modifiers and colors.
+	 * 
+	 * @param text
+	 * @param attrs Modifiers or display attributes, or null for none.
+	 * @param fg Foreground color, or null for none.
+	 * @param bg Background color, or null for none.
+	 * @param newline Whether to end with a new line.
+	 */
+	protected void write( Object text, String[] attrs, BlumeColor fg, BlumeColor bg, boolean newline ) {
+		boolean isStyled = BlumeText.getIsANSIColor()
+				&& ( fg != null || bg != null || ( attrs != null && attrs.length > 0 ) );
+		
+		if ( isStyled ) {
+			writePrefix( attrs, fg, bg );
+			writeText( text );
+			writeBytes( BlumeEncoder._RESET_ );
+		} else {
+			writeText( text );
+		}
+		
+		if ( newline ) {
+			writeNewline();
+		}
+		
+		endCall();
+	}
+	
+	/**
+	 * Encodes text wrapped in the escape sequence of a style.
+	 * 
+	 * @param text
+	 * @param style
+	 * @param newline Whether to end with a new line.
+	 */
+	protected void write( Object text, BlumeStyle style, boolean newline ) {
+		if ( BlumeText.getIsANSIColor() ) {
+			writeBytes( style.getPrefixBytes() );
+			writeText( text );
+			writeBytes( style.getResetBytes() );
+		} else {
+			writeText( text );
+		}
+		
+		if ( newline ) {
+			writeNewline();
+		}
+		
+		endCall();
+	}
+	
+	/**
+	 * Encodes a complete ANSI escape sequence for display attributes and
+	 * foreground and background colors.
+	 * 
+	 * @param attrs
+	 * @param fg
+	 * @param bg
+	 */
+	protected void writePrefix( String[] attrs, BlumeColor fg, BlumeColor bg ) {
+		int length = BlumeEncoder.getMaxPrefixLength( attrs );
+		
+		if ( length <= this.buffer.length ) {
+			ensure( length );
+			
+			this.position = BlumeEncoder.encodePrefix( this.buffer, this.position, attrs, fg, bg );
+		} else { // Too many attributes to encode in place
+			byte[] prefix = new byte[length];
+			
+			length = BlumeEncoder.encodePrefix( prefix, 0, attrs, fg, bg );
+			
+			writeBytes( prefix, length );
+		}
+	}
+	
+	/**
+	 * Encodes the escape sequence for a packed foreground color.
+	 * 
+	 * @param packed
+	 */
+	protected void writeColor( int packed ) {
+		ensure( _MIN_CAPACITY_ );
+		
+		this.position = BlumeEncoder.encodePrefix( this.buffer, this.position, null, packed, 0 );
+	}
+	
+	/**
+	 * Encodes any object's text as UTF-8.
+	 * 
+	 * @param text
+	 */
+	protected void writeText( Object text ) {
+		CharSequence chars = ( text instanceof CharSequence ) ? (CharSequence) text : String.valueOf( text );
+		
+		writeText( chars, 0, chars.length() );
+	}
+	
+	/**
+	 * Encodes a range of characters as UTF-8.
+	 * 
+	 * @param chars
+	 * @param start Index of the first character.
+	 * @param length Index just past the last character.
+	 */
+	protected void writeText( CharSequence chars, int start, int length ) {
+		for ( int i = start; i < length; i++ ) {
+			// Make room for the longest possible encoding of one character
+			if ( this.position + 4 > this.buffer.length ) {
+				drain();
+			}
+			
+			char c = chars.charAt( i );
+			
+			if ( c < 0x80 ) { // ASCII
+				this.buffer[this.position++] = (byte) c;
+				
+				if ( c == '\n' ) {
+					this.hasNewline = true;
+				}
+			} else if ( c < 0x800 ) { // Two bytes
+				this.buffer[this.position++] = (byte) ( 0xC0 | ( c >> 6 ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( c & 0x3F ) );
+			} else if ( Character.isHighSurrogate( c ) && i + 1 < length
+					&& Character.isLowSurrogate( chars.charAt( i + 1 ) ) ) { // Four bytes
+				int codePoint = Character.toCodePoint( c, chars.charAt( ++i ) );
+				
+				this.buffer[this.position++] = (byte) ( 0xF0 | ( codePoint >> 18 ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+			} else if ( Character.isSurrogate( c ) ) { // Unpaired surrogate
+				this.buffer[this.position++] = (byte) '?';
+			} else { // Three bytes
+				this.buffer[this.position++] = (byte) ( 0xE0 | ( c >> 12 ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+				this.buffer[this.position++] = (byte) ( 0x80 | ( c & 0x3F ) );
+			}
+		}
+	}
+	
+	/**
+	 * Encodes a single code point as UTF-8.
+	 * 
+	 * @param codePoint
+	 */
+	protected void writeCodePoint( int codePoint ) {
+		ensure( 4 );
+		
+		if ( codePoint < 0x80 ) { // ASCII
+			this.buffer[this.position++] = (byte) codePoint;
+		} else if ( codePoint < 0x800 ) { // Two bytes
+			this.buffer[this.position++] = (byte) ( 0xC0 | ( codePoint >> 6 ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+		} else if ( codePoint < 0x10000 ) { // Three bytes
+			if ( Character.isSurrogate( (char) codePoint ) ) {
+				codePoint = '?';
+			}
+			
+			this.buffer[this.position++] = (byte) ( 0xE0 | ( codePoint >> 12 ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+		} else { // Four bytes
+			this.buffer[this.position++] = (byte) ( 0xF0 | ( codePoint >> 18 ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+			this.buffer[this.position++] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+		}
+	}
+	
+	/**
+	 * Encodes a string known to contain only ASCII characters.
+	 * 
+	 * @param ascii
+	 */
+	protected void writeASCII( String ascii ) {
+		int length = ascii.length();
+		
+		for ( int i = 0; i < length; i++ ) {
+			if ( this.position == this.buffer.length ) {
+				drain();
+			}
+			
+			this.buffer[this.position++] = (byte) ascii.charAt( i );
+		}
+	}
+	
+	/**
+	 * Copies already encoded bytes into the buffer.
+	 * 
+	 * @param bytes
+	 */
+	protected void writeBytes( byte[] bytes ) {
+		writeBytes( bytes, bytes.length );
+	}
+	
+	/**
+	 * Copies the first bytes of an array of already encoded bytes into
+	 * the buffer.
+	 * 
+	 * @param bytes
+	 * @param length
+	 */
+	protected void writeBytes( byte[] bytes, int length ) {
+		writeBytes( bytes, 0, length );
+	}
+	
+	/**
+	 * Copies a range of already encoded bytes into the buffer.
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 */
+	protected void writeBytes( byte[] bytes, int offset, int length ) {
+		int end = offset + length;
+		
+		while ( offset < end ) {
+			if ( this.position == this.buffer.length ) {
+				drain();
+			}
+			
+			int count = Math.min( end - offset, this.buffer.length - this.position );
+			
+			System.arraycopy( bytes, offset, this.buffer, this.position, count );
+			
+			this.position += count;
+			offset += count;
+		}
+	}
+	
+	/**
+	 * Copies already encoded bytes from a byte buffer into the buffer,
+	 * starting at its position and advancing it.
+	 * 
+	 * @param src
+	 * @param length
+	 */
+	protected void writeBytes( ByteBuffer src, int length ) {
+		while ( length > 0 ) {
+			if ( this.position == this.buffer.length ) {
+				drain();
+			}
+			
+			int count = Math.min( length, this.buffer.length - this.position );
+			
+			src.get( this.buffer, this.position, count );
+			
+			this.position += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Encodes a single ASCII character.
+	 * 
+	 * @param c
+	 */
+	protected void writeByte( char c ) {
+		ensure( 1 );
+		
+		this.buffer[this.position++] = (byte) c;
+	}
+	
+	/**
+	 * Encodes the line separator.
+	 */
+	protected void writeNewline() {
+		writeASCII( _NEW_LINE_ );
+		
+		this.hasNewline = true;
+	}
+	
+	/**
+	 * Applies the flush policy at the end of a print call.
+	 */
+	protected void endCall() {
+		if ( this.flushOnNewline && this.hasNewline ) {
+			flush();
+		}
+	}
+	
+	/**
+	 * Makes sure the buffer has room for a small number of bytes, writing
+	 * it out first if it does not.
+	 * 
+	 * @param length No more than {@link #_MIN_CAPACITY_} bytes.
+	 */
+	protected void ensure( int length ) {
+		if ( this.position + length > this.buffer.length ) {
+			drain();
+		}
+	}
+	
+	/**
+	 * Writes the buffered bytes to the underlying stream or channel
+	 * without flushing it.
+	 */
+	protected void drain() {
+		if ( this.position == 0 ) {
+			return;
+		}
+		
+		try {
+			if ( this.out != null ) {
+				this.out.write( this.buffer, 0, this.position );
+			} else {
+				this.view.clear();
+				this.view.limit( this.position );
+				
+				while ( this.view.hasRemaining() ) {
+					this.channel.write( this.view );
+				}
+			}
+		} catch ( IOException e ) {
+			this.hasError = true;
+		}
+		
+		if ( BlumeMetrics._IS_ENABLED_ ) {
+			BlumeMetrics.recordWrite( this.buffer, 0, this.position );
+		}
+		
+		this.position = 0;
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	ConsoleBackend.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+/**
+ * Console which changes text attributes through calls rather than escape
+ * sequences, as legacy Win32 consoles do. Blume prints to a Win32 console
+ * by setting the attributes, printing the text and resetting them.
+ * 
+ * The backend Blume uses can be replaced with
+ * {@link blume.Blume#setConsole(ConsoleBackend)}, e.g., with one which
+ * records the changes in memory to test Win32 output anywhere.
+ */
+public interface ConsoleBackend {
+	/**
+	 * Sets the console's text attributes from Win32 color modifiers.
+	 * 
+	 * @param mods Hexadecimal color modifiers, e.g., {@link blume.BlumeText#Red},
+	 * combined via bitwise OR.
+	 */
+	public void setAttributes( String[] mods );
+	
+	/**
+	 * Sets the console's text attributes.
+	 * 
+	 * @param attributes
+	 */
+	public void setAttributes( short attributes );
+	
+	/**
+	 * Restores the console's default text attributes.
+	 */
+	public void reset();
+}
@@ -0,0 +1,653 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	StyledText.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Growable buffer of styled text for assembling large colored documents
+ * before printing them.
+ * 
+ * Characters are kept in one char array and styles as runs in two
+ * parallel int arrays: the index where each run starts and the ID of its
+ * {@link blume.BlumeStyle} in the text's own table of the styles it uses.
+ * Memory grows with the length of the text, the number of style changes
+ * and the number of different styles, not with the number of appended
+ * fragments, and neighboring runs of the same style are always merged.
+ * 
+ * {@link #substring(int, int)} shares the arrays of the text it is taken
+ * from; the substring copies them only when it is appended to. Restyling
+ * builds new run arrays rather than changing shared ones.
+ * 
+ * Example:
+ * <pre>
+ * StyledText report = new StyledText();
+ * 
+ * report.append( "Status: " );
+ * report.append( "FAILED", BlumeStyle.of( BlumeText.Red, BlumeText.Attribute.Bold ) );
+ * report.restyle( 0, 6, BlumeStyle.of( BlumeText.Attribute.Underline ) );
+ * 
+ * Blume.println( report );
+ * </pre>
+ * 
+ * As with a StringBuilder, a StyledText is not safe for use by multiple
+ * threads at once.
+ */
+public class StyledText implements CharSequence {
+	/**
+	 * Initial number of characters of an empty text.
+	 */
+	protected static final int _DEFAULT_CAPACITY_ = 64;
+	/**
+	 * Number of styles in a text's table below which styles are looked up
+	 * by searching the table rather than through an index.
+	 */
+	protected static final int _STYLE_SEARCH_LIMIT_ = 16;
+	/**
+	 * Style which applies nothing.
+	 */
+	protected static final BlumeStyle _PLAIN_ = BlumeStyle.of();
+	
+	/**
+	 * Characters, possibly shared with other texts.
+	 */
+	protected char[] chars;
+	/**
+	 * Index in {@link #chars} of this text's first character.
+	 */
+	protected int offset;
+	/**
+	 * Number of characters in this text.
+	 */
+	protected int length;
+	/**
+	 * Index in {@link #chars} where each run starts. The first run may
+	 * start before {@link #offset}.
+	 */
+	protected int[] runStarts;
+	/**
+	 * Style ID of each run, an index into {@link #styles}.
+	 */
+	protected int[] runStyles;
+	/**
+	 * Styles of the runs by ID, possibly shared with other texts.
+	 */
+	protected BlumeStyle[] styles;
+	/**
+	 * Number of styles in {@link #styles}.
+	 */
+	protected int styleCount;
+	/**
+	 * ID of each style once there are too many to search, or null.
+	 */
+	protected IdentityHashMap<BlumeStyle, Integer> styleIds;
+	/**
+	 * Index in the run arrays of this text's first run.
+	 */
+	protected int firstRun;
+	/**
+	 * Number of runs in this text.
+	 */
+	protected int runCount;
+	/**
+	 * Flag set when the arrays belong to another text, so they must be
+	 * copied before this text is appended to.
+	 */
+	protected boolean isView;
+	/**
+	 * Flag set when the style table belongs to another text, so it must be
+	 * copied before a style is added.
+	 */
+	protected boolean isStylesShared;
+	
+	/**
+	 * Constructor for an empty text.
+	 */
+	public StyledText() {
+		this( _DEFAULT_CAPACITY_ );
+	}
+	
+	/**
+	 * Constructor for an empty text with room for a number of characters.
+	 * 
+	 * @param capacity
+	 */
+	public StyledText( int capacity ) {
+		this.chars = new char[Math.max( capacity, 1 )];
+		this.runStarts = new int[8];
+		this.runStyles = new int[8];
+		this.styles = new BlumeStyle[4];
+	}
+	
+	/**
+	 * Constructor for a text in one style.
+	 * 
+	 * @param text
+	 * @param style
+	 */
+	public StyledText( CharSequence text, BlumeStyle style ) {
+		this( text.length() );
+		
+		append( text, style );
+	}
+	
+	/**
+	 * Constructor for a view of part of another text's arrays.
+	 * 
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @param firstRun
+	 * @param runCount
+	 */
+	private StyledText( StyledText source, int offset, int length, int firstRun, int runCount ) {
+		this.chars = source.chars;
+		this.offset = offset;
+		this.length = length;
+		this.runStarts = source.runStarts;
+		this.runStyles = source.runStyles;
+		this.styles = source.styles;
+		this.styleCount = source.styleCount;
+		this.firstRun = firstRun;
+		this.runCount = runCount;
+		this.isView = true;
+		this.isStylesShared = true;
+	}
+	
+	/**
+	 * Joins texts into a new text, copying each one once.
+	 * 
+	 * @param texts
+	 * @return Joined text.
+	 */
+	public static StyledText concat( StyledText... texts ) {
+		int length = 0;
+		int runs = 0;
+		
+		for ( StyledText text : texts ) {
+			length += text.length;
+			runs += text.runCount;
+		}
+		
+		StyledText joined = new StyledText( length );
+		
+		joined.runStarts = new int[Math.max( runs, 1 )];
+		joined.runStyles = new int[Math.max( runs, 1 )];
+		
+		for ( StyledText text : texts ) {
+			joined.append( text );
+		}
+		
+		return joined;
+	}
+	
+	/**
+	 * Appends unstyled text.
+	 * 
+	 * @param text
+	 * @return This text.
+	 */
+	public StyledText append( CharSequence text ) {
+		return append( text, _PLAIN_ );
+	}
+	
+	/**
+	 * Appends text in a style.
+	 * 
+	 * @param text
+	 * @param style
+	 * @return This text.
+	 */
+	public StyledText append( CharSequence text, BlumeStyle style ) {
+		int count = text.length();
+		
+		if ( count == 0 ) {
+			return this;
+		}
+		
+		ensureCapacity( this.length + count );
+		
+		int start = this.offset + this.length;
+		
+		if ( text instanceof String ) {
+			( (String) text ).getChars( 0, count, this.chars, start );
+		} else {
+			for ( int i = 0; i < count; i++ ) {
+				this.chars[start + i] = text.charAt( i );
+			}
+		}
+		
+		this.length += count;
+		
+		addRun( start, getStyleId( style ) );
+		
+		return this;
+	}
+	
+	/**
+	 * Appends another styled text, keeping its styles.
+	 * 
+	 * @param text
+	 * @return This text.
+	 */
+	public StyledText append( StyledText text ) {
+		int count = text.length;
+		int runs = text.runCount;
+		
+		ensureCapacity( this.length + count );
+		
+		int base = this.length;
+		
+		System.arraycopy( text.chars, text.offset, this.chars, this.offset + base, count );
+		
+		this.length += count;
+		
+		for ( int i = 0; i < runs; i++ ) {
+			addRun( this.offset + base + text.getRunStart( i ), getStyleId( text.getRunStyle( i ) ) );
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Gets part of this text. The part shares this text's arrays until it
+	 * is appended to.
+	 * 
+	 * @param start
+	 * @param end
+	 * @return Part of this text.
+	 */
+	public StyledText substring( int start, int end ) {
+		checkRange( start, end );
+		
+		if ( start == end ) {
+			return new StyledText( 1 );
+		}
+		
+		int first = findRun( this.offset + start );
+		int last = findRun( this.offset + end - 1 );
+		
+		return new StyledText( this, this.offset + start, end - start, first, last - first + 1 );
+	}
+	
+	/**
+	 * Changes the style of part of this text.
+	 * 
+	 * @param start
+	 * @param end
+	 * @param style
+	 * @return This text.
+	 */
+	public StyledText restyle( int start, int end, BlumeStyle style ) {
+		checkRange( start, end );
+		
+		if ( start == end ) {
+			return this;
+		}
+		
+		int id = getStyleId( style );
+		int from = this.offset + start;
+		int to = this.offset + end;
+		int first = findRun( from );
+		int last = findRun( to - 1 );
+		int[] starts = new int[this.runCount + 2];
+		int[] styles = new int[this.runCount + 2];
+		int count = 0;
+		
+		// Runs before the range, and the head of the run it starts in
+		for ( int i = this.firstRun; i <= first && Math.max( this.runStarts[i], this.offset ) < from; i++ ) {
+			count = putRun( starts, styles, count, Math.max( this.runStarts[i], this.offset ), this.runStyles[i] );
+		}
+		
+		count = putRun( starts, styles, count, from, id );
+		
+		// The tail of the run the range ends in, and the runs after it
+		int limit = this.firstRun + this.runCount;
+		
+		if ( to < this.offset + this.length ) {
+			int next = ( last + 1 < limit ) ? this.runStarts[last + 1] : this.offset + this.length;
+			
+			if ( to < next ) {
+				count = putRun( starts, styles, count, to, this.runStyles[last] );
+			}
+		}
+		
+		for ( int i = last + 1; i < limit; i++ ) {
+			count = putRun( starts, styles, count, this.runStarts[i], this.runStyles[i] );
+		}
+		
+		this.runStarts = starts;
+		this.runStyles = styles;
+		this.firstRun = 0;
+		this.runCount = count;
+		
+		return this;
+	}
+	
+	/**
+	 * Prints this text in one pass, with each run wrapped in its style's
+	 * escape sequence. Without ANSI support the text is printed plainly.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param writer
+	 */
+	public void print( BlumeWriter writer ) {
+		write( writer );
+		
+		writer.endCall();
+	}
+	
+	/**
+	 * Prints this text in one pass, with each run wrapped in its style's
+	 * escape sequence. Without ANSI support the text is printed plainly.
+	 * 
+	 * This method produces a new line or LF.
+	 * 
+	 * @param writer
+	 */
+	public void println( BlumeWriter writer ) {
+		write( writer );
+		
+		writer.writeNewline();
+		writer.endCall();
+	}
+	
+	/**
+	 * Prints this text in one pass through a renderer, which writes only
+	 * the escape codes which change from one run to the next.
+	 * 
+	 * No new line or LF is produced.
+	 * 
+	 * @param renderer
+	 */
+	public void print( BlumeRenderer renderer ) {
+		for ( int i = 0; i < this.runCount; i++ ) {
+			renderer.print( this, getRunStart( i ), getRunEnd( i ), getRunStyle( i ) );
+		}
+	}
+	
+	/**
+	 * Encodes every run.
+	 * 
+	 * @param writer
+	 */
+	protected void write( BlumeWriter writer ) {
+		if ( !BlumeText.getIsANSIColor() ) {
+			writer.writeText( this, 0, this.length );
+			
+			return;
+		}
+		
+		for ( int i = 0; i < this.runCount; i++ ) {
+			BlumeStyle style = getRunStyle( i );
+			
+			writer.writeBytes( style.getPrefixBytes() );
+			writer.writeText( this, getRunStart( i ), getRunEnd( i ) );
+			writer.writeBytes( style.getResetBytes() );
+		}
+	}
+	
+	/**
+	 * Adds a run at the end of the text unless the last run already has
+	 * its style.
+	 * 
+	 * @param start Index in {@link #chars}.
+	 * @param id
+	 */
+	protected void addRun( int start, int id ) {
+		int end = this.firstRun + this.runCount;
+		
+		if ( this.runCount > 0 && this.runStyles[end - 1] == id ) {
+			return;
+		}
+		
+		if ( end == this.runStarts.length ) {
+			this.runStarts = Arrays.copyOf( this.runStarts, end * 2 );
+			this.runStyles = Arrays.copyOf( this.runStyles, end * 2 );
+		}
+		
+		this.runStarts[end] = start;
+		this.runStyles[end] = id;
+		this.runCount++;
+	}
+	
+	/**
+	 * Makes sure there is room for a number of characters, copying a view
+	 * into arrays of its own first.
+	 * 
+	 * @param capacity
+	 */
+	protected void ensureCapacity( int capacity ) {
+		if ( this.isView ) {
+			char[] chars = new char[Math.max( capacity, this.length * 2 )];
+			int[] starts = new int[Math.max( this.runCount * 2, 8 )];
+			int[] styles = new int[starts.length];
+			
+			System.arraycopy( this.chars, this.offset, chars, 0, this.length );
+			
+			for ( int i = 0; i < this.runCount; i++ ) {
+				starts[i] = getRunStart( i );
+				styles[i] = this.runStyles[this.firstRun + i];
+			}
+			
+			this.chars = chars;
+			this.offset = 0;
+			this.runStarts = starts;
+			this.runStyles = styles;
+			this.firstRun = 0;
+			this.isView = false;
+		} else if ( capacity > this.chars.length ) {
+			this.chars = Arrays.copyOf( this.chars, Math.max( capacity, this.chars.length * 2 ) );
+		}
+	}
+	
+	/**
+	 * Gets the ID of a style in this text's style table, adding the style
+	 * if the text does not use it yet.
+	 * 
+	 * @param style
+	 * @return ID of the style.
+	 */
+	protected int getStyleId( BlumeStyle style ) {
+		if ( this.styleIds != null ) {
+			Integer id = this.styleIds.get( style );
+			
+			if ( id != null ) {
+				return id;
+			}
+		} else {
+			// Most texts use a few styles, so search from the newest
+			for ( int id = this.styleCount - 1; id >= 0; id-- ) {
+				if ( this.styles[id] == style ) {
+					return id;
+				}
+			}
+		}
+		
+		if ( this.isStylesShared ) { // Never add to another text's table
+			this.styles = Arrays.copyOf( this.styles, Math.max( this.styleCount * 2, 4 ) );
+			this.isStylesShared = false;
+		} else if ( this.styleCount == this.styles.length ) {
+			this.styles = Arrays.copyOf( this.styles, this.styleCount * 2 );
+		}
+		
+		int id = this.styleCount++;
+		
+		this.styles[id] = style;
+		
+		if ( this.styleIds != null ) {
+			this.styleIds.put( style, id );
+		} else if ( this.styleCount > _STYLE_SEARCH_LIMIT_ ) {
+			this.styleIds = new IdentityHashMap<BlumeStyle, Integer>( this.styleCount * 2 );
+			
+			for ( int i = 0; i < this.styleCount; i++ ) {
+				this.styleIds.put( this.styles[i], i );
+			}
+		}
+		
+		return id;
+	}
+	
+	/**
+	 * Finds the run which holds a character.
+	 * 
+	 * @param index Index in {@link #chars}.
+	 * @return Index in the run arrays.
+	 */
+	protected int findRun( int index ) {
+		int low = this.firstRun;
+		int high = this.firstRun + this.runCount - 1;
+		
+		while ( low < high ) {
+			int middle = ( low + high + 1 ) >>> 1;
+			
+			if ( this.runStarts[middle] <= index ) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * Adds a run to new run arrays, merging it into the previous run if
+	 * both have the same style.
+	 * 
+	 * @param starts
+	 * @param styles
+	 * @param count
+	 * @param start
+	 * @param id
+	 * @return New number of runs.
+	 */
+	private static int putRun( int[] starts, int[] styles, int count, int start, int id ) {
+		if ( count > 0 && styles[count - 1] == id ) {
+			return count;
+		}
+		
+		starts[count] = start;
+		styles[count] = id;
+		
+		return count + 1;
+	}
+	
+	/**
+	 * Checks that a range lies within this text.
+	 * 
+	 * @param start
+	 * @param end
+	 */
+	private void checkRange( int start, int end ) {
+		if ( start < 0 || end > this.length || start > end ) {
+			throw new StringIndexOutOfBoundsException( "Range [" + start + ", " + end + ") of length " + this.length );
+		}
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return The number of style runs.
+	 */
+	public int getRunCount() {
+		return this.runCount;
+	}
+	
+	/**
+	 * @param run
+	 * @return The index of the first character of a run.
+	 */
+	public int getRunStart( int run ) {
+		return Math.max( this.runStarts[this.firstRun + run] - this.offset, 0 );
+	}
+	
+	/**
+	 * @param run
+	 * @return The index just past the last character of a run.
+	 */
+	public int getRunEnd( int run ) {
+		return ( run + 1 < this.runCount ) ? this.runStarts[this.firstRun + run + 1] - this.offset : this.length;
+	}
+	
+	/**
+	 * @param run
+	 * @return The style of a run.
+	 */
+	public BlumeStyle getRunStyle( int run ) {
+		return this.styles[this.runStyles[this.firstRun + run]];
+	}
+	
+	/**
+	 * @param index
+	 * @return The style of the character at an index.
+	 */
+	public BlumeStyle getStyleAt( int index ) {
+		if ( index < 0 || index >= this.length ) {
+			throw new StringIndexOutOfBoundsException( index );
+		}
+		
+		return this.styles[this.runStyles[findRun( this.offset + index )]];
+	}
+	
+	@Override
+	public int length() {
+		return this.length;
+	}
+	
+	@Override
+	public char charAt( int index ) {
+		if ( index < 0 || index >= this.length ) {
+			throw new StringIndexOutOfBoundsException( index );
+		}
+		
+		return this.chars[this.offset + index];
+	}
+	
+	@Override
+	public CharSequence subSequence( int start, int end ) {
+		return substring( start, end );
+	}
+	
+	/**
+	 * @return The characters of this text without styles.
+	 */
+	@Override
+	public String toString() {
+		return new String( this.chars, this.offset, this.length );
+	}
+}
@@ -39,6 +39,7 @@ import java.util.List;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
 import com.sun.jna.Structure;
+import com.sun.jna.ptr.IntByReference;
 
 /**
  * Class built on JNA objects for Win32 console coloring.
@@ -53,6 +54,11 @@ public class Win32 {
 	 * Standard output handle for Win32.
 	 */
 	public static final int STD_OUTPUT_HANDLE				= -11;
+	/**
+	 * Console mode flag which makes the console interpret ANSI escape
+	 * sequences (Windows 10 and later).
+	 */
+	public static final int ENABLE_VIRTUAL_TERMINAL_PROCESSING	= 0x0004;
 	
 	/**
 	 * Simple console coordinate points class.
@@ -140,6 +146,10 @@ public class Win32 {
 		
 		public boolean GetConsoleScreenBufferInfo( int in_hConsoleOutput, CONSOLE_SCREEN_BUFFER_INFO out_lpConsoleScreenBufferInfo );
 		
+		public boolean GetConsoleMode( int in_hConsoleHandle, IntByReference out_lpMode );
+		
+		public boolean SetConsoleMode( int in_hConsoleHandle, int in_dwMode );
+		
 		//public int GetLastError();
 	}
 	
@@ -167,6 +177,30 @@ public class Win32 {
 		Kernel32.DLL.GetConsoleScreenBufferInfo( handleStdOut, consoleInfo );
 	}
 	
+	/**
+	 * Turns on virtual terminal processing for the standard output
+	 * console, so that it interprets ANSI escape sequences.
+	 * 
+	 * @param kernel32 Library the console is reached through, e.g., {@link Kernel32#DLL}.
+	 * @return True if the console now interprets ANSI escape sequences,
+	 * false if standard output is not a console or the console predates
+	 * Windows 10.
+	 */
+	public static boolean enableVirtualTerminal( Kernel32 kernel32 ) {
+		int handleStdOut = kernel32.GetStdHandle( STD_OUTPUT_HANDLE );
+		IntByReference mode = new IntByReference();
+		
+		if ( !kernel32.GetConsoleMode( handleStdOut, mode ) ) {
+			return false;
+		}
+		
+		if ( ( mode.getValue() & ENABLE_VIRTUAL_TERMINAL_PROCESSING ) != 0 ) {
+			return true;
+		}
+		
+		return kernel32.SetConsoleMode( handleStdOut, mode.getValue() | ENABLE_VIRTUAL_TERMINAL_PROCESSING );
+	}
+	
 	/**
 	 * Resets the console with standard console attributes.
 	 */
@@ -203,12 +237,22 @@ public class Win32 {
 	public static void setColor( String[] mods ) {
 		int handleStdOut = Kernel32.DLL.GetStdHandle( STD_OUTPUT_HANDLE );
 		
+		Kernel32.DLL.SetConsoleTextAttribute( handleStdOut, parseAttributes( mods ) );
+	}
+	
+	/**
+	 * Parses Win32 color modifiers into console text attributes.
+	 * 
+	 * @param mods Hexadecimal color modifiers, e.g., {@link blume.BlumeText#Red}.
+	 * @return The modifiers combined via bitwise OR.
+	 */
+	public static short parseAttributes( String[] mods ) {
 		// Parse the color modifier for Windows systems from string arguments into a base-16 short
 		short colors = 0x00;
 		for ( int i = 0; i < mods.length; i++ ) {
 			colors |= (short) Integer.parseInt( mods[i], 16 );
 		}
 		
-		Kernel32.DLL.SetConsoleTextAttribute( handleStdOut, colors );
+		return colors;
 	}
 }
@@ -0,0 +1,147 @@
+/**
+ * Project: Blume
+ * 
+ * Blume is a simple interface for producing ANSI 8-bit and 24-bit colored text with
+ * foreground and background color options and various display attributes.
+ * 
+ * @file	Win32ConsoleBackend.java
+ * @version	1.1.0
+ * 
+ * @author	Allen Vanderlinde
+ * @date	10/17/2026
+ * 
+ * @copyright
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2018 Allen Vanderlinde
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package blume;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Console backend for Win32 consoles through the kernel32 library.
+ * 
+ * The standard output handle and the console's default text attributes
+ * are looked up once, when the backend is first used, and the attributes
+ * parsed from each combination of modifiers are cached. The attributes
+ * are only set when they change, so printing colored text takes at most
+ * two native calls instead of one lookup of the handle per call.
+ */
+public class Win32ConsoleBackend implements ConsoleBackend {
+	/**
+	 * Library the native calls are made through.
+	 */
+	private final Win32.Kernel32 kernel32;
+	/**
+	 * Parsed attributes of each combination of modifiers seen.
+	 */
+	private final ConcurrentHashMap<List<String>, Short> parsed = new ConcurrentHashMap<List<String>, Short>();
+	private boolean isInitialized;
+	private int handle;
+	private short defaults;
+	private short current;
+	
+	/**
+	 * Constructor for a backend using the native kernel32 library.
+	 */
+	public Win32ConsoleBackend() {
+		this( Win32.Kernel32.DLL );
+	}
+	
+	/**
+	 * Constructor for a backend using any kernel32 library, e.g., a
+	 * stand-in which counts the calls made to it.
+	 * 
+	 * @param kernel32
+	 */
+	public Win32ConsoleBackend( Win32.Kernel32 kernel32 ) {
+		if ( kernel32 == null ) {
+			throw new NullPointerException( "kernel32" );
+		}
+		
+		this.kernel32 = kernel32;
+	}
+	
+	@Override
+	public void setAttributes( String[] mods ) {
+		Short attributes = this.parsed.get( Arrays.asList( mods ) );
+		
+		if ( attributes == null ) {
+			attributes = Win32.parseAttributes( mods );
+			
+			// Copy the modifiers, since the caller's array may change
+			this.parsed.putIfAbsent( Arrays.asList( mods.clone() ), attributes );
+		}
+		
+		setAttributes( attributes.shortValue() );
+	}
+	
+	@Override
+	public synchronized void setAttributes( short attributes ) {
+		initialize();
+		
+		if ( attributes != this.current ) {
+			this.kernel32.SetConsoleTextAttribute( this.handle, attributes );
+			this.current = attributes;
+		}
+	}
+	
+	@Override
+	public synchronized void reset() {
+		initialize();
+		
+		if ( this.current != this.defaults ) {
+			this.kernel32.SetConsoleTextAttribute( this.handle, this.defaults );
+			this.current = this.defaults;
+		}
+	}
+	
+	/**
+	 * Looks up the standard output handle and the default text attributes
+	 * the first time the backend is used.
+	 */
+	private void initialize() {
+		if ( this.isInitialized ) {
+			return;
+		}
+		
+		Win32.CONSOLE_SCREEN_BUFFER_INFO info = new Win32.CONSOLE_SCREEN_BUFFER_INFO();
+		
+		this.handle = this.kernel32.GetStdHandle( Win32.STD_OUTPUT_HANDLE );
+		this.kernel32.GetConsoleScreenBufferInfo( this.handle, info );
+		this.defaults = info.wAttributes;
+		this.current = this.defaults;
+		this.isInitialized = true;
+	}
+	
+	/*
+	 * Accessors.
+	 */
+	/**
+	 * @return The console's default text attributes.
+	 */
+	public synchronized short getDefaults() {
+		initialize();
+		
+		return this.defaults;
+	}
+}